@@ -1,6 +1,7 @@
 package dk.sdu.cbse.asteroid;
 
 import dk.sdu.cbse.core.Entity;
+import dk.sdu.cbse.core.EntityPool;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
@@ -60,6 +61,9 @@ public class Asteroid extends Entity {
     private static final float MIN_ROTATION_SPEED = 0.2f;
     private static final float MAX_ROTATION_SPEED = 1.5f;
     
+    // Pool that split fragments are taken from
+    private static final EntityPool<Asteroid> pool = new EntityPool<>(() -> new Asteroid(Size.SMALL), null);
+    
     private Size size;
     private float rotationSpeed; // Radians per second
     
@@ -67,6 +71,23 @@ public class Asteroid extends Entity {
      * Creates a new asteroid of the specified size.
      */
     public Asteroid(Size size) {
+        reset(size);
+    }
+    
+    /**
+     * Takes an asteroid of the specified size from the pool.
+     * The asteroid returns to the pool once the game reclaims it.
+     */
+    public static Asteroid obtain(Size size) {
+        Asteroid asteroid = pool.acquire();
+        asteroid.reset(size);
+        return asteroid;
+    }
+    
+    /**
+     * Reinitializes this asteroid with the specified size and random movement.
+     */
+    public void reset(Size size) {
         this.size = size;
         setType("asteroid");
         setRadius(size.getRadius());
@@ -75,6 +96,13 @@ public class Asteroid extends Entity {
         initializeRandomMovement();
     }
     
+    /**
+     * Gets the pool split fragments are taken from, for monitoring.
+     */
+    public static EntityPool<Asteroid> getPool() {
+        return pool;
+    }
+    
     /**
      * Sets random velocity and rotation for the asteroid.
      */
@@ -105,7 +133,7 @@ public class Asteroid extends Entity {
         if (nextSize != null) {
             // Create the specified number of smaller asteroids
             for (int i = 0; i < size.getSplitCount(); i++) {
-                Asteroid newAsteroid = new Asteroid(nextSize);
+                Asteroid newAsteroid = obtain(nextSize);
                 
                 // Position new asteroid at the same location
                 newAsteroid.setX(getX());
@@ -1,10 +1,15 @@
 package dk.sdu.cbse.asteroid;
 
 import dk.sdu.cbse.core.Entity;
+import dk.sdu.cbse.core.EntityStore;
 import dk.sdu.cbse.core.IEntityProcessorService;
+import dk.sdu.cbse.core.ParallelLoops;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Processor that handles asteroid movement and behavior.
@@ -15,57 +20,105 @@ public class AsteroidProcessor implements IEntityProcessorService {
     private static final int GAME_WIDTH = 800;
     private static final int GAME_HEIGHT = 600;
     
+    // Asteroid counts from which the store columns are updated in parallel chunks
+    private static final int PARALLEL_THRESHOLD = Integer.getInteger("asteroids.asteroidParallelThreshold", 4096);
+    private static final int CHUNK_SIZE = 2048;
+    
+    private static final Set<String> TYPES = Collections.singleton("asteroid");
+    
     // List to hold new asteroids created from splits
     private final List<Asteroid> newAsteroids = new ArrayList<>();
     
+    // Store slots and spin rates of the asteroids processed this frame
+    private int[] slots = new int[64];
+    private float[] rotationSpeeds = new float[64];
+    
     @Override
     public void process(List<Entity> entities, float deltaTime) {
         // Clear new asteroids list
         newAsteroids.clear();
         
-        // Process all asteroid entities
+        // Gather all active asteroids
+        int count = 0;
         for (Entity entity : entities) {
             if (entity instanceof Asteroid && entity.isActive()) {
-                Asteroid asteroid = (Asteroid) entity;
-                
-                // Update rotation
-                asteroid.updateRotation(deltaTime);
-                
-                // Update position
-                asteroid.setX(asteroid.getX() + asteroid.getDx() * deltaTime);
-                asteroid.setY(asteroid.getY() + asteroid.getDy() * deltaTime);
-                
-                // Apply screen wrapping
-                wrapPosition(asteroid);
-                
-                // Check for collisions with other entities
-                // Note: Actual collision handling would be done in a post-processor
-                // or by publishing collision events
+                if (count == slots.length) {
+                    slots = Arrays.copyOf(slots, count * 2);
+                    rotationSpeeds = Arrays.copyOf(rotationSpeeds, count * 2);
+                }
+                slots[count] = entity.getSlot();
+                rotationSpeeds[count] = ((Asteroid) entity).getRotationSpeed();
+                count++;
             }
         }
         
+        // Update rotation, position and screen wrapping directly on the store columns
+        EntityStore store = EntityStore.getDefault();
+        if (count >= PARALLEL_THRESHOLD) {
+            int[] gathered = slots;
+            ParallelLoops.forEachChunk(count, CHUNK_SIZE, (from, to) -> {
+                updateRotations(store, from, to, deltaTime);
+                store.integratePositions(gathered, from, to, deltaTime);
+                wrapPositions(store, from, to);
+            });
+        } else {
+            updateRotations(store, 0, count, deltaTime);
+            store.integratePositions(slots, count, deltaTime);
+            wrapPositions(store, 0, count);
+        }
+        
         // Add any new asteroids created from splits directly to the entities list
         if (!newAsteroids.isEmpty()) {
             entities.addAll(newAsteroids);
         }
     }
     
+    @Override
+    public Set<String> getReadTypes() {
+        return TYPES;
+    }
+    
+    @Override
+    public Set<String> getWriteTypes() {
+        return TYPES;
+    }
+    
     /**
-     * Wraps asteroid position around screen edges.
+     * Spins the gathered asteroids in the range [from, to) by their rotation speed.
      */
-    private void wrapPosition(Asteroid asteroid) {
-        // Wrap horizontally
-        if (asteroid.getX() < -asteroid.getRadius()) {
-            asteroid.setX(GAME_WIDTH + asteroid.getRadius());
-        } else if (asteroid.getX() > GAME_WIDTH + asteroid.getRadius()) {
-            asteroid.setX(-asteroid.getRadius());
+    private void updateRotations(EntityStore store, int from, int to, float deltaTime) {
+        float[] radians = store.getRadiansColumn();
+        
+        for (int i = from; i < to; i++) {
+            radians[slots[i]] += rotationSpeeds[i] * deltaTime;
         }
+    }
+    
+    /**
+     * Wraps the gathered asteroid positions in the range [from, to) around screen edges.
+     */
+    private void wrapPositions(EntityStore store, int from, int to) {
+        float[] x = store.getXColumn();
+        float[] y = store.getYColumn();
+        float[] radius = store.getRadiusColumn();
         
-        // Wrap vertically
-        if (asteroid.getY() < -asteroid.getRadius()) {
-            asteroid.setY(GAME_HEIGHT + asteroid.getRadius());
-        } else if (asteroid.getY() > GAME_HEIGHT + asteroid.getRadius()) {
-            asteroid.setY(-asteroid.getRadius());
+        for (int i = from; i < to; i++) {
+            int slot = slots[i];
+            float r = radius[slot];
+            
+            // Wrap horizontally
+            if (x[slot] < -r) {
+                x[slot] = GAME_WIDTH + r;
+            } else if (x[slot] > GAME_WIDTH + r) {
+                x[slot] = -r;
+            }
+            
+            // Wrap vertically
+            if (y[slot] < -r) {
+                y[slot] = GAME_HEIGHT + r;
+            } else if (y[slot] > GAME_HEIGHT + r) {
+                y[slot] = -r;
+            }
         }
     }
     
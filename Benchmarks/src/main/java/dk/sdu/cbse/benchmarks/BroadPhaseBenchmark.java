@@ -0,0 +1,88 @@
+package dk.sdu.cbse.benchmarks;
+
+import dk.sdu.cbse.core.collision.AabbTreeCollisionService;
+import dk.sdu.cbse.core.collision.DefaultCollisionService;
+import dk.sdu.cbse.core.collision.ICollisionService;
+import dk.sdu.cbse.core.collision.SweepAndPruneCollisionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Broad phases of the collision services over consecutive frames of a moving world.
+ * The world size is fixed, so the entity count sets the density. Entities move along
+ * their velocity at 60 frames per second and turn around every two seconds, so the
+ * world keeps changing smoothly the way a running game does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BroadPhaseBenchmark {
+
+    private static final float FRAME_TIME = 1.0f / 60;
+    private static final int FRAMES_PER_LEG = 120;
+
+    @Param({"100", "1000", "10000"})
+    private int entityCount;
+
+    @Param({"GRID", "SWEEP_AND_PRUNE", "AABB_TREE"})
+    private BroadPhase broadPhase;
+
+    /**
+     * Collision service implementations under test.
+     */
+    public enum BroadPhase {
+        GRID,
+        SWEEP_AND_PRUNE,
+        AABB_TREE
+    }
+
+    private World world;
+    private DefaultCollisionService collisionService;
+    private int frame;
+
+    @Setup(Level.Trial)
+    public void createWorld() {
+        world = new World(entityCount, World.Mix.BALANCED);
+        switch (broadPhase) {
+            case SWEEP_AND_PRUNE:
+                collisionService = new SweepAndPruneCollisionService();
+                break;
+            case AABB_TREE:
+                collisionService = new AabbTreeCollisionService();
+                break;
+            default:
+                collisionService = new DefaultCollisionService();
+                break;
+        }
+        frame = 0;
+    }
+
+    @Setup(Level.Invocation)
+    public void nextFrame() {
+        // Move forward for one leg, then back again, so positions never jump
+        int step = frame++ % (2 * FRAMES_PER_LEG);
+        int offset = step < FRAMES_PER_LEG ? step : 2 * FRAMES_PER_LEG - step;
+        world.restore(offset * FRAME_TIME);
+    }
+
+    @Benchmark
+    public List<ICollisionService.CollisionResult> detectCollisions() {
+        return collisionService.detectCollisions(world.getEntities());
+    }
+}
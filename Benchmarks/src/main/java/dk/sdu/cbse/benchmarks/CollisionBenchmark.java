@@ -0,0 +1,66 @@
+package dk.sdu.cbse.benchmarks;
+
+import dk.sdu.cbse.core.CollisionProcessor;
+import dk.sdu.cbse.core.collision.DefaultCollisionService;
+import dk.sdu.cbse.core.collision.ICollisionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collision detection over a full frame of entities.
+ * Collisions deactivate entities, so the world is restored before every invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    private int entityCount;
+
+    @Param({"ASTEROIDS", "BALANCED", "PROJECTILES"})
+    private World.Mix mix;
+
+    private World world;
+    private CollisionProcessor collisionProcessor;
+    private DefaultCollisionService collisionService;
+
+    @Setup(Level.Trial)
+    public void createWorld() {
+        world = new World(entityCount, mix);
+        collisionProcessor = new CollisionProcessor();
+        collisionService = new DefaultCollisionService();
+    }
+
+    @Setup(Level.Invocation)
+    public void restoreWorld() {
+        world.restore();
+    }
+
+    @Benchmark
+    public CollisionProcessor collisionProcessorPostProcess() {
+        collisionProcessor.postProcess(world.getEntities(), 1.0f / 60);
+        return collisionProcessor;
+    }
+
+    @Benchmark
+    public List<ICollisionService.CollisionResult> defaultCollisionServiceDetect() {
+        return collisionService.detectCollisions(world.getEntities());
+    }
+}
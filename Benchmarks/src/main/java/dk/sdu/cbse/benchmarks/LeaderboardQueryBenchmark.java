@@ -0,0 +1,96 @@
+package dk.sdu.cbse.benchmarks;
+
+import dk.sdu.cbse.scoring.repository.ScoreRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leaderboard queries of the Scoring service over a table of millions of scores,
+ * with and without the indexes declared on the Score entity.
+ * Deep pages are read halfway into the table, once with the keyset queries of
+ * ScoreRepository and once with the OFFSET pagination they replace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class LeaderboardQueryBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"1000000", "3000000"})
+    private int rowCount;
+
+    @Param({"false", "true"})
+    private boolean indexed;
+
+    private ScoreDatabase database;
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private MapSqlParameterSource firstPage;
+    private MapSqlParameterSource deepPage;
+    private MapSqlParameterSource playerPage;
+
+    @Setup(Level.Trial)
+    public void createDatabase() {
+        database = new ScoreDatabase(indexed);
+        database.populate(rowCount);
+        jdbcTemplate = new NamedParameterJdbcTemplate(database.getJdbcTemplate());
+
+        firstPage = new MapSqlParameterSource("limit", PAGE_SIZE);
+        playerPage = new MapSqlParameterSource("limit", PAGE_SIZE).addValue("playerName", "Player42");
+
+        // Cursor of the page halfway into the leaderboard
+        Map<String, Object> middle = database.getJdbcTemplate().queryForMap(
+                "SELECT score_value, id FROM scores ORDER BY score_value DESC, id DESC LIMIT 1 OFFSET ?",
+                rowCount / 2 - 1);
+        deepPage = new MapSqlParameterSource("limit", PAGE_SIZE)
+                .addValue("offset", rowCount / 2)
+                .addValue("afterScore", middle.get("SCORE_VALUE"))
+                .addValue("afterId", middle.get("ID"));
+    }
+
+    @TearDown(Level.Trial)
+    public void dropDatabase() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> firstPage() {
+        return jdbcTemplate.queryForList(ScoreRepository.SCORES_PAGE_SQL, firstPage);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> keysetDeepPage() {
+        return jdbcTemplate.queryForList(ScoreRepository.SCORES_PAGE_AFTER_SQL, deepPage);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> offsetDeepPage() {
+        return jdbcTemplate.queryForList(
+                "SELECT * FROM scores ORDER BY score_value DESC, id DESC LIMIT :limit OFFSET :offset", deepPage);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> playerPage() {
+        return jdbcTemplate.queryForList(ScoreRepository.PLAYER_SCORES_PAGE_SQL, playerPage);
+    }
+}
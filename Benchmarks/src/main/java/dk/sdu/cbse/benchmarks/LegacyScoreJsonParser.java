@@ -0,0 +1,140 @@
+package dk.sdu.cbse.benchmarks;
+
+import dk.sdu.cbse.core.score.ScoreData;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * The split and indexOf based score parser the client used before the streaming
+ * ScoreJsonReader, kept as the baseline of {@link ScoreParsingBenchmark}.
+ */
+final class LegacyScoreJsonParser {
+
+    private static final Logger logger = Logger.getLogger(LegacyScoreJsonParser.class.getName());
+
+    private LegacyScoreJsonParser() {
+    }
+    
+    /**
+     * Parses a JSON array of scores into a list of ScoreData objects.
+     * This is a simple implementation and assumes well-formed JSON.
+     *
+     * @param json The JSON array string
+     * @return A list of ScoreData objects
+     */
+    static List<ScoreData> parseScores(String json) {
+        List<ScoreData> scores = new ArrayList<>();
+        
+        // Simple JSON array parsing
+        if (json == null || json.isEmpty() || !json.startsWith("[")) {
+            return scores;
+        }
+        
+        // Remove outer brackets
+        json = json.substring(1, json.length() - 1);
+        
+        // Split by objects (looking for },{)
+        String[] scoreObjects = json.split("\\},\\{");
+        
+        for (int i = 0; i < scoreObjects.length; i++) {
+            String scoreJson = scoreObjects[i];
+            
+            // Fix the JSON object string
+            if (i == 0 && !scoreJson.startsWith("{")) {
+                scoreJson = "{" + scoreJson;
+            }
+            if (i == scoreObjects.length - 1 && !scoreJson.endsWith("}")) {
+                scoreJson = scoreJson + "}";
+            }
+            if (i > 0 && i < scoreObjects.length - 1) {
+                scoreJson = "{" + scoreJson + "}";
+            }
+            
+            ScoreData score = parseScore(scoreJson);
+            if (score != null) {
+                scores.add(score);
+            }
+        }
+        
+        return scores;
+    }
+    
+    /**
+     * Parses a JSON object into a ScoreData object.
+     * This is a simple implementation and assumes well-formed JSON.
+     *
+     * @param json The JSON object string
+     * @return A ScoreData object
+     */
+    static ScoreData parseScore(String json) {
+        if (json == null || json.isEmpty() || !json.startsWith("{")) {
+            return null;
+        }
+        
+        Long id = null;
+        String playerName = null;
+        int scoreValue = 0;
+        LocalDateTime gameDate = LocalDateTime.now();
+        
+        // Extract id
+        int idStart = json.indexOf("\"id\":");
+        if (idStart >= 0) {
+            idStart += 5; // Move past "id":
+            int idEnd = json.indexOf(",", idStart);
+            if (idEnd < 0) {
+                idEnd = json.indexOf("}", idStart);
+            }
+            if (idEnd >= 0) {
+                String idStr = json.substring(idStart, idEnd).trim();
+                try {
+                    id = Long.parseLong(idStr);
+                } catch (NumberFormatException e) {
+                    logger.warning("Failed to parse id: " + idStr);
+                }
+            }
+        }
+        
+        // Extract playerName
+        int nameStart = json.indexOf("\"playerName\":");
+        if (nameStart >= 0) {
+            nameStart = json.indexOf("\"", nameStart + 13) + 1; // Move past "playerName":"
+            int nameEnd = json.indexOf("\"", nameStart);
+            if (nameEnd >= 0) {
+                playerName = json.substring(nameStart, nameEnd);
+            }
+        }
+        
+        // Extract scoreValue
+        int scoreStart = json.indexOf("\"scoreValue\":");
+        if (scoreStart >= 0) {
+            scoreStart += 13; // Move past "scoreValue":
+            int scoreEnd = json.indexOf(",", scoreStart);
+            if (scoreEnd < 0) {
+                scoreEnd = json.indexOf("}", scoreStart);
+            }
+            if (scoreEnd >= 0) {
+                String scoreStr = json.substring(scoreStart, scoreEnd).trim();
+                try {
+                    scoreValue = Integer.parseInt(scoreStr);
+                } catch (NumberFormatException e) {
+                    logger.warning("Failed to parse score: " + scoreStr);
+                }
+            }
+        }
+        
+        // For simplicity, we're not parsing the gameDate field in this example
+        
+        if (playerName != null) {
+            if (id != null) {
+                return new ScoreData(id, playerName, scoreValue, gameDate);
+            } else {
+                return new ScoreData(playerName, scoreValue);
+            }
+        }
+        
+        return null;
+    }
+}
@@ -0,0 +1,61 @@
+package dk.sdu.cbse.benchmarks;
+
+import dk.sdu.cbse.asteroid.AsteroidProcessor;
+import dk.sdu.cbse.enemy.EnemyProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-frame movement processing of asteroids and enemies.
+ * Entities wrap around the world edges, so the world stays in a steady state
+ * across invocations and is only created once per trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MovementBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    private int entityCount;
+
+    @Param({"ASTEROIDS", "BALANCED", "PROJECTILES"})
+    private World.Mix mix;
+
+    private World world;
+    private AsteroidProcessor asteroidProcessor;
+    private EnemyProcessor enemyProcessor;
+
+    @Setup(Level.Trial)
+    public void createWorld() {
+        world = new World(entityCount, mix);
+        asteroidProcessor = new AsteroidProcessor();
+        enemyProcessor = new EnemyProcessor();
+    }
+
+    @Benchmark
+    public AsteroidProcessor asteroidProcessorProcess() {
+        asteroidProcessor.process(world.getEntities(), 1.0f / 60);
+        return asteroidProcessor;
+    }
+
+    @Benchmark
+    public EnemyProcessor enemyProcessorProcess() {
+        enemyProcessor.process(world.getEntities(), 1.0f / 60);
+        return enemyProcessor;
+    }
+}
@@ -0,0 +1,76 @@
+package dk.sdu.cbse.benchmarks;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory H2 database with the schema the Scoring service generates for the Score entity.
+ */
+class ScoreDatabase {
+
+    private static final AtomicInteger DATABASE_COUNT = new AtomicInteger();
+
+    private static final String CREATE_TABLE_SQL = "CREATE TABLE scores ("
+            + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+            + "player_name VARCHAR(255) NOT NULL, "
+            + "score_value INTEGER NOT NULL, "
+            + "game_date TIMESTAMP NOT NULL, "
+            + "session_id VARCHAR(64) UNIQUE)";
+
+    // Same indexes as declared on the Score entity
+    private static final String[] CREATE_INDEX_SQL = {
+            "CREATE INDEX idx_scores_score_value ON scores (score_value DESC, id DESC)",
+            "CREATE INDEX idx_scores_player_score_value ON scores (player_name, score_value DESC, id DESC)"
+    };
+
+    private final SingleConnectionDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates a new, empty database.
+     *
+     * @param indexed Whether to create the leaderboard indexes
+     */
+    ScoreDatabase(boolean indexed) {
+        // H2 would otherwise hand out the cached result of a repeated query on an unchanged table
+        dataSource = new SingleConnectionDataSource("jdbc:h2:mem:scores" + DATABASE_COUNT.incrementAndGet()
+                + ";DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE", "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+        if (indexed) {
+            for (String sql : CREATE_INDEX_SQL) {
+                jdbcTemplate.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * Inserts generated scores spread over 10000 players.
+     *
+     * @param count Number of scores to insert
+     */
+    void populate(int count) {
+        // Deterministic, well spread score values with plenty of ties
+        jdbcTemplate.update("INSERT INTO scores (player_name, score_value, game_date)"
+                + " SELECT CONCAT('Player', MOD(X, 10000)), MOD(X * 7919, 1000003), CURRENT_TIMESTAMP"
+                + " FROM SYSTEM_RANGE(1, ?)", count);
+    }
+
+    SingleConnectionDataSource getDataSource() {
+        return dataSource;
+    }
+
+    JdbcTemplate getJdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    /**
+     * Drops the database and closes its connection.
+     */
+    void close() {
+        jdbcTemplate.execute("SHUTDOWN");
+        dataSource.destroy();
+    }
+}
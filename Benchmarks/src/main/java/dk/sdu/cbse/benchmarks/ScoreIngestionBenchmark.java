@@ -0,0 +1,111 @@
+package dk.sdu.cbse.benchmarks;
+
+import dk.sdu.cbse.scoring.model.ScoreRequest;
+import dk.sdu.cbse.scoring.service.ScoreBatchService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sustained score ingestion into an in-memory H2 database.
+ * Compares the JDBC batches of POST /api/scores/batch against one transaction and
+ * INSERT per score, which is how POST /api/scores stores them. Inserted rows per
+ * second are reported by the {@code rows} counter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoreIngestionBenchmark {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO scores (player_name, score_value, game_date, session_id) VALUES (?, ?, ?, ?)";
+
+    @Param({"10", "100", "1000"})
+    private int batchSize;
+
+    private ScoreDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private ScoreBatchService batchService;
+    private List<ScoreRequest> batch;
+
+    /**
+     * Rows inserted during the current iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Rows {
+        public long rows;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rows = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void createDatabase() {
+        database = new ScoreDatabase(true);
+        jdbcTemplate = database.getJdbcTemplate();
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database.getDataSource()));
+        batchService = new ScoreBatchService(jdbcTemplate);
+
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(new ScoreRequest("Player" + (i % 50), (i + 1) * 50));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void clearTable() {
+        // Keep the table from growing across iterations
+        jdbcTemplate.execute("TRUNCATE TABLE scores");
+    }
+
+    @TearDown(Level.Trial)
+    public void dropDatabase() {
+        database.close();
+    }
+
+    @Benchmark
+    public int batchInsert(Rows counter) {
+        ScoreBatchService.BatchResult result = transactionTemplate.execute(status -> batchService.saveBatch(batch));
+        counter.rows += result.getInserted();
+        return result.getInserted();
+    }
+
+    @Benchmark
+    public int singleInserts(Rows counter) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int inserted = 0;
+        for (ScoreRequest request : batch) {
+            inserted += transactionTemplate.execute(status -> jdbcTemplate.update(INSERT_SQL,
+                    request.getPlayerName(), request.getScoreValue(), now, null));
+        }
+        counter.rows += inserted;
+        return inserted;
+    }
+}
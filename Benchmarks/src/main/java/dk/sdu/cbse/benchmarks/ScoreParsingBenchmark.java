@@ -0,0 +1,116 @@
+package dk.sdu.cbse.benchmarks;
+
+import dk.sdu.cbse.core.score.ScoreData;
+import dk.sdu.cbse.core.score.ScoreJsonReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of score lists as returned by the Scoring microservice.
+ * <p>
+ * {@code legacyParse} is the old client path: the body is read line by line into a
+ * string, which is split into objects and searched field by field. {@code streamingRead}
+ * decodes the same bytes with ScoreJsonReader as they arrive. Note that the legacy parser
+ * does not understand the pretty-printed layout the service actually sends, so its
+ * results for that layout are wrong; it is timed for reference only.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoreParsingBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int scoreCount;
+
+    @Param({"false", "true"})
+    private boolean pretty;
+
+    private byte[] body;
+
+    @Setup
+    public void createResponse() {
+        String json = pretty ? prettyScoresJson(scoreCount) : scoresJson(scoreCount);
+        body = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<ScoreData> legacyParse() throws IOException {
+        // Same steps as the old RestScoreService.readResponse
+        StringBuilder response = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                response.append(line);
+            }
+        }
+        return LegacyScoreJsonParser.parseScores(response.toString());
+    }
+
+    @Benchmark
+    public List<ScoreData> streamingRead() throws IOException {
+        return ScoreJsonReader.readScores(new ByteArrayInputStream(body));
+    }
+
+    /**
+     * Builds a compact response body shaped like the one of GET /api/scores.
+     *
+     * @param count Number of scores in the array
+     * @return The JSON array
+     */
+    static String scoresJson(int count) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":").append(i + 1)
+              .append(",\"playerName\":\"Player").append(i % 50)
+              .append("\",\"scoreValue\":").append((count - i) * 50)
+              .append(",\"gameDate\":\"2024-05-").append(10 + i % 20)
+              .append("T12:34:56.789\",\"sessionId\":null}");
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Builds a response body in the indented layout the Scoring service is configured to write.
+     *
+     * @param count Number of scores in the array
+     * @return The JSON array
+     */
+    static String prettyScoresJson(int count) {
+        StringBuilder sb = new StringBuilder("[ ");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append("{\n  \"id\" : ").append(i + 1)
+              .append(",\n  \"playerName\" : \"Player").append(i % 50)
+              .append("\",\n  \"scoreValue\" : ").append((count - i) * 50)
+              .append(",\n  \"gameDate\" : \"2024-05-").append(10 + i % 20)
+              .append("T12:34:56.789\",\n  \"sessionId\" : null\n}");
+        }
+        return sb.append(" ]").toString();
+    }
+}
@@ -0,0 +1,69 @@
+package dk.sdu.cbse.benchmarks;
+
+import dk.sdu.cbse.core.Entity;
+import dk.sdu.cbse.core.bullet.CommonBulletService;
+import dk.sdu.cbse.player.Player;
+import dk.sdu.cbse.player.PlayerWeaponService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Firing the player weapon, including bullet creation through the bullet pool.
+ * Fired bullets are released right away so the pool reaches a steady state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeaponBenchmark {
+
+    @Param({"1", "2", "3"})
+    private int weaponLevel;
+
+    private Player player;
+    private PlayerWeaponService weaponService;
+
+    @Setup
+    public void createWeapon() {
+        player = new Player();
+        player.setX(400);
+        player.setY(300);
+
+        weaponService = new PlayerWeaponService();
+        weaponService.setBulletService(new CommonBulletService());
+        weaponService.setCooldown(0);
+        for (int level = 1; level < weaponLevel; level++) {
+            weaponService.upgradeWeapon();
+        }
+    }
+
+    @Benchmark
+    public int shoot() {
+        List<Entity> bullets = weaponService.shoot(player);
+        if (bullets == null) {
+            return 0;
+        }
+
+        int count = bullets.size();
+        for (int i = 0; i < count; i++) {
+            Entity bullet = bullets.get(i);
+            bullet.setActive(false);
+            bullet.release();
+        }
+        return count;
+    }
+}
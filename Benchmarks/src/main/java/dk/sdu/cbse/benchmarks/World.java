@@ -0,0 +1,145 @@
+package dk.sdu.cbse.benchmarks;
+
+import dk.sdu.cbse.asteroid.Asteroid;
+import dk.sdu.cbse.core.Entity;
+import dk.sdu.cbse.core.bullet.CommonBullet;
+import dk.sdu.cbse.enemy.Enemy;
+import dk.sdu.cbse.player.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reproducible game world used as benchmark input.
+ * Entities are spread randomly over the 800x600 world with a fixed seed, and their
+ * starting state is kept so benchmarks that destroy entities can restore it.
+ */
+public final class World {
+
+    // Game window dimensions - these should match the Core module
+    private static final int GAME_WIDTH = 800;
+    private static final int GAME_HEIGHT = 600;
+
+    private static final long SEED = 42;
+
+    /**
+     * Proportions of entity types in a generated world. There is always exactly one player.
+     */
+    public enum Mix {
+        ASTEROIDS(1.0f, 0.0f),
+        BALANCED(0.6f, 0.3f),
+        PROJECTILES(0.2f, 0.75f);
+
+        private final float asteroidShare;
+        private final float projectileShare;
+
+        Mix(float asteroidShare, float projectileShare) {
+            this.asteroidShare = asteroidShare;
+            this.projectileShare = projectileShare;
+        }
+    }
+
+    private final List<Entity> entities;
+
+    // Starting state of every entity, indexed like the entity list
+    private final float[] x;
+    private final float[] y;
+    private final float[] dx;
+    private final float[] dy;
+    private final float[] radians;
+
+    /**
+     * Generates a world.
+     *
+     * @param count Total number of entities, including the player
+     * @param mix Proportions of entity types
+     */
+    public World(int count, Mix mix) {
+        Random random = new Random(SEED);
+        entities = new ArrayList<>(count);
+
+        // Player in the middle of the world
+        Player player = new Player();
+        player.setX(GAME_WIDTH / 2.0f);
+        player.setY(GAME_HEIGHT / 2.0f);
+        entities.add(player);
+
+        Asteroid.Size[] sizes = Asteroid.Size.values();
+        for (int i = 1; i < count; i++) {
+            float roll = random.nextFloat();
+            Entity entity;
+            if (roll < mix.asteroidShare) {
+                entity = new Asteroid(sizes[random.nextInt(sizes.length)]);
+            } else if (roll < mix.asteroidShare + mix.projectileShare) {
+                entity = new CommonBullet();
+            } else {
+                entity = new Enemy();
+            }
+
+            entity.setX(random.nextFloat() * GAME_WIDTH);
+            entity.setY(random.nextFloat() * GAME_HEIGHT);
+            entity.setDx((random.nextFloat() - 0.5f) * 200);
+            entity.setDy((random.nextFloat() - 0.5f) * 200);
+            entity.setRadians(random.nextFloat() * (float) (Math.PI * 2));
+            entities.add(entity);
+        }
+
+        x = new float[count];
+        y = new float[count];
+        dx = new float[count];
+        dy = new float[count];
+        radians = new float[count];
+        for (int i = 0; i < count; i++) {
+            Entity entity = entities.get(i);
+            x[i] = entity.getX();
+            y[i] = entity.getY();
+            dx[i] = entity.getDx();
+            dy[i] = entity.getDy();
+            radians[i] = entity.getRadians();
+        }
+    }
+
+    /**
+     * Restores every entity to its starting state and reactivates it.
+     */
+    public void restore() {
+        restore(0);
+    }
+
+    /**
+     * Restores every entity to its starting state, moved along its velocity
+     * for the given time, and reactivates it.
+     *
+     * @param elapsed Time since the start in seconds
+     */
+    public void restore(float elapsed) {
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            entity.setActive(true);
+            entity.setX(x[i] + dx[i] * elapsed);
+            entity.setY(y[i] + dy[i] * elapsed);
+            entity.setDx(dx[i]);
+            entity.setDy(dy[i]);
+            entity.setRadians(radians[i]);
+        }
+    }
+
+    /**
+     * Gets the entities of this world.
+     *
+     * @return The entity list, player first
+     */
+    public List<Entity> getEntities() {
+        return entities;
+    }
+
+    /**
+     * Gets the player of this world.
+     *
+     * @return The player entity
+     */
+    public Entity getPlayer() {
+        return entities.get(0);
+    }
+}
@@ -7,8 +7,13 @@ import dk.sdu.cbse.core.IGamePluginService;
 import dk.sdu.cbse.core.IPostEntityProcessorService;
 import dk.sdu.cbse.core.component.IComponentService;
 import dk.sdu.cbse.core.collision.ICollisionService;
-import dk.sdu.cbse.core.score.IScoreService;
+import dk.sdu.cbse.core.score.IAsyncScoreService;
+import dk.sdu.cbse.core.score.LeaderboardCache;
 import dk.sdu.cbse.core.score.ScoreData;
+import dk.sdu.cbse.core.score.ScoreJournal;
+import dk.sdu.cbse.core.score.ScoreSubmissionPipeline;
+import dk.sdu.cbse.profiling.FrameProfiler;
+import dk.sdu.cbse.profiling.TimingRing;
 import javafx.animation.AnimationTimer;
 import javafx.application.Application;
 import javafx.scene.Scene;
@@ -25,10 +30,13 @@ import javafx.stage.Stage;
 import java.util.ServiceLoader;
 import java.lang.reflect.Field;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -44,6 +52,27 @@ public class App extends Application {
     private static final int WIDTH = 800;
     private static final int HEIGHT = 600;
     
+    // Simulation settings, overridable with system properties
+    private static final int TICK_RATE = Integer.getInteger("asteroids.tickRate", FixedStepClock.DEFAULT_TICK_RATE);
+    private static final int MAX_CATCH_UP_STEPS = Integer.getInteger("asteroids.maxCatchUpSteps", FixedStepClock.DEFAULT_MAX_CATCH_UP_STEPS);
+    private static final boolean SIMULATION_THREAD = Boolean.parseBoolean(System.getProperty("asteroids.simulationThread", "true"));
+    
+    // Frames between refreshes of the profiler overlay text
+    private static final int OVERLAY_REFRESH_FRAMES = 30;
+    
+    // Number of high scores shown at game over
+    private static final int HIGH_SCORE_COUNT = 5;
+    private static final long LEADERBOARD_TTL_MILLIS =
+            Long.getLong("asteroids.leaderboardTtlMillis", LeaderboardCache.DEFAULT_TTL_MILLIS);
+    
+    // Interval between score batches sent during a game
+    private static final long SCORE_FLUSH_MILLIS =
+            Long.getLong("asteroids.scoreFlushMillis", ScoreSubmissionPipeline.DEFAULT_FLUSH_INTERVAL_MILLIS);
+    
+    // File keeping scores that could not be sent, replayed once the service is back
+    private static final String SCORE_JOURNAL = System.getProperty("asteroids.scoreJournal",
+            Paths.get(System.getProperty("user.home"), ".asteroids", "score-journal.dat").toString());
+    
     // Game state
     private List<Entity> entities = new ArrayList<>();
     
@@ -57,11 +86,11 @@ public class App extends Application {
     
     private final Map<String, IComponentService> componentMap = new HashMap<>();
     
-    // Game state tracking
-    private boolean gameRunning = true;
-    private boolean gameOver = false;
-    private int score = 0;
-    private int lives = 3;
+    // Game state tracking, written by the simulation and read by the renderer
+    private volatile boolean gameRunning = true;
+    private volatile boolean gameOver = false;
+    private volatile int score = 0;
+    private volatile int lives = 3;
     
     // JavaFX components
     private Canvas canvas;
@@ -69,14 +98,27 @@ public class App extends Application {
     private Scene scene;
     
     // Game timing
-    private long lastTime = 0;
+    private SimulationLoop simulationLoop;
+    
+    // Profiler overlay, toggled with F3
+    private boolean profilerOverlay = Boolean.getBoolean("asteroids.profiler.overlay");
+    private final List<String> overlayLines = new ArrayList<>();
+    private int overlayFrames = 0;
     
     // Services
     private CollisionProcessor collisionProcessor;
     
     private ICollisionService collisionService;
     
-    private IScoreService scoreService;
+    private IAsyncScoreService scoreService;
+    
+    // Leaderboard shown at game over, refreshed in the background
+    private volatile LeaderboardCache leaderboard;
+    
+    // Coalesced score submissions, keyed by the session of the current game
+    private volatile ScoreSubmissionPipeline scorePipeline;
+    private volatile String sessionId = UUID.randomUUID().toString();
+    private ScoreJournal scoreJournal;
     
     // Player name for score tracking
     private String playerName = "Player";
@@ -186,6 +228,30 @@ public class App extends Application {
         }
     }
     
+    /**
+     * JavaFX application stop method.
+     * Stops the simulation thread before the window closes.
+     */
+    @Override
+    public void stop() {
+        if (simulationLoop != null) {
+            simulationLoop.stop();
+        }
+        if (scorePipeline != null) {
+            scorePipeline.shutdown(1000);
+        }
+        if (scoreJournal != null) {
+            try {
+                scoreJournal.close();
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Could not close score journal", e);
+            }
+        }
+        if (scoreService != null) {
+            scoreService.shutdown();
+        }
+    }
+
     /**
      * Initializes the component system by loading and starting all components.
      */
@@ -376,19 +442,39 @@ public class App extends Application {
                 try {
                     Class<?> appContextClass = applicationContext.getClass();
                     java.lang.reflect.Method getBeanMethod = appContextClass.getMethod("getBean", Class.class);
-                    scoreService = (IScoreService) getBeanMethod.invoke(applicationContext, IScoreService.class);
+                    scoreService = (IAsyncScoreService) getBeanMethod.invoke(applicationContext, IAsyncScoreService.class);
                 } catch (Exception e) {
                     logger.log(Level.WARNING, "Could not get score service from Spring context", e);
                 }
             }
             
+            // Fall back to ServiceLoader when running without Spring
+            if (scoreService == null) {
+                scoreService = ServiceLoader.load(IAsyncScoreService.class).findFirst().orElse(null);
+            }
+            
             if (scoreService != null) {
-                scoreService.initialize();
-                if (scoreService.isServiceAvailable()) {
-                    logger.info("Score service initialized successfully");
-                } else {
-                    logger.warning("Score service is not available");
+                if (leaderboard == null) {
+                    leaderboard = new LeaderboardCache(scoreService, HIGH_SCORE_COUNT, LEADERBOARD_TTL_MILLIS);
+                }
+                if (scorePipeline == null) {
+                    scoreJournal = openScoreJournal();
+                    ScoreSubmissionPipeline pipeline =
+                            new ScoreSubmissionPipeline(scoreService, SCORE_FLUSH_MILLIS, scoreJournal);
+                    LeaderboardCache cache = leaderboard;
+                    pipeline.setFlushListener(count -> cache.invalidate());
+                    pipeline.start();
+                    scorePipeline = pipeline;
                 }
+                
+                // Check availability in the background, scores are skipped until it is known
+                scoreService.initializeAsync().thenAccept(available -> {
+                    if (available) {
+                        logger.info("Score service initialized successfully");
+                    } else {
+                        logger.warning("Score service is not available");
+                    }
+                });
             } else {
                 logger.warning("Score service is null, cannot initialize");
             }
@@ -397,13 +483,35 @@ public class App extends Application {
         }
     }
     
+    /**
+     * Opens the journal of unsent scores.
+     *
+     * @return The journal, or null if it cannot be opened and unsent scores are kept in memory
+     */
+    private ScoreJournal openScoreJournal() {
+        if (SCORE_JOURNAL.isEmpty()) {
+            return null;
+        }
+        
+        try {
+            return ScoreJournal.open(Paths.get(SCORE_JOURNAL));
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Could not open score journal " + SCORE_JOURNAL + ", unsent scores are kept in memory", e);
+            return null;
+        }
+    }
+    
     /**
      * Sets up input handlers for keyboard events
      */
     private void setupInputHandlers() {
         scene.setOnKeyPressed(event -> {
             if (event.getCode() == KeyCode.R && gameOver) {
-                restartGame();
+                // Game state is owned by the simulation, so restart from there
+                simulationLoop.submit(this::restartGame);
+            } else if (event.getCode() == KeyCode.F3) {
+                profilerOverlay = !profilerOverlay;
+                overlayFrames = 0;
             }
         });
     }
@@ -419,6 +527,8 @@ public class App extends Application {
         gameRunning = true;
         score = 0;
         lives = 3;
+        sessionId = UUID.randomUUID().toString();
+        simulationLoop.setPaused(false);
         
         // Reset collision processor
         if (collisionProcessor != null) {
@@ -431,9 +541,6 @@ public class App extends Application {
             initializeScoreService();
         }
         
-        // Clear entities
-        entities.clear();
-        
         // Restart components
         restartComponents();
         
@@ -475,42 +582,49 @@ public class App extends Application {
     }
     
     /**
-     * Sets up the game loop using AnimationTimer
+     * Sets up the game loop.
+     * The simulation runs at a fixed tick rate, either on its own thread or stepped
+     * from the AnimationTimer, and the AnimationTimer only renders the latest snapshot.
      */
     private void setupGameLoop() {
-        lastTime = System.nanoTime();
+        simulationLoop = new SimulationLoop(gameManager, new FixedStepClock(TICK_RATE, MAX_CATCH_UP_STEPS));
+        simulationLoop.setTickListener(deltaTime -> {
+            // Update components (if any need per-frame updates)
+            updateComponents(deltaTime);
+            
+            // Update game state from collision processor
+            updateGameState();
+            
+            if (!gameRunning) {
+                simulationLoop.setPaused(true);
+            }
+        });
+        
+        if (SIMULATION_THREAD) {
+            simulationLoop.start();
+        }
         
         AnimationTimer gameLoop = new AnimationTimer() {
             @Override
             public void handle(long now) {
                 try {
-                    // Calculate delta time (in seconds)
-                    float deltaTime = (now - lastTime) / 1_000_000_000.0f;
-                    lastTime = now;
+                    // Clear the canvas
+                    graphicsContext.setFill(Color.BLACK);
+                    graphicsContext.fillRect(0, 0, WIDTH, HEIGHT);
                     
-        // Clear the canvas
-        graphicsContext.setFill(Color.BLACK);
-        graphicsContext.fillRect(0, 0, WIDTH, HEIGHT);
-        
-        // Update entities reference in case GameManager modified it
-        entities = gameManager.getEntities();
-                    
-                    if (gameRunning) {
-                        // Update components (if any need per-frame updates)
-                        updateComponents(deltaTime);
-                        
-                        // Update game state through the game manager
-                        gameManager.update(deltaTime);
-                        
-                        // Update game state from collision processor
-                        updateGameState();
+                    // Step the simulation here when it has no thread of its own
+                    if (!SIMULATION_THREAD) {
+                        simulationLoop.advance(System.nanoTime());
                     }
                     
                     // Render entities
-                    renderEntities();
+                    long renderStart = System.nanoTime();
+                    WorldSnapshot snapshot = simulationLoop.getLatestSnapshot();
+                    renderEntities(snapshot, snapshot.getAlpha(renderStart));
                     
                     // Render game state (UI)
                     renderGameState();
+                    gameManager.getProfiler().recordRenderTime(System.nanoTime() - renderStart);
                 } catch (Exception e) {
                     logger.log(Level.SEVERE, "Error in game loop", e);
                 }
@@ -556,67 +670,69 @@ public class App extends Application {
     }
     
     /**
-     * Submits the current score to the scoring service.
+     * Submits the current score to the scoring service with the next batch.
      * 
      * @param currentScore The current score to submit
      */
     private void submitScore(int currentScore) {
-        if (scoreService != null && scoreService.isServiceAvailable()) {
-            try {
-                scoreService.submitScore(playerName, currentScore);
-                logger.info("Score submitted: " + currentScore);
-            } catch (Exception e) {
-                logger.log(Level.WARNING, "Failed to submit score", e);
-            }
+        if (scorePipeline != null) {
+            scorePipeline.submit(playerName, sessionId, currentScore);
         }
     }
     
     /**
-     * Submits the final score at game over.
+     * Submits the final score at game over and sends the pending scores right away.
+     * Once stored, the leaderboard is invalidated so the game over screen picks it up.
      */
     private void submitFinalScore() {
-        if (scoreService != null && scoreService.isServiceAvailable() && score > 0) {
-            try {
-                scoreService.submitScore(playerName, score);
-                logger.info("Final score submitted: " + score);
-            } catch (Exception e) {
-                logger.log(Level.WARNING, "Failed to submit final score", e);
-            }
+        if (scorePipeline != null && score > 0) {
+            int finalScore = score;
+            scorePipeline.submit(playerName, sessionId, finalScore);
+            scorePipeline.flush().thenAccept(submitted -> {
+                if (submitted) {
+                    logger.info("Final score submitted: " + finalScore);
+                }
+            });
         }
     }
     
     /**
-     * Renders all active entities on the canvas
+     * Renders all entities of a snapshot on the canvas
+     *
+     * @param snapshot The snapshot to render
+     * @param alpha Interpolation alpha between the previous and the snapshot step
      */
-    private void renderEntities() {
-        for (Entity entity : entities) {
-            if (entity.isActive()) {
-                // Use different colors and styles based on entity type
-                switch (entity.getType()) {
-                    case "player":
-                        renderPlayer(entity);
-                        break;
-                    case "enemy":
-                        renderEnemy(entity);
-                        break;
-                    case "asteroid":
-                        renderAsteroid(entity);
-                        break;
-                    case "projectile":
-                        renderProjectile(entity);
-                        break;
-                    default:
-                        // Default rendering for unknown entities
-                        graphicsContext.setStroke(Color.WHITE);
-                        graphicsContext.setLineWidth(2);
-                        graphicsContext.strokeOval(
-                            entity.getX() - entity.getRadius(),
-                            entity.getY() - entity.getRadius(),
-                            entity.getRadius() * 2,
-                            entity.getRadius() * 2
-                        );
-                        break;
-                }
+    private void renderEntities(WorldSnapshot snapshot, float alpha) {
+        for (int i = 0; i < snapshot.getCount(); i++) {
+            double x = snapshot.getX(i, alpha);
+            double y = snapshot.getY(i, alpha);
+            double radius = snapshot.getRadius(i);
+            
+            // Use different colors and styles based on entity type
+            switch (snapshot.getType(i)) {
+                case "player":
+                    renderPlayer(x, y, radius, snapshot.getRadians(i, alpha));
+                    break;
+                case "enemy":
+                    renderEnemy(x, y, radius);
+                    break;
+                case "asteroid":
+                    renderAsteroid(x, y, radius);
+                    break;
+                case "projectile":
+                    renderProjectile(x, y, radius);
+                    break;
+                default:
+                    // Default rendering for unknown entities
+                    graphicsContext.setStroke(Color.WHITE);
+                    graphicsContext.setLineWidth(2);
+                    graphicsContext.strokeOval(
+                        x - radius,
+                        y - radius,
+                        radius * 2,
+                        radius * 2
+                    );
+                    break;
             }
         }
     }
@@ -624,16 +740,11 @@ public class App extends Application {
     /**
      * Renders the player ship
      */
-    private void renderPlayer(Entity player) {
+    private void renderPlayer(double x, double y, double radius, double rotation) {
         graphicsContext.setStroke(Color.LIMEGREEN);
         graphicsContext.setLineWidth(2);
         
         // Draw a triangle representing the player's ship
-        double x = player.getX();
-        double y = player.getY();
-        double radius = player.getRadius();
-        double rotation = player.getRadians();
-        
         double x1 = x + Math.cos(rotation) * radius * 1.5;
         double y1 = y + Math.sin(rotation) * radius * 1.5;
         
@@ -654,30 +765,22 @@ public class App extends Application {
     /**
      * Renders an enemy
      */
-    private void renderEnemy(Entity enemy) {
+    private void renderEnemy(double x, double y, double radius) {
         graphicsContext.setStroke(Color.RED);
         graphicsContext.setLineWidth(2);
         
         // Draw a diamond shape for enemies
-        double x = enemy.getX();
-        double y = enemy.getY();
-        double radius = enemy.getRadius();
-        
         graphicsContext.strokeRect(x - radius, y - radius, radius * 2, radius * 2);
     }
     
     /**
      * Renders an asteroid
      */
-    private void renderAsteroid(Entity asteroid) {
+    private void renderAsteroid(double x, double y, double radius) {
         graphicsContext.setStroke(Color.WHITE);
         graphicsContext.setLineWidth(1.5);
         
         // Draw a irregular circle for asteroids
-        double x = asteroid.getX();
-        double y = asteroid.getY();
-        double radius = asteroid.getRadius();
-        
         graphicsContext.strokeOval(
             x - radius,
             y - radius,
@@ -699,15 +802,15 @@ public class App extends Application {
     /**
      * Renders a projectile
      */
-    private void renderProjectile(Entity projectile) {
+    private void renderProjectile(double x, double y, double radius) {
         graphicsContext.setFill(Color.YELLOW);
         
         // Draw a small filled circle for projectiles
         graphicsContext.fillOval(
-            projectile.getX() - projectile.getRadius(),
-            projectile.getY() - projectile.getRadius(),
-            projectile.getRadius() * 2,
-            projectile.getRadius() * 2
+            x - radius,
+            y - radius,
+            radius * 2,
+            radius * 2
         );
     }
     
@@ -739,15 +842,69 @@ public class App extends Application {
             // Show high scores if available
             renderHighScores();
         }
+        
+        // Display frame profiler if enabled
+        if (profilerOverlay) {
+            renderProfilerOverlay();
+        }
+    }
+    
+    /**
+     * Renders the frame profiler statistics in the top left corner.
+     * The text is only rebuilt every few frames to keep the overlay cheap.
+     */
+    private void renderProfilerOverlay() {
+        if (overlayFrames-- <= 0) {
+            overlayFrames = OVERLAY_REFRESH_FRAMES;
+            updateOverlayLines(gameManager.getProfiler());
+        }
+        
+        graphicsContext.setFill(Color.LIGHTGRAY);
+        graphicsContext.setFont(Font.font("Monospaced", 12));
+        graphicsContext.setTextAlign(TextAlignment.LEFT);
+        
+        int yPos = 55;
+        for (String line : overlayLines) {
+            graphicsContext.fillText(line, 20, yPos);
+            yPos += 15;
+        }
+    }
+    
+    /**
+     * Rebuilds the profiler overlay text.
+     */
+    private void updateOverlayLines(FrameProfiler profiler) {
+        overlayLines.clear();
+        overlayLines.add(String.format("%-22s %7s %7s %7s", "ms", "p50", "p99", "max"));
+        overlayLines.add(formatTimings("frame", profiler.getFrameStats()));
+        overlayLines.add(formatTimings("render", profiler.getRenderStats()));
+        
+        String[] stageNames = profiler.getStageNames();
+        for (int i = 0; i < stageNames.length && i < profiler.getStageCount(); i++) {
+            overlayLines.add(formatTimings("  " + stageNames[i], profiler.getStageStats(i)));
+        }
+        
+        overlayLines.add(String.format("entities %d, alloc %d KB/frame",
+                profiler.getEntityCount(), profiler.getAllocatedBytesPerFrame() / 1024));
+    }
+    
+    /**
+     * Formats one row of the profiler overlay.
+     */
+    private static String formatTimings(String name, TimingRing.Stats stats) {
+        return String.format("%-22.22s %7.2f %7.2f %7.2f", name,
+                stats.getP50() / 1_000_000.0,
+                stats.getP99() / 1_000_000.0,
+                stats.getMax() / 1_000_000.0);
     }
     
     /**
-     * Renders the high scores from the scoring service.
+     * Renders the cached high scores from the scoring service.
      */
     private void renderHighScores() {
-        if (scoreService != null && scoreService.isServiceAvailable()) {
+        if (leaderboard != null) {
             try {
-                List<ScoreData> topScores = scoreService.getTopScores(5);
+                List<ScoreData> topScores = leaderboard.get();
                 
                 if (topScores != null && !topScores.isEmpty()) {
                     graphicsContext.setFill(Color.YELLOW);
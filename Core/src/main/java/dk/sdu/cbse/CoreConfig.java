@@ -6,6 +6,8 @@ import dk.sdu.cbse.core.IGamePluginService;
 import dk.sdu.cbse.core.IPostEntityProcessorService;
 import dk.sdu.cbse.core.collision.ICollisionService;
 import dk.sdu.cbse.core.component.IComponentService;
+import dk.sdu.cbse.core.score.AsyncRestScoreService;
+import dk.sdu.cbse.core.score.IAsyncScoreService;
 import dk.sdu.cbse.core.score.IScoreService;
 import dk.sdu.cbse.core.score.RestScoreService;
 import org.springframework.context.annotation.Bean;
@@ -90,5 +92,15 @@ public class CoreConfig {
         logger.info("Creating RestScoreService bean");
         return new RestScoreService();
     }
+    
+    /**
+     * Creates the AsyncRestScoreService bean used by the game loop,
+     * which must never wait for the scoring service.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public IAsyncScoreService asyncScoreService() {
+        logger.info("Creating AsyncRestScoreService bean");
+        return new AsyncRestScoreService();
+    }
 }
 
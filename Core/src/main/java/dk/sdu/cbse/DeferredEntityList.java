@@ -0,0 +1,66 @@
+package dk.sdu.cbse;
+
+import dk.sdu.cbse.core.Entity;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * View of the entity list handed to a processor that runs concurrently with others.
+ * Reads go to the shared list, which is not modified while processors run, and
+ * entities added by the processor are buffered until the scheduler merges them.
+ */
+class DeferredEntityList extends AbstractList<Entity> {
+    private List<Entity> entities;
+    private final List<Entity> additions = new ArrayList<>();
+
+    /**
+     * Points the view at the entity list of the current frame.
+     *
+     * @param entities The shared entity list
+     */
+    void reset(List<Entity> entities) {
+        this.entities = entities;
+        additions.clear();
+    }
+
+    /**
+     * Gets the entities added through this view since the last reset.
+     *
+     * @return The buffered entities
+     */
+    List<Entity> getAdditions() {
+        return additions;
+    }
+
+    @Override
+    public Entity get(int index) {
+        return entities.get(index);
+    }
+
+    @Override
+    public int size() {
+        return entities.size();
+    }
+
+    @Override
+    public boolean add(Entity entity) {
+        return additions.add(entity);
+    }
+
+    @Override
+    public void add(int index, Entity entity) {
+        // Only appending is supported, and appended entities stay invisible until the merge
+        if (index != size()) {
+            throw new UnsupportedOperationException("Entities can only be appended while processors run");
+        }
+        additions.add(entity);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends Entity> added) {
+        return additions.addAll(added);
+    }
+}
@@ -0,0 +1,161 @@
+package dk.sdu.cbse;
+
+/**
+ * Accumulator that turns variable wall-clock time into a whole number of
+ * fixed simulation steps.
+ * Elapsed time is collected between calls and consumed in steps of a fixed size,
+ * with the leftover fraction exposed as an interpolation alpha for rendering.
+ */
+public class FixedStepClock {
+
+    public static final int DEFAULT_TICK_RATE = 60;
+    public static final int DEFAULT_MAX_CATCH_UP_STEPS = 5;
+
+    private final int tickRate;
+    private final long stepNanos;
+    private final float stepSeconds;
+    private final int maxCatchUpSteps;
+
+    // Accumulator state
+    private long lastTime = -1;
+    private long accumulatorNanos = 0;
+    private long droppedSteps = 0;
+
+    /**
+     * Creates a clock with the default tick rate and catch-up limit.
+     */
+    public FixedStepClock() {
+        this(DEFAULT_TICK_RATE, DEFAULT_MAX_CATCH_UP_STEPS);
+    }
+
+    /**
+     * Creates a clock.
+     *
+     * @param tickRate Simulation steps per second
+     * @param maxCatchUpSteps Maximum steps returned by a single advance, extra time is dropped
+     */
+    public FixedStepClock(int tickRate, int maxCatchUpSteps) {
+        if (tickRate <= 0) {
+            throw new IllegalArgumentException("Tick rate must be positive");
+        }
+        if (maxCatchUpSteps <= 0) {
+            throw new IllegalArgumentException("Max catch-up steps must be positive");
+        }
+
+        this.tickRate = tickRate;
+        this.stepNanos = 1_000_000_000L / tickRate;
+        this.stepSeconds = 1.0f / tickRate;
+        this.maxCatchUpSteps = maxCatchUpSteps;
+    }
+
+    /**
+     * Adds the time elapsed since the previous call to the accumulator.
+     *
+     * @param now Current time in nanoseconds
+     * @return The number of fixed steps that should be simulated now
+     */
+    public int advance(long now) {
+        if (lastTime < 0) {
+            lastTime = now;
+            return 0;
+        }
+
+        accumulatorNanos += Math.max(0, now - lastTime);
+        lastTime = now;
+
+        long steps = accumulatorNanos / stepNanos;
+        accumulatorNanos -= steps * stepNanos;
+
+        // Drop time we cannot catch up on instead of spiralling
+        if (steps > maxCatchUpSteps) {
+            droppedSteps += steps - maxCatchUpSteps;
+            steps = maxCatchUpSteps;
+        }
+
+        return (int) steps;
+    }
+
+    /**
+     * Forgets accumulated time, for example after the simulation was paused.
+     */
+    public void reset() {
+        lastTime = -1;
+        accumulatorNanos = 0;
+    }
+
+    /**
+     * Gets how far the clock is into the next step.
+     *
+     * @return Interpolation alpha between 0 and 1
+     */
+    public float getAlpha() {
+        return (float) accumulatorNanos / stepNanos;
+    }
+
+    /**
+     * Gets the time of the most recent step boundary.
+     *
+     * @return Time in nanoseconds
+     */
+    public long getLastStepTime() {
+        return lastTime < 0 ? System.nanoTime() : lastTime - accumulatorNanos;
+    }
+
+    /**
+     * Gets the time left until the next step is due.
+     *
+     * @param now Current time in nanoseconds
+     * @return Time in nanoseconds, never negative
+     */
+    public long nanosUntilNextStep(long now) {
+        if (lastTime < 0) {
+            return 0;
+        }
+        return Math.max(0, stepNanos - accumulatorNanos - (now - lastTime));
+    }
+
+    /**
+     * Gets the number of simulation steps per second.
+     *
+     * @return The tick rate
+     */
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * Gets the length of one step.
+     *
+     * @return Step length in seconds
+     */
+    public float getStepSeconds() {
+        return stepSeconds;
+    }
+
+    /**
+     * Gets the length of one step.
+     *
+     * @return Step length in nanoseconds
+     */
+    public long getStepNanos() {
+        return stepNanos;
+    }
+
+    /**
+     * Gets the maximum number of steps a single advance may return.
+     *
+     * @return The catch-up limit
+     */
+    public int getMaxCatchUpSteps() {
+        return maxCatchUpSteps;
+    }
+
+    /**
+     * Gets the total number of steps dropped because the catch-up limit was hit.
+     *
+     * @return The dropped step count
+     */
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+}
@@ -1,10 +1,12 @@
 package dk.sdu.cbse;
 
 import dk.sdu.cbse.core.Entity;
+import dk.sdu.cbse.core.EntityStore;
 import dk.sdu.cbse.core.IEntityProcessorService;
 import dk.sdu.cbse.core.IGamePluginService;
 import dk.sdu.cbse.core.IPostEntityProcessorService;
 import dk.sdu.cbse.core.collision.ICollisionService;
+import dk.sdu.cbse.profiling.FrameProfiler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -21,9 +23,33 @@ import java.util.logging.Logger;
 public class GameManager {
     private static final Logger logger = Logger.getLogger(GameManager.class.getName());
     
+    // Concurrent processor scheduling, used once the entity count makes it worthwhile
+    private static final boolean PARALLEL_PROCESSORS =
+            Boolean.parseBoolean(System.getProperty("asteroids.parallelProcessors", "true"));
+    private static final int PARALLEL_THRESHOLD = Integer.getInteger("asteroids.parallelThreshold", 2000);
+    
+    // Store slots kept free before processors run concurrently, so the columns are not replaced meanwhile
+    private static final int MIN_RESERVED_SLOTS = 1024;
+    
     // Game entities
     private final List<Entity> entities = new ArrayList<>();
     
+    // Entities spawned or removed while a frame is being processed
+    private final List<Entity> pendingAdditions = new ArrayList<>();
+    private final List<Entity> pendingRemovals = new ArrayList<>();
+    private boolean updating = false;
+    
+    // Entity store statistics
+    private int liveEntityCount = 0;
+    private int deadEntityCount = 0;
+    private long totalReclaimedCount = 0;
+    
+    // Per-stage frame timings
+    private final FrameProfiler profiler = new FrameProfiler();
+    
+    // Scheduler running independent processors concurrently, null when disabled
+    private ProcessorScheduler scheduler;
+    
     // Spring-injected services
     @Autowired
     private List<IEntityProcessorService> entityProcessors;
@@ -55,6 +81,22 @@ public class GameManager {
         }
     }
     
+    /**
+     * Creates a GameManager wired with the given services, for use without Spring.
+     *
+     * @param gamePlugins The game plugins to start
+     * @param entityProcessors The entity processors to run every update
+     * @param postEntityProcessors The post entity processors to run every update
+     */
+    public GameManager(List<IGamePluginService> gamePlugins,
+                       List<IEntityProcessorService> entityProcessors,
+                       List<IPostEntityProcessorService> postEntityProcessors) {
+        this();
+        this.gamePlugins = gamePlugins;
+        this.entityProcessors = entityProcessors;
+        this.postEntityProcessors = postEntityProcessors;
+    }
+
     /**
      * Initializes the game by starting all game plugins.
      */
@@ -74,42 +116,170 @@ public class GameManager {
             }
         }
         
+        liveEntityCount = entities.size();
+        
+        // One profiler stage per processor, plus the end of frame bookkeeping
+        List<String> stageNames = new ArrayList<>();
+        for (IEntityProcessorService processor : entityProcessors) {
+            stageNames.add(stageName(processor));
+        }
+        for (IPostEntityProcessorService postProcessor : postEntityProcessors) {
+            stageNames.add(stageName(postProcessor));
+        }
+        stageNames.add("GameManager");
+        profiler.setStages(stageNames);
+        profiler.registerMBean();
+        
+        // Build the processor dependency graph once the processors are known
+        if (PARALLEL_PROCESSORS && entityProcessors.size() > 1) {
+            scheduler = new ProcessorScheduler(entityProcessors, profiler);
+            logger.info("Processor scheduler: " + scheduler.getRootCount() + " of "
+                    + entityProcessors.size() + " processors can start independently");
+        }
+        
         logger.info("GameManager initialized with " + entities.size() + " entities");
     }
     
+    /**
+     * Gets the profiler stage name of a processor.
+     */
+    private static String stageName(Object processor) {
+        String name = processor.getClass().getSimpleName();
+        return name.isEmpty() ? processor.getClass().getName() : name;
+    }
+    
     /**
      * Updates the game state based on elapsed time.
      * 
      * @param deltaTime Time passed since last update in seconds
      */
     public void update(float deltaTime) {
-        // Process all entities
-        for (IEntityProcessorService processor : entityProcessors) {
-            try {
-                processor.process(entities, deltaTime);
-            } catch (Exception e) {
-                logger.log(Level.SEVERE, "Error in entity processor: " + processor.getClass().getSimpleName(), e);
+        profiler.beginFrame();
+        updating = true;
+        int stage = 0;
+        
+        // Process all entities, concurrently for large worlds
+        if (scheduler != null && entities.size() >= PARALLEL_THRESHOLD) {
+            EntityStore.getDefault().reserve(Math.max(MIN_RESERVED_SLOTS, entities.size()));
+            scheduler.run(entities, deltaTime);
+            stage = entityProcessors.size();
+        } else {
+            for (IEntityProcessorService processor : entityProcessors) {
+                profiler.beginStage();
+                try {
+                    processor.process(entities, deltaTime);
+                } catch (Exception e) {
+                    logger.log(Level.SEVERE, "Error in entity processor: " + processor.getClass().getSimpleName(), e);
+                }
+                profiler.endStage(stage++);
             }
         }
         
-        // Post-process entities (including collision detection)
+        // Post-process entities (including collision detection) in order on this thread
         for (IPostEntityProcessorService postProcessor : postEntityProcessors) {
+            profiler.beginStage();
             try {
                 postProcessor.postProcess(entities, deltaTime);
             } catch (Exception e) {
                 logger.log(Level.SEVERE, "Error in post processor: " + postProcessor.getClass().getSimpleName(), e);
             }
+            profiler.endStage(stage++);
+        }
+        
+        updating = false;
+        
+        // Apply deferred changes and reclaim dead entities
+        profiler.beginStage();
+        flushPendingEntities();
+        compactEntities();
+        profiler.endStage(stage);
+        
+        profiler.endFrame(liveEntityCount);
+    }
+    
+    /**
+     * Applies entity additions and removals queued during the frame.
+     */
+    private void flushPendingEntities() {
+        if (!pendingAdditions.isEmpty()) {
+            entities.addAll(pendingAdditions);
+            pendingAdditions.clear();
+        }
+        
+        // Removed entities are deactivated so the compaction pass drops them
+        for (Entity entity : pendingRemovals) {
+            entity.setActive(false);
+        }
+        pendingRemovals.clear();
+    }
+    
+    /**
+     * Removes inactive entities from the entity list in a single pass.
+     * The relative order of the remaining entities is preserved.
+     */
+    private void compactEntities() {
+        int size = entities.size();
+        int live = 0;
+        
+        for (int i = 0; i < size; i++) {
+            Entity entity = entities.get(i);
+            if (entity.isActive()) {
+                if (live != i) {
+                    entities.set(live, entity);
+                }
+                live++;
+            } else {
+                // Hand the entity's slot back to the entity store
+                entity.release();
+            }
+        }
+        
+        // Truncate the tail holding the dead entities
+        if (live < size) {
+            entities.subList(live, size).clear();
         }
+        
+        liveEntityCount = live;
+        deadEntityCount = size - live;
+        totalReclaimedCount += deadEntityCount;
     }
     
     /**
      * Adds a new entity to the game.
+     * When called during an update the entity is queued and added at the end of the frame,
+     * so processors can safely spawn entities while iterating.
      * 
      * @param entity The entity to add
      */
     public void addEntity(Entity entity) {
         if (entity != null) {
-            entities.add(entity);
+            if (updating) {
+                // Processors may run on several threads during an update
+                synchronized (pendingAdditions) {
+                    pendingAdditions.add(entity);
+                }
+            } else {
+                entities.add(entity);
+            }
+        }
+    }
+    
+    /**
+     * Removes an entity from the game.
+     * When called during an update the entity stays in place until the end of the frame.
+     * 
+     * @param entity The entity to remove
+     */
+    public void removeEntity(Entity entity) {
+        if (entity != null) {
+            if (updating) {
+                synchronized (pendingRemovals) {
+                    pendingRemovals.add(entity);
+                }
+            } else {
+                entities.remove(entity);
+                entity.release();
+            }
         }
     }
     
@@ -122,6 +292,51 @@ public class GameManager {
         return entities;
     }
     
+    /**
+     * Gets the number of live entities left after the last compaction.
+     * 
+     * @return The live entity count
+     */
+    public int getLiveEntityCount() {
+        return liveEntityCount;
+    }
+    
+    /**
+     * Gets the number of dead entities reclaimed by the last compaction.
+     * 
+     * @return The dead entity count
+     */
+    public int getDeadEntityCount() {
+        return deadEntityCount;
+    }
+    
+    /**
+     * Gets the total number of dead entities reclaimed since the game started.
+     * 
+     * @return The total reclaimed entity count
+     */
+    public long getTotalReclaimedCount() {
+        return totalReclaimedCount;
+    }
+    
+    /**
+     * Gets the number of entities waiting to be added at the end of the frame.
+     * 
+     * @return The pending entity count
+     */
+    public int getPendingEntityCount() {
+        return pendingAdditions.size();
+    }
+    
+    /**
+     * Gets the profiler recording the timings of every update.
+     * 
+     * @return The frame profiler
+     */
+    public FrameProfiler getProfiler() {
+        return profiler;
+    }
+    
     /**
      * Stops the game and cleans up resources.
      */
@@ -138,8 +353,18 @@ public class GameManager {
             }
         }
         
-        // Clear all entities
+        // Hand every entity's slot back to the store, and pooled entities to their pool
+        for (Entity entity : entities) {
+            entity.release();
+        }
+        for (Entity entity : pendingAdditions) {
+            entity.release();
+        }
         entities.clear();
+        pendingAdditions.clear();
+        pendingRemovals.clear();
+        liveEntityCount = 0;
+        deadEntityCount = 0;
         
         logger.info("GameManager stopped");
     }
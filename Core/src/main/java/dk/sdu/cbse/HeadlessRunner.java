@@ -0,0 +1,256 @@
+package dk.sdu.cbse;
+
+import dk.sdu.cbse.core.CollisionProcessor;
+import dk.sdu.cbse.core.Entity;
+import dk.sdu.cbse.core.IEntityProcessorService;
+import dk.sdu.cbse.core.IGamePluginService;
+import dk.sdu.cbse.core.IPostEntityProcessorService;
+import dk.sdu.cbse.profiling.FrameProfiler;
+import dk.sdu.cbse.profiling.TimingRing;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.logging.Logger;
+
+/**
+ * Runs the game simulation without JavaFX, stepping the world as fast as possible.
+ * Plugins and processors are loaded with ServiceLoader, the same way App does without Spring.
+ * Stage timings come from the profiler of the {@link GameManager}, so they match what the
+ * game reports over JMX, including processors run concurrently by the scheduler.
+ * <p>
+ * Services are declared in the module descriptors, so run it on the module path:
+ * {@code java -p <modules> -m Core/dk.sdu.cbse.HeadlessRunner [--ticks N] [--warmup N] [--tick-rate N]}
+ */
+public class HeadlessRunner {
+    private static final Logger logger = Logger.getLogger(HeadlessRunner.class.getName());
+
+    private static final int DEFAULT_TICKS = 10_000;
+    private static final int DEFAULT_WARMUP_TICKS = 1_000;
+
+    private final GameManager gameManager;
+    private final float deltaTime;
+
+    /**
+     * Creates a runner with plugins and processors loaded through ServiceLoader.
+     *
+     * @param tickRate Simulated steps per second, decides the delta time of each step
+     */
+    public HeadlessRunner(int tickRate) {
+        if (tickRate <= 0) {
+            throw new IllegalArgumentException("Tick rate must be positive");
+        }
+        this.deltaTime = 1.0f / tickRate;
+
+        // Load all plugin services
+        List<IGamePluginService> gamePlugins = new ArrayList<>();
+        for (IGamePluginService plugin : ServiceLoader.load(IGamePluginService.class)) {
+            logger.info("Found plugin: " + plugin.getClass().getSimpleName());
+            gamePlugins.add(plugin);
+        }
+
+        // Load all entity processor services
+        List<IEntityProcessorService> entityProcessors = new ArrayList<>();
+        for (IEntityProcessorService processor : ServiceLoader.load(IEntityProcessorService.class)) {
+            logger.info("Found entity processor: " + processor.getClass().getSimpleName());
+            entityProcessors.add(processor);
+        }
+
+        // Load all post entity processor services, falling back to the Core collision processor
+        List<IPostEntityProcessorService> postProcessors = new ArrayList<>();
+        for (IPostEntityProcessorService postProcessor : ServiceLoader.load(IPostEntityProcessorService.class)) {
+            logger.info("Found post entity processor: " + postProcessor.getClass().getSimpleName());
+            postProcessors.add(postProcessor);
+        }
+        if (postProcessors.isEmpty()) {
+            logger.info("No post entity processors found, using CollisionProcessor");
+            postProcessors.add(new CollisionProcessor());
+        }
+
+        this.gameManager = new GameManager(gamePlugins, entityProcessors, postProcessors);
+    }
+
+    /**
+     * Entry point for headless runs.
+     */
+    public static void main(String[] args) {
+        int ticks = DEFAULT_TICKS;
+        int warmupTicks = DEFAULT_WARMUP_TICKS;
+        int tickRate = FixedStepClock.DEFAULT_TICK_RATE;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--ticks":
+                    ticks = Integer.parseInt(args[++i]);
+                    break;
+                case "--warmup":
+                    warmupTicks = Integer.parseInt(args[++i]);
+                    break;
+                case "--tick-rate":
+                    tickRate = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    System.err.println("Usage: HeadlessRunner [--ticks N] [--warmup N] [--tick-rate N]");
+                    System.exit(2);
+                    return;
+            }
+        }
+
+        HeadlessRunner runner = new HeadlessRunner(tickRate);
+        runner.gameManager.initialize();
+        try {
+            runner.run(warmupTicks);
+            runner.resetTimers();
+
+            Report report = runner.run(ticks);
+            System.out.print(report);
+        } finally {
+            runner.gameManager.shutdown();
+        }
+    }
+
+    /**
+     * Steps the initialized world for the given number of ticks.
+     *
+     * @param ticks Number of steps to simulate
+     * @return The measurements of this run
+     */
+    public Report run(int ticks) {
+        List<Entity> entities = gameManager.getEntities();
+        long minEntities = Long.MAX_VALUE;
+        long maxEntities = 0;
+        long entityTicks = 0;
+        long reclaimedBefore = gameManager.getTotalReclaimedCount();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ticks; i++) {
+            gameManager.update(deltaTime);
+
+            int count = entities.size();
+            minEntities = Math.min(minEntities, count);
+            maxEntities = Math.max(maxEntities, count);
+            entityTicks += count;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Report report = new Report();
+        report.ticks = ticks;
+        report.elapsedNanos = elapsed;
+        report.finalEntities = entities.size();
+        report.minEntities = ticks > 0 ? minEntities : entities.size();
+        report.maxEntities = maxEntities;
+        report.averageEntities = ticks > 0 ? (double) entityTicks / ticks : 0;
+        report.reclaimedEntities = gameManager.getTotalReclaimedCount() - reclaimedBefore;
+
+        // Stage timings of the most recent frames, as recorded by the game manager
+        FrameProfiler profiler = gameManager.getProfiler();
+        report.frameStats = profiler.getFrameStats();
+        String[] names = profiler.getStageNames();
+        for (int i = 0; i < names.length; i++) {
+            report.stageStats.put(names[i], profiler.getStageStats(i));
+        }
+        return report;
+    }
+
+    /**
+     * Clears the frame and stage timings recorded so far.
+     */
+    public void resetTimers() {
+        gameManager.getProfiler().reset();
+    }
+
+    /**
+     * Gets the game manager stepped by this runner.
+     *
+     * @return The game manager
+     */
+    public GameManager getGameManager() {
+        return gameManager;
+    }
+
+    /**
+     * Measurements of a headless run.
+     */
+    public static class Report {
+        private int ticks;
+        private long elapsedNanos;
+        private int finalEntities;
+        private long minEntities;
+        private long maxEntities;
+        private double averageEntities;
+        private long reclaimedEntities;
+        private TimingRing.Stats frameStats;
+        private final Map<String, TimingRing.Stats> stageStats = new LinkedHashMap<>();
+
+        /**
+         * Gets the simulated ticks per wall-clock second.
+         *
+         * @return The throughput
+         */
+        public double getTicksPerSecond() {
+            return elapsedNanos == 0 ? 0 : ticks * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        public int getTicks() {
+            return ticks;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public int getFinalEntities() {
+            return finalEntities;
+        }
+
+        public double getAverageEntities() {
+            return averageEntities;
+        }
+
+        /**
+         * Gets the frame time statistics over the most recent frames of the run.
+         *
+         * @return Statistics in nanoseconds
+         */
+        public TimingRing.Stats getFrameStats() {
+            return frameStats;
+        }
+
+        /**
+         * Gets the time statistics per stage over the most recent frames of the run,
+         * in processing order. Stages run concurrently overlap, so they may add up to
+         * more than the frame time.
+         *
+         * @return Statistics in nanoseconds keyed by stage name
+         */
+        public Map<String, TimingRing.Stats> getStageStats() {
+            return stageStats;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("ticks:            %d%n", ticks));
+            sb.append(String.format("elapsed:          %.1f ms%n", elapsedNanos / 1_000_000.0));
+            sb.append(String.format("ticks/second:     %.1f%n", getTicksPerSecond()));
+            sb.append(String.format("entities:         final=%d min=%d max=%d avg=%.1f%n",
+                    finalEntities, minEntities, maxEntities, averageEntities));
+            sb.append(String.format("reclaimed:        %d%n", reclaimedEntities));
+            sb.append(String.format("stages (last %d frames, us):%n", frameStats.getCount()));
+            sb.append(String.format("  %-24s %10s %10s %10s %10s%n", "", "mean", "p50", "p99", "max"));
+            appendStats(sb, "frame", frameStats);
+            for (Map.Entry<String, TimingRing.Stats> entry : stageStats.entrySet()) {
+                appendStats(sb, entry.getKey(), entry.getValue());
+            }
+            return sb.toString();
+        }
+
+        private static void appendStats(StringBuilder sb, String name, TimingRing.Stats stats) {
+            sb.append(String.format("  %-24s %10.1f %10.1f %10.1f %10.1f%n", name,
+                    stats.getMean() / 1_000.0, stats.getP50() / 1_000.0,
+                    stats.getP99() / 1_000.0, stats.getMax() / 1_000.0));
+        }
+    }
+}
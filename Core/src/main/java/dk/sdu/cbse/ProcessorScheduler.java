@@ -0,0 +1,180 @@
+package dk.sdu.cbse;
+
+import dk.sdu.cbse.core.Entity;
+import dk.sdu.cbse.core.IEntityProcessorService;
+import dk.sdu.cbse.core.ParallelLoops;
+import dk.sdu.cbse.profiling.FrameProfiler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs entity processors concurrently, ordered by the entity types they read and write.
+ * <p>
+ * Two processors conflict when one writes a type the other reads or writes, or when
+ * either does not declare its types. Conflicting processors keep their registration
+ * order, every other pair may run at the same time on the shared worker pool.
+ * Entities added by the processors are appended to the entity list in registration
+ * order once all of them have finished, so the result does not depend on timing.
+ */
+class ProcessorScheduler {
+    private static final Logger logger = Logger.getLogger(ProcessorScheduler.class.getName());
+
+    private final List<IEntityProcessorService> processors;
+    private final FrameProfiler profiler;
+    private final ForkJoinPool pool = ParallelLoops.getPool();
+
+    // Dependency graph: successors of each processor and its number of predecessors
+    private final int[][] successors;
+    private final int[] predecessorCounts;
+
+    // Per-processor entity list views and the countdown of unfinished predecessors
+    private final DeferredEntityList[] views;
+    private final AtomicIntegerArray remaining;
+
+    /**
+     * Creates a scheduler for the given processors.
+     *
+     * @param processors The entity processors in registration order
+     * @param profiler The profiler to record per-processor stages in, indexed by processor
+     */
+    ProcessorScheduler(List<IEntityProcessorService> processors, FrameProfiler profiler) {
+        this.processors = new ArrayList<>(processors);
+        this.profiler = profiler;
+
+        int count = this.processors.size();
+        successors = new int[count][];
+        predecessorCounts = new int[count];
+        views = new DeferredEntityList[count];
+        remaining = new AtomicIntegerArray(count);
+
+        // Add an edge from every processor to each later processor it conflicts with
+        for (int i = 0; i < count; i++) {
+            List<Integer> after = new ArrayList<>();
+            for (int j = i + 1; j < count; j++) {
+                if (conflicts(this.processors.get(i), this.processors.get(j))) {
+                    after.add(j);
+                    predecessorCounts[j]++;
+                }
+            }
+            successors[i] = new int[after.size()];
+            for (int k = 0; k < after.size(); k++) {
+                successors[i][k] = after.get(k);
+            }
+            views[i] = new DeferredEntityList();
+        }
+    }
+
+    /**
+     * Checks whether two processors must not run at the same time.
+     */
+    private static boolean conflicts(IEntityProcessorService a, IEntityProcessorService b) {
+        Set<String> readsA = a.getReadTypes();
+        Set<String> writesA = a.getWriteTypes();
+        Set<String> readsB = b.getReadTypes();
+        Set<String> writesB = b.getWriteTypes();
+
+        // Processors without declared types are ordered against everything
+        if (readsA == null || writesA == null || readsB == null || writesB == null) {
+            return true;
+        }
+
+        return !Collections.disjoint(writesA, writesB)
+                || !Collections.disjoint(writesA, readsB)
+                || !Collections.disjoint(writesB, readsA);
+    }
+
+    /**
+     * Runs all processors once and waits for them to finish.
+     *
+     * @param entities The entity list, which must not be modified by other threads meanwhile
+     * @param deltaTime Time passed since last update in seconds
+     */
+    void run(List<Entity> entities, float deltaTime) {
+        int count = processors.size();
+        CountDownLatch done = new CountDownLatch(count);
+
+        for (int i = 0; i < count; i++) {
+            views[i].reset(entities);
+            remaining.set(i, predecessorCounts[i]);
+        }
+
+        // Start the processors without predecessors, the rest are released as these finish
+        for (int i = 0; i < count; i++) {
+            if (predecessorCounts[i] == 0) {
+                submit(i, deltaTime, done);
+            }
+        }
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                done.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Merge spawned entities in registration order
+        for (DeferredEntityList view : views) {
+            List<Entity> additions = view.getAdditions();
+            if (!additions.isEmpty()) {
+                entities.addAll(additions);
+                additions.clear();
+            }
+        }
+    }
+
+    /**
+     * Runs a processor on the pool and releases its successors afterwards.
+     */
+    private void submit(int index, float deltaTime, CountDownLatch done) {
+        pool.execute(() -> {
+            IEntityProcessorService processor = processors.get(index);
+            long allocationStart = profiler.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            try {
+                processor.process(views[index], deltaTime);
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "Error in entity processor: " + processor.getClass().getSimpleName(), e);
+            } finally {
+                profiler.recordStage(index, System.nanoTime() - start,
+                        profiler.getCurrentThreadAllocatedBytes() - allocationStart);
+
+                // Release successors even if the processor failed, so the frame always completes
+                for (int successor : successors[index]) {
+                    if (remaining.decrementAndGet(successor) == 0) {
+                        submit(successor, deltaTime, done);
+                    }
+                }
+                done.countDown();
+            }
+        });
+    }
+
+    /**
+     * Gets the number of processors that can start without waiting for another processor.
+     *
+     * @return The number of independent processors
+     */
+    int getRootCount() {
+        int roots = 0;
+        for (int count : predecessorCounts) {
+            if (count == 0) {
+                roots++;
+            }
+        }
+        return roots;
+    }
+}
@@ -0,0 +1,287 @@
+package dk.sdu.cbse;
+
+import dk.sdu.cbse.core.EntityStore;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the game simulation at a fixed tick rate, independently of the render frame rate.
+ * The loop either runs on its own thread or is driven by the caller through {@link #advance(long)}.
+ * After every batch of steps a {@link WorldSnapshot} is published, which the renderer
+ * picks up without ever touching the live entity list.
+ */
+public class SimulationLoop {
+    private static final Logger logger = Logger.getLogger(SimulationLoop.class.getName());
+
+    private final GameManager gameManager;
+    private final FixedStepClock clock;
+    private final EntityStore store = EntityStore.getDefault();
+
+    // Work handed to the simulation from other threads, run before the next step
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+    // Triple buffered snapshots, back is owned by the simulation and front by the renderer
+    private final AtomicReference<WorldSnapshot> published = new AtomicReference<>(new WorldSnapshot());
+    private WorldSnapshot back = new WorldSnapshot();
+    private WorldSnapshot front = new WorldSnapshot();
+
+    // Entity state before the most recent step, indexed by store slot
+    private float[] previousX = new float[0];
+    private float[] previousY = new float[0];
+    private float[] previousRadians = new float[0];
+    private int[] previousGenerations = new int[0];
+
+    private TickListener tickListener;
+    private volatile boolean paused = false;
+    private volatile boolean running = false;
+    private Thread thread;
+    private long tick = 0;
+
+    /**
+     * Creates a loop with the default tick rate and catch-up limit.
+     *
+     * @param gameManager The game manager to step
+     */
+    public SimulationLoop(GameManager gameManager) {
+        this(gameManager, new FixedStepClock());
+    }
+
+    /**
+     * Creates a loop.
+     *
+     * @param gameManager The game manager to step
+     * @param clock The clock deciding when steps are due
+     */
+    public SimulationLoop(GameManager gameManager, FixedStepClock clock) {
+        if (gameManager == null) {
+            throw new IllegalArgumentException("Game manager cannot be null");
+        }
+
+        this.gameManager = gameManager;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts stepping the simulation on a dedicated daemon thread.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+
+        running = true;
+        thread = new Thread(this::run, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("Simulation thread started at " + clock.getTickRate() + " ticks per second");
+    }
+
+    /**
+     * Stops the simulation thread and waits for it to finish the current step.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+        logger.info("Simulation thread stopped");
+    }
+
+    /**
+     * Body of the simulation thread.
+     */
+    private void run() {
+        while (running) {
+            advance(System.nanoTime());
+
+            // Sleep until the next step is due
+            long wait = clock.nanosUntilNextStep(System.nanoTime());
+            if (wait > 0 && tasks.isEmpty()) {
+                LockSupport.parkNanos(this, wait);
+            }
+        }
+    }
+
+    /**
+     * Runs pending tasks and all steps due at the given time, then publishes a snapshot.
+     * Must only be called from one thread at a time, and not while the loop runs its own thread.
+     *
+     * @param now Current time in nanoseconds
+     * @return The number of steps simulated
+     */
+    public int advance(long now) {
+        runPendingTasks();
+
+        if (paused) {
+            // Do not catch up on the time spent paused
+            clock.reset();
+            return 0;
+        }
+
+        int steps = clock.advance(now);
+        float stepSeconds = clock.getStepSeconds();
+
+        for (int i = 0; i < steps; i++) {
+            rememberPreviousState();
+
+            try {
+                gameManager.update(stepSeconds);
+                if (tickListener != null) {
+                    tickListener.onTick(stepSeconds);
+                }
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "Error in simulation step", e);
+            }
+            tick++;
+
+            if (paused) {
+                break;
+            }
+        }
+
+        if (steps > 0 || published.get().getTick() < 0) {
+            publishSnapshot();
+        }
+        return steps;
+    }
+
+    /**
+     * Queues work to run on the simulation thread before the next step.
+     * Anything that mutates the game state from another thread must go through here.
+     *
+     * @param task The task to run
+     */
+    public void submit(Runnable task) {
+        tasks.add(task);
+        Thread simulationThread = thread;
+        if (simulationThread != null) {
+            LockSupport.unpark(simulationThread);
+        }
+    }
+
+    /**
+     * Gets the most recently published snapshot.
+     * The returned snapshot stays valid until the next call, and must only be read
+     * from the single rendering thread.
+     *
+     * @return The latest snapshot
+     */
+    public WorldSnapshot getLatestSnapshot() {
+        if (published.get().getTick() > front.getTick()) {
+            front = published.getAndSet(front);
+        }
+        return front;
+    }
+
+    /**
+     * Runs all queued tasks.
+     */
+    private void runPendingTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (Exception e) {
+                logger.log(Level.SEVERE, "Error in simulation task", e);
+            }
+        }
+    }
+
+    /**
+     * Copies the entity columns touched by movement before a step, used for interpolation.
+     */
+    private void rememberPreviousState() {
+        int count = store.getHighWaterMark();
+        if (previousX.length < count) {
+            int capacity = store.getCapacity();
+            previousX = Arrays.copyOf(previousX, capacity);
+            previousY = Arrays.copyOf(previousY, capacity);
+            previousRadians = Arrays.copyOf(previousRadians, capacity);
+            previousGenerations = Arrays.copyOf(previousGenerations, capacity);
+        }
+
+        System.arraycopy(store.getXColumn(), 0, previousX, 0, count);
+        System.arraycopy(store.getYColumn(), 0, previousY, 0, count);
+        System.arraycopy(store.getRadiansColumn(), 0, previousRadians, 0, count);
+        System.arraycopy(store.getGenerationColumn(), 0, previousGenerations, 0, count);
+    }
+
+    /**
+     * Captures the current state into the back buffer and publishes it.
+     */
+    private void publishSnapshot() {
+        back.capture(gameManager.getEntities(), previousX, previousY, previousRadians,
+                previousGenerations, store.getGenerationColumn(), tick, clock.getLastStepTime(), clock.getStepNanos());
+        back = published.getAndSet(back);
+    }
+
+    /**
+     * Sets whether the simulation is paused. Pending tasks still run while paused.
+     *
+     * @param paused True to stop stepping the simulation
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Sets the listener called on the simulation thread after every step.
+     *
+     * @param tickListener The listener, may be null
+     */
+    public void setTickListener(TickListener tickListener) {
+        this.tickListener = tickListener;
+    }
+
+    /**
+     * Gets the number of steps simulated so far.
+     *
+     * @return The tick count
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Gets the clock driving this loop.
+     *
+     * @return The clock
+     */
+    public FixedStepClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Callback for completed simulation steps.
+     */
+    public interface TickListener {
+        /**
+         * Called after a step was simulated.
+         *
+         * @param deltaTime Length of the step in seconds
+         */
+        void onTick(float deltaTime);
+    }
+}
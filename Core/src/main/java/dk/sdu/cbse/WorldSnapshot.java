@@ -0,0 +1,160 @@
+package dk.sdu.cbse;
+
+import dk.sdu.cbse.core.Entity;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Copy of the render-relevant state of all active entities at the end of a simulation step.
+ * The renderer reads snapshots while the simulation keeps running, and interpolates
+ * between the previous and current step using the alpha of the snapshot.
+ */
+public final class WorldSnapshot {
+
+    // Movement larger than this within one step is a teleport or screen wrap, not interpolated
+    private static final float MAX_INTERPOLATION_DISTANCE = 50.0f;
+
+    private int count = 0;
+    private long tick = -1;
+    private long stepTime = 0;
+    private long stepNanos = 1;
+
+    // Per-entity state
+    private String[] types = new String[64];
+    private float[] x = new float[64];
+    private float[] y = new float[64];
+    private float[] previousX = new float[64];
+    private float[] previousY = new float[64];
+    private float[] radians = new float[64];
+    private float[] previousRadians = new float[64];
+    private float[] radius = new float[64];
+
+    /**
+     * Captures the state of the active entities.
+     *
+     * @param entities The entities to capture
+     * @param lastX X positions before the step, indexed by store slot
+     * @param lastY Y positions before the step, indexed by store slot
+     * @param lastRadians Rotations before the step, indexed by store slot
+     * @param lastGenerations Slot generations before the step, indexed by store slot
+     * @param generations Current slot generations, indexed by store slot
+     * @param tick The simulation tick this snapshot belongs to
+     * @param stepTime Time of the step boundary in nanoseconds
+     * @param stepNanos Length of one step in nanoseconds
+     */
+    void capture(List<Entity> entities, float[] lastX, float[] lastY, float[] lastRadians,
+                 int[] lastGenerations, int[] generations, long tick, long stepTime, long stepNanos) {
+        this.tick = tick;
+        this.stepTime = stepTime;
+        this.stepNanos = stepNanos;
+
+        int n = 0;
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            if (!entity.isActive()) continue;
+
+            if (n == types.length) {
+                grow(n * 2);
+            }
+
+            int slot = entity.getSlot();
+            types[n] = entity.getType();
+            x[n] = entity.getX();
+            y[n] = entity.getY();
+            radians[n] = entity.getRadians();
+            radius[n] = entity.getRadius();
+
+            // Slots allocated during the step have no previous state yet, even when
+            // they were reused and still hold the previous owner's values
+            if (slot < lastX.length && lastGenerations[slot] == generations[slot]) {
+                previousX[n] = lastX[slot];
+                previousY[n] = lastY[slot];
+                previousRadians[n] = lastRadians[slot];
+            } else {
+                previousX[n] = x[n];
+                previousY[n] = y[n];
+                previousRadians[n] = radians[n];
+            }
+            n++;
+        }
+
+        // Drop references to entity types no longer in use
+        Arrays.fill(types, n, count > n ? count : n, null);
+        count = n;
+    }
+
+    /**
+     * Gets the interpolation alpha for a render at the given time.
+     *
+     * @param now Current time in nanoseconds
+     * @return Alpha between 0 (previous step) and 1 (this step)
+     */
+    public float getAlpha(long now) {
+        float alpha = (float) (now - stepTime) / stepNanos;
+        return Math.max(0, Math.min(1, alpha));
+    }
+
+    /**
+     * Gets the number of entities in this snapshot.
+     *
+     * @return The entity count
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the simulation tick this snapshot was captured at.
+     *
+     * @return The tick, or -1 if nothing was captured yet
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    public String getType(int index) {
+        return types[index];
+    }
+
+    public float getX(int index, float alpha) {
+        return interpolate(previousX[index], x[index], alpha);
+    }
+
+    public float getY(int index, float alpha) {
+        return interpolate(previousY[index], y[index], alpha);
+    }
+
+    public float getRadians(int index, float alpha) {
+        return previousRadians[index] + (radians[index] - previousRadians[index]) * alpha;
+    }
+
+    public float getRadius(int index) {
+        return radius[index];
+    }
+
+    /**
+     * Interpolates a coordinate, snapping to the current value on large jumps.
+     */
+    private static float interpolate(float previous, float current, float alpha) {
+        float delta = current - previous;
+        if (delta > MAX_INTERPOLATION_DISTANCE || delta < -MAX_INTERPOLATION_DISTANCE) {
+            return current;
+        }
+        return previous + delta * alpha;
+    }
+
+    /**
+     * Grows all per-entity arrays to the given capacity.
+     */
+    private void grow(int capacity) {
+        types = Arrays.copyOf(types, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        radians = Arrays.copyOf(radians, capacity);
+        previousRadians = Arrays.copyOf(previousRadians, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+    }
+}
@@ -1,11 +1,13 @@
 package dk.sdu.cbse.core;
 
+import dk.sdu.cbse.core.collision.CollisionDispatchTable;
+import dk.sdu.cbse.core.collision.CollisionFilter;
 import dk.sdu.cbse.core.collision.ICollisionService;
+import dk.sdu.cbse.core.collision.SpatialHashGrid;
+import dk.sdu.cbse.core.collision.SweptCollision;
 import org.springframework.stereotype.Component;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -19,12 +21,33 @@ public class CollisionProcessor implements IPostEntityProcessorService, ICollisi
     
     private static final Logger logger = Logger.getLogger(CollisionProcessor.class.getName());
 
+    // Bullets (400 units/s) and a player near top speed are swept, enemies and asteroids are not
+    public static final float DEFAULT_SWEEP_SPEED = 200.0f;
+    
+    // Type IDs of the built-in entity types
+    private static final int PLAYER = EntityTypes.idOf("player");
+    private static final int ENEMY = EntityTypes.idOf("enemy");
+    private static final int ASTEROID = EntityTypes.idOf("asteroid");
+    private static final int PROJECTILE = EntityTypes.idOf("projectile");
+
     // Game state
     private int playerScore = 0;
     private int playerLives = 3;
     
-    // Collision handling
-    private final Map<String, Map<String, CollisionHandler>> handlers = new HashMap<>();
+    // Collision handling, registered handlers take precedence over the built-in ones
+    private final CollisionDispatchTable handlers = new CollisionDispatchTable();
+    private final CollisionDispatchTable builtInHandlers = new CollisionDispatchTable();
+    private final CollisionFilter collisionFilter = new CollisionFilter() {
+        @Override
+        public boolean canCollide(int typeId1, int typeId2) {
+            return handlers.canCollide(typeId1, typeId2) || builtInHandlers.canCollide(typeId1, typeId2);
+        }
+        
+        @Override
+        public boolean canCollideWithAny(int typeId) {
+            return handlers.canCollideWithAny(typeId) || builtInHandlers.canCollideWithAny(typeId);
+        }
+    };
     private boolean autoProcess = true;
     
     // Entity lists for collision processing
@@ -33,9 +56,48 @@ public class CollisionProcessor implements IPostEntityProcessorService, ICollisi
     private final List<Entity> asteroidEntities = new ArrayList<>();
     private final List<Entity> projectileEntities = new ArrayList<>();
     
+    // Broad phase grids, rebuilt every frame
+    private final SpatialHashGrid asteroidGrid = new SpatialHashGrid();
+    private final SpatialHashGrid enemyGrid = new SpatialHashGrid();
+    private final SpatialHashGrid entityGrid = new SpatialHashGrid();
+    private final List<Entity> candidates = new ArrayList<>();
+    
+    // Entities faster than this are tested along their path over the frame
+    private float sweepSpeedThreshold = DEFAULT_SWEEP_SPEED;
+    private float frameTime = 0;
+    
     // References to plugin methods via reflection (would be implemented in full version)
     private Object asteroidSplitter = null;
     
+    public CollisionProcessor() {
+        registerBuiltInHandlers();
+    }
+    
+    /**
+     * Registers the legacy collision handling for the built-in entity types.
+     */
+    private void registerBuiltInHandlers() {
+        builtInHandlers.put("player", "asteroid", (player, asteroid) -> {
+            handlePlayerAsteroidCollision(player, asteroid, new ArrayList<>());
+            return new CollisionResult(player, asteroid, true);
+        });
+        
+        builtInHandlers.put("player", "enemy", (player, enemy) -> {
+            handlePlayerEnemyCollision(player, enemy);
+            return new CollisionResult(player, enemy, true);
+        });
+        
+        builtInHandlers.put("projectile", "asteroid", (projectile, asteroid) -> {
+            handleProjectileAsteroidCollision(projectile, asteroid, new ArrayList<>());
+            return new CollisionResult(projectile, asteroid, true);
+        });
+        
+        builtInHandlers.put("projectile", "enemy", (projectile, enemy) -> {
+            handleProjectileEnemyCollision(projectile, enemy);
+            return new CollisionResult(projectile, enemy, true);
+        });
+    }
+    
     @Override
     public void postProcess(List<Entity> entities, float deltaTime) {
         // Clear entity lists
@@ -43,10 +105,15 @@ public class CollisionProcessor implements IPostEntityProcessorService, ICollisi
         enemyEntities.clear();
         asteroidEntities.clear();
         projectileEntities.clear();
+        frameTime = deltaTime;
         
         // Categorize entities by type
         categorizeEntities(entities);
         
+        // Bin potential targets so only nearby pairs reach checkCollision
+        asteroidGrid.build(asteroidEntities);
+        enemyGrid.build(enemyEntities);
+        
         // Process player collisions with asteroids
         processPlayerAsteroidCollisions(entities);
         
@@ -67,22 +134,15 @@ public class CollisionProcessor implements IPostEntityProcessorService, ICollisi
         for (Entity entity : entities) {
             if (!entity.isActive()) continue;
             
-            String type = entity.getType();
-            if (type == null) continue;
-            
-            switch (type) {
-                case "player":
-                    playerEntities.add(entity);
-                    break;
-                case "enemy":
-                    enemyEntities.add(entity);
-                    break;
-                case "asteroid":
-                    asteroidEntities.add(entity);
-                    break;
-                case "projectile":
-                    projectileEntities.add(entity);
-                    break;
+            int type = entity.getTypeId();
+            if (type == PLAYER) {
+                playerEntities.add(entity);
+            } else if (type == ENEMY) {
+                enemyEntities.add(entity);
+            } else if (type == ASTEROID) {
+                asteroidEntities.add(entity);
+            } else if (type == PROJECTILE) {
+                projectileEntities.add(entity);
             }
         }
     }
@@ -93,9 +153,9 @@ public class CollisionProcessor implements IPostEntityProcessorService, ICollisi
     private void processPlayerAsteroidCollisions(List<Entity> entities) {
         // For each player entity
         for (Entity player : playerEntities) {
-            // Check collision with each asteroid
-            for (Entity asteroid : asteroidEntities) {
-                if (checkCollision(player, asteroid)) {
+            // Check collision with each nearby asteroid
+            for (Entity asteroid : findCandidates(asteroidGrid, player)) {
+                if (collides(player, asteroid)) {
                     handlePlayerAsteroidCollision(player, asteroid, entities);
                 }
             }
@@ -108,9 +168,9 @@ public class CollisionProcessor implements IPostEntityProcessorService, ICollisi
     private void processPlayerEnemyCollisions(List<Entity> entities) {
         // For each player entity
         for (Entity player : playerEntities) {
-            // Check collision with each enemy
-            for (Entity enemy : enemyEntities) {
-                if (checkCollision(player, enemy)) {
+            // Check collision with each nearby enemy
+            for (Entity enemy : findCandidates(enemyGrid, player)) {
+                if (collides(player, enemy)) {
                     handlePlayerEnemyCollision(player, enemy);
                 }
             }
@@ -123,21 +183,39 @@ public class CollisionProcessor implements IPostEntityProcessorService, ICollisi
     private void processProjectileCollisions(List<Entity> entities) {
         // For each projectile
         for (Entity projectile : projectileEntities) {
-            // Check collision with asteroids
-            for (Entity asteroid : asteroidEntities) {
-                if (checkCollision(projectile, asteroid)) {
-                    handleProjectileAsteroidCollision(projectile, asteroid, entities);
-                    break; // Projectile hits only one target
+            if (!projectile.isActive()) continue;
+            
+            Entity target = null;
+            boolean targetIsAsteroid = false;
+            float earliest = SweptCollision.NO_IMPACT;
+            
+            // Find the earliest hit among nearby asteroids
+            for (Entity asteroid : findCandidates(asteroidGrid, projectile)) {
+                float time = impactTime(projectile, asteroid);
+                if (time < earliest) {
+                    earliest = time;
+                    target = asteroid;
+                    targetIsAsteroid = true;
                 }
             }
             
-            // Check collision with enemies
-            for (Entity enemy : enemyEntities) {
-                if (checkCollision(projectile, enemy)) {
-                    handleProjectileEnemyCollision(projectile, enemy);
-                    break; // Projectile hits only one target
+            // An enemy only wins if it was hit strictly earlier
+            for (Entity enemy : findCandidates(enemyGrid, projectile)) {
+                float time = impactTime(projectile, enemy);
+                if (time < earliest) {
+                    earliest = time;
+                    target = enemy;
+                    targetIsAsteroid = false;
                 }
             }
+            
+            // Projectile hits only one target
+            if (target == null) continue;
+            if (targetIsAsteroid) {
+                handleProjectileAsteroidCollision(projectile, target, entities);
+            } else {
+                handleProjectileEnemyCollision(projectile, target);
+            }
         }
     }
     
@@ -147,15 +225,51 @@ public class CollisionProcessor implements IPostEntityProcessorService, ICollisi
     private void processEnemyAsteroidCollisions(List<Entity> entities) {
         // For each enemy
         for (Entity enemy : enemyEntities) {
-            // Check collision with each asteroid
-            for (Entity asteroid : asteroidEntities) {
-                if (checkCollision(enemy, asteroid)) {
+            // Check collision with each nearby asteroid
+            for (Entity asteroid : findCandidates(asteroidGrid, enemy)) {
+                if (collides(enemy, asteroid)) {
                     handleEnemyAsteroidCollision(enemy, asteroid);
                 }
             }
         }
     }
     
+    /**
+     * Looks up the entities in a grid that are close enough to collide with the given entity.
+     * The returned list is reused between calls and keeps the original entity order.
+     */
+    private List<Entity> findCandidates(SpatialHashGrid grid, Entity entity) {
+        candidates.clear();
+        if (SweptCollision.isFast(entity, sweepSpeedThreshold)) {
+            // Cover the whole path of the entity over the frame
+            SweptCollision.querySwept(grid, entity, frameTime, candidates);
+        } else {
+            grid.query(entity, candidates);
+        }
+        return candidates;
+    }
+    
+    /**
+     * Checks if two entities collided during the current frame, sweeping them along
+     * their path if either one is fast enough to pass through the other.
+     */
+    private boolean collides(Entity a, Entity b) {
+        return impactTime(a, b) != SweptCollision.NO_IMPACT;
+    }
+    
+    /**
+     * Gets the fraction of the current frame at which two entities first touched.
+     * Slow pairs use the discrete test and report a hit at the start of the frame.
+     */
+    private float impactTime(Entity a, Entity b) {
+        if (!a.isActive() || !b.isActive()) return SweptCollision.NO_IMPACT;
+        
+        if (SweptCollision.isFast(a, sweepSpeedThreshold) || SweptCollision.isFast(b, sweepSpeedThreshold)) {
+            return SweptCollision.timeOfImpact(a, b, frameTime);
+        }
+        return checkCollision(a, b) ? 0 : SweptCollision.NO_IMPACT;
+    }
+    
     /**
      * Handles a collision between a player and an asteroid.
      */
@@ -292,56 +406,59 @@ public class CollisionProcessor implements IPostEntityProcessorService, ICollisi
         this.playerLives = lives;
     }
     
+    /**
+     * Gets the speed above which entities are swept along their path.
+     * 
+     * @return Speed threshold in units per second
+     */
+    public float getSweepSpeedThreshold() {
+        return sweepSpeedThreshold;
+    }
+    
+    /**
+     * Sets the speed above which entities are swept along their path.
+     * Infinity turns swept testing off.
+     * 
+     * @param sweepSpeedThreshold Speed threshold in units per second
+     */
+    public void setSweepSpeedThreshold(float sweepSpeedThreshold) {
+        this.sweepSpeedThreshold = sweepSpeedThreshold;
+    }
+    
     // ICollisionService implementation
     
     @Override
     public List<CollisionResult> detectCollisions(List<Entity> entities) {
         List<CollisionResult> results = new ArrayList<>();
         
-        // Check all entity pairs for collisions
-        for (int i = 0; i < entities.size(); i++) {
-            Entity entity1 = entities.get(i);
-            
-            if (!entity1.isActive()) continue;
-            
-            for (int j = i + 1; j < entities.size(); j++) {
-                Entity entity2 = entities.get(j);
-                
-                if (!entity2.isActive()) continue;
-                
-                // Check for collision between the two entities
-                if (checkCollision(entity1, entity2)) {
-                    // Process the collision if auto-processing is enabled
-                    if (autoProcess) {
-                        CollisionResult result = processCollision(entity1, entity2);
-                        if (result != null) {
-                            results.add(result);
-                        }
-                    } else {
-                        // Just add a result without processing
-                        results.add(new CollisionResult(entity1, entity2, false));
+        // Without processing every pair is reported, so only filter when handlers decide
+        CollisionFilter filter = autoProcess ? collisionFilter : CollisionFilter.ALL;
+        
+        // Only check entity pairs that share or neighbour a grid cell
+        entityGrid.build(entities);
+        entityGrid.forEachCandidatePair(filter, (entity1, entity2) -> {
+            // Check for collision between the two entities
+            if (checkCollision(entity1, entity2)) {
+                // Process the collision if auto-processing is enabled
+                if (autoProcess) {
+                    CollisionResult result = processCollision(entity1, entity2);
+                    if (result != null) {
+                        results.add(result);
                     }
+                } else {
+                    // Just add a result without processing
+                    results.add(new CollisionResult(entity1, entity2, false));
                 }
             }
-        }
+        });
         
         return results;
     }
     
     @Override
     public void addCollisionHandler(String type1, String type2, CollisionHandler handler) {
-        // Ensure the type maps exist
-        handlers.computeIfAbsent(type1, k -> new HashMap<>());
-        handlers.computeIfAbsent(type2, k -> new HashMap<>());
-        
         // Add handler in both directions for symmetric collision detection
-        handlers.get(type1).put(type2, handler);
-        
-        // Only add the reverse mapping if types are different
-        if (!type1.equals(type2)) {
-            handlers.get(type2).put(type1, (entity2, entity1) -> 
-                handler.handleCollision(entity1, entity2));
-        }
+        handlers.put(type1, type2, handler);
         
         logger.info("Added collision handler for " + type1 + " and " + type2);
     }
@@ -349,13 +466,7 @@ public class CollisionProcessor implements IPostEntityProcessorService, ICollisi
     @Override
     public void removeCollisionHandler(String type1, String type2) {
         // Remove handlers in both directions
-        if (handlers.containsKey(type1)) {
-            handlers.get(type1).remove(type2);
-        }
-        
-        if (handlers.containsKey(type2)) {
-            handlers.get(type2).remove(type1);
-        }
+        handlers.remove(type1, type2);
         
         logger.info("Removed collision handler for " + type1 + " and " + type2);
     }
@@ -367,18 +478,20 @@ public class CollisionProcessor implements IPostEntityProcessorService, ICollisi
     
     @Override
     public CollisionResult processCollision(Entity entity1, Entity entity2) {
-        String type1 = entity1.getType();
-        String type2 = entity2.getType();
+        int type1 = entity1.getTypeId();
+        int type2 = entity2.getTypeId();
         
         // If either entity has no type, we can't process
-        if (type1 == null || type2 == null) {
+        if (type1 == EntityTypes.NO_TYPE || type2 == EntityTypes.NO_TYPE) {
             return null;
         }
         
         // Find the appropriate handler
-        CollisionHandler handler = null;
-        if (handlers.containsKey(type1) && handlers.get(type1).containsKey(type2)) {
-            handler = handlers.get(type1).get(type2);
+        CollisionHandler handler = handlers.get(type1, type2);
+        
+        // Legacy collision handling (use the built-in handlers)
+        if (handler == null) {
+            handler = builtInHandlers.get(type1, type2);
         }
         
         // Process the collision if a handler was found
@@ -386,51 +499,6 @@ public class CollisionProcessor implements IPostEntityProcessorService, ICollisi
             return handler.handleCollision(entity1, entity2);
         }
         
-        // Legacy collision handling (use the built-in handlers)
-        if (type1.equals("player") && type2.equals("asteroid") || 
-            type2.equals("player") && type1.equals("asteroid")) {
-            // Find player and asteroid
-            Entity player = type1.equals("player") ? entity1 : entity2;
-            Entity asteroid = type1.equals("asteroid") ? entity1 : entity2;
-            
-            // Handle collision
-            handlePlayerAsteroidCollision(player, asteroid, new ArrayList<>());
-            return new CollisionResult(player, asteroid, true);
-        }
-        
-        if (type1.equals("player") && type2.equals("enemy") || 
-            type2.equals("player") && type1.equals("enemy")) {
-            // Find player and enemy
-            Entity player = type1.equals("player") ? entity1 : entity2;
-            Entity enemy = type1.equals("enemy") ? entity1 : entity2;
-            
-            // Handle collision
-            handlePlayerEnemyCollision(player, enemy);
-            return new CollisionResult(player, enemy, true);
-        }
-        
-        if (type1.equals("projectile") && type2.equals("asteroid") || 
-            type2.equals("projectile") && type1.equals("asteroid")) {
-            // Find projectile and asteroid
-            Entity projectile = type1.equals("projectile") ? entity1 : entity2;
-            Entity asteroid = type1.equals("asteroid") ? entity1 : entity2;
-            
-            // Handle collision
-            handleProjectileAsteroidCollision(projectile, asteroid, new ArrayList<>());
-            return new CollisionResult(projectile, asteroid, true);
-        }
-        
-        if (type1.equals("projectile") && type2.equals("enemy") || 
-            type2.equals("projectile") && type1.equals("enemy")) {
-            // Find projectile and enemy
-            Entity projectile = type1.equals("projectile") ? entity1 : entity2;
-            Entity enemy = type1.equals("enemy") ? entity1 : entity2;
-            
-            // Handle collision
-            handleProjectileEnemyCollision(projectile, enemy);
-            return new CollisionResult(projectile, enemy, true);
-        }
-        
         return null;
     }
 }
@@ -1,84 +1,118 @@
 package dk.sdu.cbse.core;
 
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Base class for all game entities.
+ * The movement state of an entity is kept in the shared {@link EntityStore};
+ * the entity itself only holds its slot in the store.
  */
 public class Entity {
-    private final UUID id;
-    private float x;
-    private float y;
-    private float dx;
-    private float dy;
-    private float radians;
-    private float radius;
-    private boolean active;
+    private static final EntityStore store = EntityStore.getDefault();
+    
+    // Source of entity IDs, never reused within a run
+    private static final AtomicLong nextId = new AtomicLong(1);
+
+    private long id;
+    private UUID uuid;
+    private int slot;
     private String type;
+    private int typeId = EntityTypes.NO_TYPE;
+    
+    // Pool this entity returns to when released, if any
+    private EntityPool<?> pool;
 
     public Entity() {
-        this.id = UUID.randomUUID();
-        this.active = true;
+        this.id = nextId.getAndIncrement();
+        this.slot = store.allocate();
+        store.setActive(slot, true);
+    }
+
+    /**
+     * Gets the ID of this entity.
+     * IDs are sequential and unique for the lifetime of the game.
+     *
+     * @return The entity ID
+     */
+    public long getId() {
+        return id;
     }
 
-    public UUID getId() {
-        return id;
+    /**
+     * Gets a random UUID for this entity, created on first use.
+     * Intended for external and persistence use where a globally unique ID is needed.
+     *
+     * @return The entity UUID
+     */
+    public UUID getUuid() {
+        if (uuid == null) {
+            uuid = UUID.randomUUID();
+        }
+        return uuid;
     }
 
     public float getX() {
-        return x;
+        return store.x[slot];
     }
 
     public void setX(float x) {
-        this.x = x;
+        store.x[slot] = x;
     }
 
     public float getY() {
-        return y;
+        return store.y[slot];
     }
 
     public void setY(float y) {
-        this.y = y;
+        store.y[slot] = y;
     }
 
     public float getDx() {
-        return dx;
+        return store.dx[slot];
     }
 
     public void setDx(float dx) {
-        this.dx = dx;
+        store.dx[slot] = dx;
     }
 
     public float getDy() {
-        return dy;
+        return store.dy[slot];
     }
 
     public void setDy(float dy) {
-        this.dy = dy;
+        store.dy[slot] = dy;
     }
 
     public float getRadians() {
-        return radians;
+        return store.radians[slot];
     }
 
     public void setRadians(float radians) {
-        this.radians = radians;
+        store.radians[slot] = radians;
     }
 
     public float getRadius() {
-        return radius;
+        return store.radius[slot];
     }
 
     public void setRadius(float radius) {
-        this.radius = radius;
+        store.radius[slot] = radius;
     }
 
     public boolean isActive() {
-        return active;
+        return store.isActive(slot);
     }
 
+    /**
+     * Sets whether this entity is active.
+     * Activating a released entity attaches it to a fresh, zeroed slot.
+     */
     public void setActive(boolean active) {
-        this.active = active;
+        if (active && slot == EntityStore.DETACHED_SLOT) {
+            slot = store.allocate();
+        }
+        store.setActive(slot, active);
     }
 
     public String getType() {
@@ -87,6 +121,57 @@ public class Entity {
 
     public void setType(String type) {
         this.type = type;
+        this.typeId = EntityTypes.idOf(type);
+    }
+
+    /**
+     * Gets the registered ID of this entity's type.
+     *
+     * @return The type ID, or {@link EntityTypes#NO_TYPE} if the entity has no type
+     */
+    public int getTypeId() {
+        return typeId;
+    }
+
+    /**
+     * Gets the slot holding this entity's state in the entity store.
+     *
+     * @return The store slot
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Returns this entity's slot to the entity store.
+     * The entity becomes inactive and its state is discarded.
+     * Entities acquired from an {@link EntityPool} are handed back to it.
+     */
+    public void release() {
+        if (slot != EntityStore.DETACHED_SLOT) {
+            store.free(slot);
+            slot = EntityStore.DETACHED_SLOT;
+        }
+        
+        if (pool != null) {
+            EntityPool<?> owner = pool;
+            pool = null;
+            owner.recycle(this);
+        }
+    }
+    
+    /**
+     * Sets the pool this entity returns to when released.
+     */
+    void setPool(EntityPool<?> pool) {
+        this.pool = pool;
+    }
+    
+    /**
+     * Gives this entity a new ID, used when a pooled entity is reused.
+     */
+    void renewId() {
+        id = nextId.getAndIncrement();
+        uuid = null;
     }
 }
-
@@ -0,0 +1,171 @@
+package dk.sdu.cbse.core;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Pool of reusable entities of a single type.
+ * Entities acquired from a pool are handed back automatically when they are
+ * released, which the GameManager does once an inactive entity is reclaimed.
+ *
+ * @param <T> The entity type held by this pool
+ */
+public class EntityPool<T extends Entity> {
+
+    private static final int DEFAULT_MAX_SIZE = 1024;
+
+    private final Supplier<T> factory;
+    private final Consumer<T> resetHook;
+    private final int maxSize;
+    private final ArrayDeque<T> available = new ArrayDeque<>();
+
+    // Pool statistics
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long recycledCount = 0;
+    private long discardedCount = 0;
+
+    /**
+     * Creates a pool with the default maximum size.
+     *
+     * @param factory Creates new entities when the pool is empty
+     * @param resetHook Restores a recycled entity before it is handed out again, may be null
+     */
+    public EntityPool(Supplier<T> factory, Consumer<T> resetHook) {
+        this(factory, resetHook, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a pool.
+     *
+     * @param factory Creates new entities when the pool is empty
+     * @param resetHook Restores a recycled entity before it is handed out again, may be null
+     * @param maxSize Maximum number of idle entities kept by the pool
+     */
+    public EntityPool(Supplier<T> factory, Consumer<T> resetHook, int maxSize) {
+        if (factory == null) {
+            throw new IllegalArgumentException("Factory cannot be null");
+        }
+
+        this.factory = factory;
+        this.resetHook = resetHook;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Takes an active entity from the pool, creating one if the pool is empty.
+     *
+     * @return An active entity owned by this pool
+     */
+    public T acquire() {
+        T entity;
+        boolean recycled;
+
+        synchronized (this) {
+            entity = available.poll();
+            recycled = entity != null;
+            if (recycled) {
+                hitCount++;
+            } else {
+                missCount++;
+            }
+        }
+
+        if (recycled) {
+            // A reused entity is a new entity as far as the game is concerned
+            entity.renewId();
+            
+            // Attaches the entity to a fresh slot in the entity store
+            entity.setActive(true);
+            if (resetHook != null) {
+                resetHook.accept(entity);
+            }
+        } else {
+            entity = factory.get();
+        }
+
+        entity.setPool(this);
+        return entity;
+    }
+
+    /**
+     * Returns a released entity to the pool.
+     * Called by {@link Entity#release()} for entities acquired from this pool.
+     */
+    synchronized void recycle(Entity entity) {
+        if (available.size() >= maxSize) {
+            discardedCount++;
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        T pooled = (T) entity;
+        available.push(pooled);
+        recycledCount++;
+    }
+
+    /**
+     * Gets the number of acquisitions served from the pool.
+     *
+     * @return The hit count
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of acquisitions that had to create a new entity.
+     *
+     * @return The miss count
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the number of entities returned to the pool.
+     *
+     * @return The recycled count
+     */
+    public synchronized long getRecycledCount() {
+        return recycledCount;
+    }
+
+    /**
+     * Gets the number of returned entities dropped because the pool was full.
+     *
+     * @return The discarded count
+     */
+    public synchronized long getDiscardedCount() {
+        return discardedCount;
+    }
+
+    /**
+     * Gets the number of idle entities in the pool.
+     *
+     * @return The pool size
+     */
+    public synchronized int getSize() {
+        return available.size();
+    }
+
+    /**
+     * Gets the fraction of acquisitions served from the pool.
+     *
+     * @return The hit rate between 0 and 1
+     */
+    public synchronized double getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "EntityPool[size=" + available.size() +
+               ", hits=" + hitCount +
+               ", misses=" + missCount +
+               ", recycled=" + recycledCount +
+               ", discarded=" + discardedCount + "]";
+    }
+}
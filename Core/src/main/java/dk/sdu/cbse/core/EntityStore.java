@@ -0,0 +1,334 @@
+package dk.sdu.cbse.core;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Structure-of-arrays storage for the per-entity state used by the movement hot path.
+ * Each entity owns a slot, and its position, velocity, rotation and radius live in
+ * parallel primitive columns indexed by that slot, with the active flags kept in a bitset.
+ * <p>
+ * Processors can read and write the columns directly instead of going through the
+ * getters on every {@link Entity}, which keeps the integration loops on primitive arrays.
+ * Slot 0 is reserved for released entities and is never handed out.
+ * <p>
+ * Columns are replaced when the store grows, so code running concurrently with other
+ * processors must {@link #reserve(int) reserve} enough slots up front.
+ */
+public final class EntityStore {
+
+    private static final EntityStore DEFAULT = new EntityStore(1024);
+
+    // Slot that released entities point to, never active
+    static final int DETACHED_SLOT = 0;
+    
+    // Atomic access to the words of the active bitset
+    private static final VarHandle ACTIVE_WORD = MethodHandles.arrayElementVarHandle(long[].class);
+
+    // Component columns
+    float[] x;
+    float[] y;
+    float[] dx;
+    float[] dy;
+    float[] radians;
+    float[] radius;
+    long[] active;
+
+    // Bumped every time a slot is handed out, so reuse of a slot can be detected
+    int[] generations;
+
+    // Slot allocation state
+    private int[] freeSlots = new int[64];
+    private int freeCount = 0;
+    private int highWaterMark = 1;
+    private int allocatedCount = 0;
+
+    /**
+     * Creates a store with the given initial capacity.
+     *
+     * @param capacity Initial number of slots
+     */
+    public EntityStore(int capacity) {
+        int size = Math.max(2, capacity);
+        x = new float[size];
+        y = new float[size];
+        dx = new float[size];
+        dy = new float[size];
+        radians = new float[size];
+        radius = new float[size];
+        active = new long[(size + 63) >>> 6];
+        generations = new int[size];
+    }
+
+    /**
+     * Gets the store shared by all entities.
+     *
+     * @return The default store
+     */
+    public static EntityStore getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Allocates a zeroed, inactive slot.
+     *
+     * @return The allocated slot
+     */
+    public synchronized int allocate() {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (highWaterMark == x.length) {
+                grow(x.length * 2);
+            }
+            slot = highWaterMark++;
+        }
+
+        x[slot] = 0;
+        y[slot] = 0;
+        dx[slot] = 0;
+        dy[slot] = 0;
+        radians[slot] = 0;
+        radius[slot] = 0;
+        generations[slot]++;
+        allocatedCount++;
+        return slot;
+    }
+
+    /**
+     * Grows the store so that at least the given number of slots can be allocated
+     * without replacing the columns.
+     *
+     * @param count Number of slots to keep available
+     */
+    public synchronized void reserve(int count) {
+        int available = freeCount + x.length - highWaterMark;
+        if (available < count) {
+            int capacity = x.length;
+            while (freeCount + capacity - highWaterMark < count) {
+                capacity *= 2;
+            }
+            grow(capacity);
+        }
+    }
+
+    /**
+     * Returns a slot to the store so it can be reused.
+     *
+     * @param slot The slot to free
+     */
+    public synchronized void free(int slot) {
+        if (slot == DETACHED_SLOT) {
+            return;
+        }
+
+        setActive(slot, false);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        allocatedCount--;
+    }
+
+    /**
+     * Checks whether a slot is active.
+     *
+     * @param slot The slot to check
+     * @return True if the slot is active
+     */
+    public boolean isActive(int slot) {
+        return (active[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * Sets whether a slot is active.
+     * Neighbouring slots share a bitset word, so the update is atomic to allow
+     * processors on different threads to change them at the same time.
+     *
+     * @param slot The slot to update
+     * @param value True to mark the slot active
+     */
+    public void setActive(int slot, boolean value) {
+        long[] words = active;
+        int word = slot >>> 6;
+        long bit = 1L << slot;
+
+        long current;
+        long updated;
+        do {
+            current = (long) ACTIVE_WORD.getVolatile(words, word);
+            updated = value ? current | bit : current & ~bit;
+            if (updated == current) {
+                return;
+            }
+        } while (!ACTIVE_WORD.compareAndSet(words, word, current, updated));
+    }
+
+    /**
+     * Finds the next active slot at or after the given slot.
+     *
+     * @param from The slot to start searching from
+     * @return The next active slot, or -1 if there is none
+     */
+    public int nextActiveSlot(int from) {
+        int word = from >>> 6;
+        if (word >= active.length) {
+            return -1;
+        }
+
+        long bits = active[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+                return slot < highWaterMark ? slot : -1;
+            }
+            if (++word == active.length) {
+                return -1;
+            }
+            bits = active[word];
+        }
+    }
+
+    /**
+     * Advances the positions of the given slots by their velocity.
+     *
+     * @param slots Slots to integrate
+     * @param count Number of slots to use from the array
+     * @param deltaTime Time passed since last update in seconds
+     */
+    public void integratePositions(int[] slots, int count, float deltaTime) {
+        integratePositions(slots, 0, count, deltaTime);
+    }
+
+    /**
+     * Advances the positions of a range of the given slots by their velocity.
+     * The loop gathers and scatters through the slot array, which the JIT does not
+     * vectorize; it runs scalar over primitive columns, with no per-entity dereference.
+     *
+     * @param slots Slots to integrate
+     * @param from First index in the array to use, inclusive
+     * @param to Last index in the array to use, exclusive
+     * @param deltaTime Time passed since last update in seconds
+     */
+    public void integratePositions(int[] slots, int from, int to, float deltaTime) {
+        float[] x = this.x;
+        float[] y = this.y;
+        float[] dx = this.dx;
+        float[] dy = this.dy;
+
+        for (int i = from; i < to; i++) {
+            int slot = slots[i];
+            x[slot] += dx[slot] * deltaTime;
+            y[slot] += dy[slot] * deltaTime;
+        }
+    }
+
+    /**
+     * Gets the X position column.
+     *
+     * @return X positions indexed by slot
+     */
+    public float[] getXColumn() {
+        return x;
+    }
+
+    /**
+     * Gets the Y position column.
+     *
+     * @return Y positions indexed by slot
+     */
+    public float[] getYColumn() {
+        return y;
+    }
+
+    /**
+     * Gets the X velocity column.
+     *
+     * @return X velocities indexed by slot
+     */
+    public float[] getDxColumn() {
+        return dx;
+    }
+
+    /**
+     * Gets the Y velocity column.
+     *
+     * @return Y velocities indexed by slot
+     */
+    public float[] getDyColumn() {
+        return dy;
+    }
+
+    /**
+     * Gets the rotation column.
+     *
+     * @return Rotations in radians indexed by slot
+     */
+    public float[] getRadiansColumn() {
+        return radians;
+    }
+
+    /**
+     * Gets the radius column.
+     *
+     * @return Radii indexed by slot
+     */
+    public float[] getRadiusColumn() {
+        return radius;
+    }
+
+    /**
+     * Gets the generation column. A slot's generation changes every time it is allocated,
+     * so comparing it with an earlier copy tells whether the slot changed owner in between.
+     *
+     * @return Allocation counts indexed by slot
+     */
+    public int[] getGenerationColumn() {
+        return generations;
+    }
+
+    /**
+     * Gets the number of slots in use, including the reserved slot.
+     * Every allocated slot is below this value.
+     *
+     * @return The high water mark
+     */
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Gets the number of currently allocated slots.
+     *
+     * @return The allocated slot count
+     */
+    public int getAllocatedCount() {
+        return allocatedCount;
+    }
+
+    /**
+     * Gets the current capacity of the columns.
+     *
+     * @return The capacity in slots
+     */
+    public int getCapacity() {
+        return x.length;
+    }
+
+    /**
+     * Grows all columns to the given capacity.
+     * Column arrays are replaced, so callers must not cache them across allocations.
+     */
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        dx = Arrays.copyOf(dx, capacity);
+        dy = Arrays.copyOf(dy, capacity);
+        radians = Arrays.copyOf(radians, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+        active = Arrays.copyOf(active, (capacity + 63) >>> 6);
+        generations = Arrays.copyOf(generations, capacity);
+    }
+}
@@ -0,0 +1,71 @@
+package dk.sdu.cbse.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry assigning small integer IDs to entity type names.
+ * IDs are dense, start at 1 and never change during a run, so they can index
+ * arrays such as the collision dispatch table. ID 0 stands for entities without a type.
+ */
+public final class EntityTypes {
+
+    public static final int NO_TYPE = 0;
+
+    private static final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private static final List<String> names = new ArrayList<>();
+
+    static {
+        names.add(null);
+    }
+
+    private EntityTypes() {
+    }
+
+    /**
+     * Gets the ID of an entity type, registering the type on first use.
+     *
+     * @param type The type name, may be null
+     * @return The type ID, or {@link #NO_TYPE} for a null type
+     */
+    public static int idOf(String type) {
+        if (type == null) {
+            return NO_TYPE;
+        }
+
+        Integer id = ids.get(type);
+        return id != null ? id : register(type);
+    }
+
+    /**
+     * Gets the name of a registered entity type.
+     *
+     * @param id The type ID
+     * @return The type name, or null for {@link #NO_TYPE} and unknown IDs
+     */
+    public static synchronized String nameOf(int id) {
+        return id > 0 && id < names.size() ? names.get(id) : null;
+    }
+
+    /**
+     * Gets the number of IDs handed out so far, including {@link #NO_TYPE}.
+     * Every type ID is smaller than this.
+     *
+     * @return The ID count
+     */
+    public static synchronized int count() {
+        return names.size();
+    }
+
+    private static synchronized int register(String type) {
+        Integer id = ids.get(type);
+        if (id == null) {
+            id = names.size();
+            names.add(type);
+            ids.put(type, id);
+        }
+        return id;
+    }
+}
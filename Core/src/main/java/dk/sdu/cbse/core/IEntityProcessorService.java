@@ -1,6 +1,7 @@
 package dk.sdu.cbse.core;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * Service interface for processing game entities.
@@ -16,5 +17,25 @@ public interface IEntityProcessorService {
      * @param deltaTime Time passed since last update in seconds
      */
     void process(List<Entity> entities, float deltaTime);
+    
+    /**
+     * Gets the entity types whose state this processor reads.
+     * Processors that neither write what the other reads nor write the same types
+     * may run concurrently. Entities added to the list are only visible after all
+     * concurrently running processors have finished.
+     * 
+     * @return The read entity types, or null if unknown, in which case the processor runs alone
+     */
+    default Set<String> getReadTypes() {
+        return null;
+    }
+    
+    /**
+     * Gets the entity types whose state this processor writes.
+     * 
+     * @return The written entity types, or null if unknown, in which case the processor runs alone
+     */
+    default Set<String> getWriteTypes() {
+        return null;
+    }
 }
-
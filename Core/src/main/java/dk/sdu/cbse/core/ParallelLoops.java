@@ -0,0 +1,104 @@
+package dk.sdu.cbse.core;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Shared worker pool for parallel entity processing, and chunked parallel loops on top of it.
+ * The pool size is taken from the {@code asteroids.parallelism} system property and
+ * defaults to the number of available processors.
+ */
+public final class ParallelLoops {
+
+    private static final int PARALLELISM = Math.max(1,
+            Integer.getInteger("asteroids.parallelism", Runtime.getRuntime().availableProcessors()));
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(PARALLELISM);
+
+    private ParallelLoops() {
+    }
+
+    /**
+     * Gets the pool used for parallel entity processing.
+     *
+     * @return The shared pool
+     */
+    public static ForkJoinPool getPool() {
+        return POOL;
+    }
+
+    /**
+     * Gets the number of worker threads of the shared pool.
+     *
+     * @return The parallelism
+     */
+    public static int getParallelism() {
+        return PARALLELISM;
+    }
+
+    /**
+     * Runs a loop body over the index range [0, count), split into chunks that run in parallel.
+     * Small ranges run directly on the calling thread. Returns once every chunk has finished.
+     *
+     * @param count Number of indices
+     * @param chunkSize Maximum number of indices handled by one task
+     * @param body Loop body, called once per chunk with disjoint ranges
+     */
+    public static void forEachChunk(int count, int chunkSize, RangeBody body) {
+        if (count <= chunkSize || PARALLELISM == 1) {
+            body.run(0, count);
+            return;
+        }
+
+        ChunkTask task = new ChunkTask(body, 0, count, Math.max(1, chunkSize));
+        if (ForkJoinTask.getPool() == POOL) {
+            // Already on a worker, let idle workers steal the chunks
+            task.invoke();
+        } else {
+            POOL.invoke(task);
+        }
+    }
+
+    /**
+     * Loop body over a range of indices.
+     */
+    public interface RangeBody {
+        /**
+         * Processes a range of indices.
+         *
+         * @param from First index, inclusive
+         * @param to Last index, exclusive
+         */
+        void run(int from, int to);
+    }
+
+    /**
+     * Splits a range in halves until it fits a chunk.
+     */
+    private static final class ChunkTask extends RecursiveAction {
+        private final RangeBody body;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+
+        ChunkTask(RangeBody body, int from, int to, int chunkSize) {
+            this.body = body;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                body.run(from, to);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkTask(body, from, middle, chunkSize),
+                      new ChunkTask(body, middle, to, chunkSize));
+        }
+    }
+}
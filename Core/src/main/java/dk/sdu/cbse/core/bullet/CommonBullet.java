@@ -52,6 +52,23 @@ public class CommonBullet extends Entity implements IBullet {
         setActive(true);
     }
     
+    /**
+     * Restores the default bullet properties so a pooled bullet can be reused.
+     */
+    public void reset() {
+        this.shooter = null;
+        this.damage = DEFAULT_DAMAGE;
+        this.speed = 0f;
+        this.lifetime = DEFAULT_LIFETIME;
+        this.age = 0f;
+        this.bulletType = DEFAULT_BULLET_TYPE;
+        
+        // Set entity properties
+        setRadius(DEFAULT_RADIUS);
+        setType("projectile");
+        setActive(true);
+    }
+    
     /**
      * Initializes the bullet with position, direction, and speed.
      * 
@@ -0,0 +1,85 @@
+package dk.sdu.cbse.core.bullet;
+
+import dk.sdu.cbse.core.Entity;
+import dk.sdu.cbse.core.EntityPool;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bullet service that creates common bullets.
+ * Bullets are taken from a shared pool and return to it once the game
+ * reclaims them after they expire or hit something.
+ */
+public class CommonBulletService implements IBulletService {
+    
+    private static final String BULLET_TYPE = "common";
+    
+    // Pool shared by all service instances
+    private static final EntityPool<CommonBullet> pool =
+        new EntityPool<>(CommonBullet::new, CommonBullet::reset);
+    
+    // Default bullet properties
+    private int defaultDamage = 1;
+    private float defaultLifetime = 2.0f;
+    
+    @Override
+    public Entity createBullet(Entity shooter, float x, float y, float direction, float speed) {
+        CommonBullet bullet = pool.acquire();
+        bullet.setShooter(shooter);
+        bullet.setDamage(defaultDamage);
+        bullet.setLifetime(defaultLifetime);
+        bullet.setBulletType(BULLET_TYPE);
+        bullet.init(x, y, direction, speed);
+        return bullet;
+    }
+    
+    @Override
+    public List<Entity> createBulletSpread(Entity shooter, float x, float y, float direction,
+                                          float speed, int count, float spreadAngle) {
+        List<Entity> bullets = new ArrayList<>(count);
+        
+        // Spread bullets evenly across the spread angle
+        float startAngle = count > 1 ? direction - spreadAngle / 2 : direction;
+        float step = count > 1 ? spreadAngle / (count - 1) : 0;
+        for (int i = 0; i < count; i++) {
+            bullets.add(createBullet(shooter, x, y, startAngle + step * i, speed));
+        }
+        
+        return bullets;
+    }
+    
+    @Override
+    public void setDefaultDamage(int damage) {
+        this.defaultDamage = damage;
+    }
+    
+    @Override
+    public int getDefaultDamage() {
+        return defaultDamage;
+    }
+    
+    @Override
+    public void setDefaultLifetime(float lifetime) {
+        this.defaultLifetime = lifetime;
+    }
+    
+    @Override
+    public float getDefaultLifetime() {
+        return defaultLifetime;
+    }
+    
+    @Override
+    public String getBulletType() {
+        return BULLET_TYPE;
+    }
+    
+    /**
+     * Gets the pool bullets are taken from, for monitoring.
+     * 
+     * @return The bullet pool
+     */
+    public static EntityPool<CommonBullet> getPool() {
+        return pool;
+    }
+}
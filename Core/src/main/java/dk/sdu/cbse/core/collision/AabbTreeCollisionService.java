@@ -0,0 +1,141 @@
+package dk.sdu.cbse.core.collision;
+
+import dk.sdu.cbse.core.Entity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Collision service using a {@link DynamicAabbTree} as broad phase.
+ * <p>
+ * The tree is kept between detection passes. Each pass inserts the active entities that
+ * are new, removes those that left the list or became inactive, and refits the rest, which
+ * only touches the tree for entities that moved out of their fat box. This suits scenes
+ * with widely varying entity sizes, where a grid has no good cell size.
+ * <p>
+ * Handlers, score and lives work exactly like in {@link DefaultCollisionService}; only the
+ * way candidate pairs are found differs.
+ */
+public class AabbTreeCollisionService extends DefaultCollisionService {
+
+    private final DynamicAabbTree tree = new DynamicAabbTree();
+
+    // Tree proxy and entity of every tracked store slot
+    private int[] proxies = newProxies(64);
+    private Entity[] slotOwners = new Entity[64];
+
+    // Slots whose tracked entity is still active and in the list this pass
+    private int[] seenStamps = new int[64];
+    private int stamp = 0;
+
+    // Number of leaves the last refit had to reinsert
+    private int lastReinserts = 0;
+
+    @Override
+    public List<CollisionResult> detectCollisions(List<Entity> entities) {
+        List<CollisionResult> results = new ArrayList<>();
+
+        synchronize(entities);
+        lastReinserts = tree.refit();
+
+        // Without processing every pair is reported, so only filter when handlers decide
+        CollisionFilter filter = isAutoProcess() ? getCollisionFilter() : CollisionFilter.ALL;
+        tree.forEachCandidatePair(filter, (entity1, entity2) -> {
+            // Check for collision between the two entities
+            if (checkCollision(entity1, entity2)) {
+                if (isAutoProcess()) {
+                    CollisionResult result = processCollision(entity1, entity2);
+                    if (result != null) {
+                        results.add(result);
+                    }
+                } else {
+                    // Just add a result without processing
+                    results.add(new CollisionResult(entity1, entity2, false));
+                }
+            }
+        });
+
+        return results;
+    }
+
+    /**
+     * Gets the number of tracked entities, which is the number of active entities
+     * passed to the last detection pass.
+     *
+     * @return Tracked entity count
+     */
+    public int size() {
+        return tree.size();
+    }
+
+    /**
+     * Gets the number of leaves the last detection pass had to reinsert
+     * because their entity left its fat box.
+     *
+     * @return Reinserted leaf count
+     */
+    public int getLastReinserts() {
+        return lastReinserts;
+    }
+
+    /**
+     * Brings the tree in line with the active entities of the list.
+     * Entities are tracked by store slot; a slot whose entity changed, left the list
+     * or became inactive loses its leaf before new entities are inserted.
+     */
+    private void synchronize(List<Entity> entities) {
+        stamp++;
+
+        // Mark the slots whose tracked entity is still active in the list
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            if (!entity.isActive()) continue;
+
+            int slot = entity.getSlot();
+            if (slot < slotOwners.length && slotOwners[slot] == entity) {
+                seenStamps[slot] = stamp;
+            }
+        }
+
+        // Drop the leaves of all other tracked slots
+        for (int slot = 0; slot < proxies.length; slot++) {
+            if (proxies[slot] != DynamicAabbTree.NULL_NODE && seenStamps[slot] != stamp) {
+                tree.remove(proxies[slot]);
+                proxies[slot] = DynamicAabbTree.NULL_NODE;
+                slotOwners[slot] = null;
+            }
+        }
+
+        // Whatever is active but not tracked yet is new
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            if (!entity.isActive()) continue;
+
+            int slot = entity.getSlot();
+            ensureSlotCapacity(slot);
+            if (slotOwners[slot] != entity) {
+                proxies[slot] = tree.insert(entity);
+                slotOwners[slot] = entity;
+                seenStamps[slot] = stamp;
+            }
+        }
+    }
+
+    private void ensureSlotCapacity(int slot) {
+        if (slot >= slotOwners.length) {
+            int capacity = Math.max(slot + 1, slotOwners.length * 2);
+            int oldCapacity = proxies.length;
+            proxies = Arrays.copyOf(proxies, capacity);
+            Arrays.fill(proxies, oldCapacity, capacity, DynamicAabbTree.NULL_NODE);
+            slotOwners = Arrays.copyOf(slotOwners, capacity);
+            seenStamps = Arrays.copyOf(seenStamps, capacity);
+        }
+    }
+
+    private static int[] newProxies(int capacity) {
+        int[] proxies = new int[capacity];
+        Arrays.fill(proxies, DynamicAabbTree.NULL_NODE);
+        return proxies;
+    }
+}
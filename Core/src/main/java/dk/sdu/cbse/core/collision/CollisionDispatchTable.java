@@ -0,0 +1,180 @@
+package dk.sdu.cbse.core.collision;
+
+import dk.sdu.cbse.core.Entity;
+import dk.sdu.cbse.core.EntityTypes;
+import dk.sdu.cbse.core.collision.ICollisionService.CollisionHandler;
+
+/**
+ * Collision handlers indexed by the type IDs of both entities.
+ * <p>
+ * Handlers live in a dense square array with one row and one column per type ID,
+ * so looking up the handler for a pair needs no hashing or string comparison.
+ * Registration replaces the array and the masks together in one write, which keeps
+ * lookups lock-free and consistent while handlers are added or removed from another thread.
+ * <p>
+ * Every type is also a collision layer. The table keeps a mask per type with one bit for
+ * every type it has a handler with, so {@link #canCollide} is a single bit test. Masks are
+ * derived from the registered handlers and cover the first 64 type IDs; pairs involving
+ * later types fall back to the handler lookup.
+ */
+public class CollisionDispatchTable implements CollisionFilter {
+
+    // Every lookup reads this once, so it never sees masks of one table with the handlers of another
+    private volatile Table table = new Table(new CollisionHandler[0][0]);
+
+    /**
+     * Registers a handler for a pair of types in both directions.
+     * The reverse direction swaps the entities, so the handler always receives
+     * an entity of the first type as its first argument.
+     *
+     * @param type1 First entity type
+     * @param type2 Second entity type
+     * @param handler Handler for this collision type
+     */
+    public synchronized void put(String type1, String type2, CollisionHandler handler) {
+        int id1 = EntityTypes.idOf(type1);
+        int id2 = EntityTypes.idOf(type2);
+
+        CollisionHandler[][] handlers = copy(Math.max(table.handlers.length, EntityTypes.count()));
+        handlers[id1][id2] = handler;
+
+        // Only add the reverse mapping if types are different
+        if (id1 != id2) {
+            handlers[id2][id1] = (entity2, entity1) -> handler.handleCollision(entity1, entity2);
+        }
+        table = new Table(handlers);
+    }
+
+    /**
+     * Removes the handlers for a pair of types in both directions.
+     *
+     * @param type1 First entity type
+     * @param type2 Second entity type
+     */
+    public synchronized void remove(String type1, String type2) {
+        int id1 = EntityTypes.idOf(type1);
+        int id2 = EntityTypes.idOf(type2);
+        int size = table.handlers.length;
+        if (id1 >= size || id2 >= size) {
+            return;
+        }
+
+        CollisionHandler[][] handlers = copy(size);
+        handlers[id1][id2] = null;
+        handlers[id2][id1] = null;
+        table = new Table(handlers);
+    }
+
+    /**
+     * Gets the handler for a pair of type IDs.
+     *
+     * @param typeId1 Type ID of the first entity
+     * @param typeId2 Type ID of the second entity
+     * @return The handler, or null if none is registered
+     */
+    public CollisionHandler get(int typeId1, int typeId2) {
+        return table.get(typeId1, typeId2);
+    }
+
+    /**
+     * Checks whether a handler exists for a pair of type IDs.
+     *
+     * @param typeId1 Type ID of the first entity
+     * @param typeId2 Type ID of the second entity
+     * @return True if entities of these types have a handler
+     */
+    @Override
+    public boolean canCollide(int typeId1, int typeId2) {
+        Table current = table;
+        if (typeId1 < current.masks.length && typeId2 < Long.SIZE) {
+            return (current.masks[typeId1] & (1L << typeId2)) != 0;
+        }
+        return current.get(typeId1, typeId2) != null;
+    }
+
+    @Override
+    public boolean canCollideWithAny(int typeId) {
+        Table current = table;
+        if (typeId >= current.masks.length) {
+            return false;
+        }
+        if (current.masks[typeId] != 0) {
+            return true;
+        }
+
+        // Partners beyond the mask range are only found in the table
+        CollisionHandler[] row = current.handlers[typeId];
+        for (int column = Long.SIZE; column < row.length; column++) {
+            if (row[column] != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the collision mask of a type: one bit for every type ID below 64
+     * that has a handler with this type.
+     *
+     * @param typeId The type ID
+     * @return The mask, 0 if the type has no handlers
+     */
+    public long getMask(int typeId) {
+        long[] masks = table.masks;
+        return typeId < masks.length ? masks[typeId] : 0;
+    }
+
+    /**
+     * Gets the handler for the types of two entities.
+     *
+     * @param entity1 First entity
+     * @param entity2 Second entity
+     * @return The handler, or null if none is registered
+     */
+    public CollisionHandler get(Entity entity1, Entity entity2) {
+        return get(entity1.getTypeId(), entity2.getTypeId());
+    }
+
+    /**
+     * Copies the current handlers into a new array with the given number of types.
+     */
+    private CollisionHandler[][] copy(int size) {
+        CollisionHandler[][] current = table.handlers;
+        CollisionHandler[][] handlers = new CollisionHandler[size][size];
+        for (int row = 0; row < current.length; row++) {
+            System.arraycopy(current[row], 0, handlers[row], 0, current.length);
+        }
+        return handlers;
+    }
+
+    /**
+     * Handlers and the masks derived from them, never modified once published.
+     */
+    private static final class Table {
+
+        // handlers[typeId1][typeId2]
+        final CollisionHandler[][] handlers;
+
+        // masks[typeId] has bit n set if a handler exists for the type and type ID n
+        final long[] masks;
+
+        Table(CollisionHandler[][] handlers) {
+            this.handlers = handlers;
+            this.masks = new long[handlers.length];
+            for (int row = 0; row < handlers.length; row++) {
+                for (int column = 0; column < Math.min(handlers.length, Long.SIZE); column++) {
+                    if (handlers[row][column] != null) {
+                        masks[row] |= 1L << column;
+                    }
+                }
+            }
+        }
+
+        CollisionHandler get(int typeId1, int typeId2) {
+            if (typeId1 >= handlers.length || typeId2 >= handlers.length) {
+                return null;
+            }
+            return handlers[typeId1][typeId2];
+        }
+    }
+}
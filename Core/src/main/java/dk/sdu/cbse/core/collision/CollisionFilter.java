@@ -0,0 +1,35 @@
+package dk.sdu.cbse.core.collision;
+
+/**
+ * Decides from their type IDs alone whether two entities can collide at all.
+ * Broad phases consult the filter before any geometric test, so pairs that no
+ * handler cares about are dropped as early as possible.
+ */
+@FunctionalInterface
+public interface CollisionFilter {
+
+    /**
+     * Filter letting every pair through.
+     */
+    CollisionFilter ALL = (typeId1, typeId2) -> true;
+
+    /**
+     * Checks whether entities of two types can collide.
+     *
+     * @param typeId1 Type ID of the first entity
+     * @param typeId2 Type ID of the second entity
+     * @return True if the pair must be tested
+     */
+    boolean canCollide(int typeId1, int typeId2);
+
+    /**
+     * Checks whether entities of a type can collide with anything, letting broad phases
+     * skip them entirely. Must be true whenever {@link #canCollide} is true for the type.
+     *
+     * @param typeId The type ID
+     * @return True if some pair with this type may have to be tested
+     */
+    default boolean canCollideWithAny(int typeId) {
+        return true;
+    }
+}
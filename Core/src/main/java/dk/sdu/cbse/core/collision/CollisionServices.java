@@ -0,0 +1,70 @@
+package dk.sdu.cbse.core.collision;
+
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * Chooses the collision service among the registered providers.
+ * <p>
+ * The broad phase is picked with the {@value #BROADPHASE_PROPERTY} system property:
+ * {@code grid} (the default) selects {@link DefaultCollisionService}, {@code sap}
+ * selects {@link SweepAndPruneCollisionService} and {@code tree} selects
+ * {@link AabbTreeCollisionService}. Any other provider is only used when the
+ * selected one is not available.
+ */
+public final class CollisionServices {
+
+    public static final String BROADPHASE_PROPERTY = "collision.broadphase";
+    public static final String GRID = "grid";
+    public static final String SWEEP_AND_PRUNE = "sap";
+    public static final String AABB_TREE = "tree";
+
+    private static final Logger logger = Logger.getLogger(CollisionServices.class.getName());
+
+    private CollisionServices() {
+    }
+
+    /**
+     * Loads the collision service selected by the {@value #BROADPHASE_PROPERTY} property.
+     *
+     * @return A new instance of the selected service, or null if no provider is registered
+     */
+    public static ICollisionService load() {
+        return load(System.getProperty(BROADPHASE_PROPERTY, GRID));
+    }
+
+    /**
+     * Loads the collision service for a broad phase.
+     *
+     * @param broadphase {@value #GRID}, {@value #SWEEP_AND_PRUNE} or {@value #AABB_TREE}
+     * @return A new instance of the selected service, or null if no provider is registered
+     */
+    public static ICollisionService load(String broadphase) {
+        Class<?> wanted;
+        if (SWEEP_AND_PRUNE.equalsIgnoreCase(broadphase)) {
+            wanted = SweepAndPruneCollisionService.class;
+        } else if (AABB_TREE.equalsIgnoreCase(broadphase)) {
+            wanted = AabbTreeCollisionService.class;
+        } else {
+            if (!GRID.equalsIgnoreCase(broadphase)) {
+                logger.warning("Unknown collision broad phase '" + broadphase + "', using " + GRID);
+            }
+            wanted = DefaultCollisionService.class;
+        }
+
+        ServiceLoader.Provider<ICollisionService> fallback = null;
+        List<ServiceLoader.Provider<ICollisionService>> providers =
+                ServiceLoader.load(ICollisionService.class).stream().collect(Collectors.toList());
+        for (ServiceLoader.Provider<ICollisionService> provider : providers) {
+            if (provider.type() == wanted) {
+                return provider.get();
+            }
+            if (fallback == null) {
+                fallback = provider;
+            }
+        }
+        return fallback != null ? fallback.get() : null;
+    }
+}
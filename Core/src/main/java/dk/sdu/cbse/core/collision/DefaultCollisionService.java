@@ -1,12 +1,11 @@
 package dk.sdu.cbse.core.collision;
 
 import dk.sdu.cbse.core.Entity;
+import dk.sdu.cbse.core.EntityTypes;
 import dk.sdu.cbse.core.bullet.IBullet;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Default implementation of the collision service.
@@ -14,8 +13,11 @@ import java.util.Map;
  */
 public class DefaultCollisionService implements ICollisionService {
     
-    // Map of collision handlers for specific entity type pairs
-    private final Map<String, Map<String, CollisionHandler>> handlers = new HashMap<>();
+    // Collision handlers for specific entity type pairs, indexed by type ID
+    private final CollisionDispatchTable handlers = new CollisionDispatchTable();
+    
+    // Broad phase grid, rebuilt on every detection pass
+    private final SpatialHashGrid grid = new SpatialHashGrid();
     
     // Whether to automatically process collisions
     private boolean autoProcess = true;
@@ -143,32 +145,26 @@ public class DefaultCollisionService implements ICollisionService {
     public List<CollisionResult> detectCollisions(List<Entity> entities) {
         List<CollisionResult> results = new ArrayList<>();
         
-        // Check all entity pairs for collisions
-        for (int i = 0; i < entities.size(); i++) {
-            Entity entity1 = entities.get(i);
-            
-            if (!entity1.isActive()) continue;
-            
-            for (int j = i + 1; j < entities.size(); j++) {
-                Entity entity2 = entities.get(j);
-                
-                if (!entity2.isActive()) continue;
-                
-                // Check for collision between the two entities
-                if (checkCollision(entity1, entity2)) {
-                    // Process the collision if auto-processing is enabled
-                    if (autoProcess) {
-                        CollisionResult result = processCollision(entity1, entity2);
-                        if (result != null) {
-                            results.add(result);
-                        }
-                    } else {
-                        // Just add a result without processing
-                        results.add(new CollisionResult(entity1, entity2, false));
+        // Without processing every pair is reported, so only filter when handlers decide
+        CollisionFilter filter = autoProcess ? handlers : CollisionFilter.ALL;
+        
+        // Only check entity pairs that share or neighbour a grid cell
+        grid.build(entities);
+        grid.forEachCandidatePair(filter, (entity1, entity2) -> {
+            // Check for collision between the two entities
+            if (checkCollision(entity1, entity2)) {
+                // Process the collision if auto-processing is enabled
+                if (autoProcess) {
+                    CollisionResult result = processCollision(entity1, entity2);
+                    if (result != null) {
+                        results.add(result);
                     }
+                } else {
+                    // Just add a result without processing
+                    results.add(new CollisionResult(entity1, entity2, false));
                 }
             }
-        }
+        });
         
         return results;
     }
@@ -192,30 +188,14 @@ public class DefaultCollisionService implements ICollisionService {
     
     @Override
     public void addCollisionHandler(String type1, String type2, CollisionHandler handler) {
-        // Ensure the type maps exist
-        handlers.computeIfAbsent(type1, k -> new HashMap<>());
-        handlers.computeIfAbsent(type2, k -> new HashMap<>());
-        
         // Add handler in both directions for symmetric collision detection
-        handlers.get(type1).put(type2, handler);
-        
-        // Only add the reverse mapping if types are different
-        if (!type1.equals(type2)) {
-            handlers.get(type2).put(type1, (entity2, entity1) -> 
-                handler.handleCollision(entity1, entity2));
-        }
+        handlers.put(type1, type2, handler);
     }
     
     @Override
     public void removeCollisionHandler(String type1, String type2) {
         // Remove handlers in both directions
-        if (handlers.containsKey(type1)) {
-            handlers.get(type1).remove(type2);
-        }
-        
-        if (handlers.containsKey(type2)) {
-            handlers.get(type2).remove(type1);
-        }
+        handlers.remove(type1, type2);
     }
     
     @Override
@@ -223,21 +203,37 @@ public class DefaultCollisionService implements ICollisionService {
         this.autoProcess = autoProcess;
     }
     
+    /**
+     * Gets the filter letting through only pairs of entity types that have a handler.
+     * It follows the registered handlers, so it never needs to be refreshed.
+     * 
+     * @return The collision filter
+     */
+    public CollisionFilter getCollisionFilter() {
+        return handlers;
+    }
+    
+    /**
+     * Checks whether detected collisions are processed automatically.
+     * 
+     * @return True if collisions are processed, false if they are only detected
+     */
+    public boolean isAutoProcess() {
+        return autoProcess;
+    }
+    
     @Override
     public CollisionResult processCollision(Entity entity1, Entity entity2) {
-        String type1 = entity1.getType();
-        String type2 = entity2.getType();
+        int type1 = entity1.getTypeId();
+        int type2 = entity2.getTypeId();
         
         // If either entity has no type, we can't process
-        if (type1 == null || type2 == null) {
+        if (type1 == EntityTypes.NO_TYPE || type2 == EntityTypes.NO_TYPE) {
             return null;
         }
         
         // Find the appropriate handler
-        CollisionHandler handler = null;
-        if (handlers.containsKey(type1) && handlers.get(type1).containsKey(type2)) {
-            handler = handlers.get(type1).get(type2);
-        }
+        CollisionHandler handler = handlers.get(type1, type2);
         
         // Process the collision if a handler was found
         if (handler != null) {
@@ -0,0 +1,673 @@
+package dk.sdu.cbse.core.collision;
+
+import dk.sdu.cbse.core.Entity;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Dynamic bounding volume tree over entities, usable as a broad phase and for spatial queries.
+ * <p>
+ * Every entity is a leaf holding a fattened axis-aligned box: its bounding box grown by a
+ * margin on every side. While the entity stays inside that box, moving it does not touch
+ * the tree at all; only once it leaves the box is its leaf taken out and reinserted with a
+ * new fat box. Leaves are inserted next to the sibling that grows the tree's total box
+ * perimeter the least, and inner nodes are rebalanced with rotations on the way back up,
+ * so the tree stays shallow regardless of entity sizes. Unlike {@link SpatialHashGrid},
+ * nothing depends on a cell size, so small bullets and large bodies mix freely.
+ * <p>
+ * Leaves are identified by proxy IDs returned from {@link #insert}. Queries skip inactive
+ * entities. The tree is not thread-safe, and must not be modified from inside a query callback.
+ */
+public class DynamicAabbTree {
+
+    // Marks the absence of a node
+    public static final int NULL_NODE = -1;
+
+    // Room each leaf has to move before it must be reinserted
+    public static final float DEFAULT_MARGIN = 4.0f;
+
+    private final float margin;
+
+    // Node boxes
+    private float[] minX = new float[16];
+    private float[] minY = new float[16];
+    private float[] maxX = new float[16];
+    private float[] maxY = new float[16];
+
+    // Node links; for free nodes, parent links to the next free node
+    private int[] parent = new int[16];
+    private int[] child1 = new int[16];
+    private int[] child2 = new int[16];
+
+    // Height of the subtree, 0 for leaves and -1 for free nodes
+    private int[] height = new int[16];
+    private Entity[] entities = new Entity[16];
+
+    private int root = NULL_NODE;
+    private int freeList = NULL_NODE;
+    private int leafCount = 0;
+
+    // Reusable traversal stack
+    private int[] stack = new int[64];
+
+    /**
+     * Creates a tree with the default margin.
+     */
+    public DynamicAabbTree() {
+        this(DEFAULT_MARGIN);
+    }
+
+    /**
+     * Creates a tree.
+     *
+     * @param margin Distance by which leaf boxes are grown on every side
+     */
+    public DynamicAabbTree(float margin) {
+        if (margin < 0) {
+            throw new IllegalArgumentException("Margin must not be negative");
+        }
+        this.margin = margin;
+        linkFreeNodes(0);
+    }
+
+    /**
+     * Adds an entity to the tree.
+     *
+     * @param entity The entity to add
+     * @return The proxy ID of the entity's leaf
+     */
+    public int insert(Entity entity) {
+        int leaf = allocateNode();
+        entities[leaf] = entity;
+        fatten(leaf, entity);
+        insertLeaf(leaf);
+        leafCount++;
+        return leaf;
+    }
+
+    /**
+     * Removes an entity from the tree.
+     *
+     * @param proxy The proxy ID returned by {@link #insert}
+     */
+    public void remove(int proxy) {
+        checkProxy(proxy);
+        removeLeaf(proxy);
+        freeNode(proxy);
+        leafCount--;
+    }
+
+    /**
+     * Updates the leaf of an entity after it moved or changed size.
+     * The tree is only changed if the entity left its fat box.
+     *
+     * @param proxy The proxy ID returned by {@link #insert}
+     * @return True if the leaf had to be reinserted
+     */
+    public boolean update(int proxy) {
+        checkProxy(proxy);
+        Entity entity = entities[proxy];
+        float x = entity.getX();
+        float y = entity.getY();
+        float radius = entity.getRadius();
+        if (x - radius >= minX[proxy] && y - radius >= minY[proxy]
+                && x + radius <= maxX[proxy] && y + radius <= maxY[proxy]) {
+            return false;
+        }
+
+        removeLeaf(proxy);
+        fatten(proxy, entity);
+        insertLeaf(proxy);
+        return true;
+    }
+
+    /**
+     * Updates the leaves of all entities, reinserting those that left their fat box.
+     *
+     * @return The number of reinserted leaves
+     */
+    public int refit() {
+        int moved = 0;
+        for (int node = 0; node < height.length; node++) {
+            if (height[node] == 0 && update(node)) {
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Gets the entity of a leaf.
+     *
+     * @param proxy The proxy ID returned by {@link #insert}
+     * @return The entity
+     */
+    public Entity getEntity(int proxy) {
+        checkProxy(proxy);
+        return entities[proxy];
+    }
+
+    /**
+     * Visits every pair of active entities whose fat boxes overlap, once per pair.
+     * These are candidates for a narrow-phase test such as {@link ICollisionService#checkCollision}.
+     *
+     * @param visitor Callback receiving each candidate pair
+     */
+    public void forEachCandidatePair(SpatialHashGrid.PairVisitor visitor) {
+        forEachCandidatePair(CollisionFilter.ALL, visitor);
+    }
+
+    /**
+     * Visits every pair of active entities whose fat boxes overlap and whose types
+     * pass the filter, once per pair.
+     *
+     * @param filter Decides which pairs of types are visited at all
+     * @param visitor Callback receiving each candidate pair
+     */
+    public void forEachCandidatePair(CollisionFilter filter, SpatialHashGrid.PairVisitor visitor) {
+        for (int leaf = 0; leaf < height.length; leaf++) {
+            if (height[leaf] != 0 || !entities[leaf].isActive()) continue;
+            int type = entities[leaf].getTypeId();
+            if (!filter.canCollideWithAny(type)) continue;
+
+            // Only pair with leaves of a higher ID, so each pair is visited once
+            int top = push(0, root);
+            while (top > 0) {
+                int node = stack[--top];
+                if (!overlaps(node, minX[leaf], minY[leaf], maxX[leaf], maxY[leaf])) continue;
+
+                if (height[node] == 0) {
+                    if (node > leaf && entities[node].isActive()
+                            && filter.canCollide(type, entities[node].getTypeId())) {
+                        visitor.visit(entities[leaf], entities[node]);
+                    }
+                } else {
+                    top = push(top, child1[node]);
+                    top = push(top, child2[node]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds all active entities whose circle overlaps the given circle to the result list.
+     *
+     * @param x X coordinate of the circle centre
+     * @param y Y coordinate of the circle centre
+     * @param radius Radius of the circle
+     * @param exclude Entity never added to the result, may be null
+     * @param result List receiving the entities
+     */
+    public void query(float x, float y, float radius, Entity exclude, List<Entity> result) {
+        int top = push(0, root);
+        while (top > 0) {
+            int node = stack[--top];
+            if (!overlaps(node, x - radius, y - radius, x + radius, y + radius)) continue;
+
+            if (height[node] == 0) {
+                Entity entity = entities[node];
+                if (entity != exclude && entity.isActive()) {
+                    float dx = entity.getX() - x;
+                    float dy = entity.getY() - y;
+                    float radiiSum = entity.getRadius() + radius;
+                    if (dx * dx + dy * dy < radiiSum * radiiSum) {
+                        result.add(entity);
+                    }
+                }
+            } else {
+                top = push(top, child1[node]);
+                top = push(top, child2[node]);
+            }
+        }
+    }
+
+    /**
+     * Finds the first active entity hit by a ray.
+     *
+     * @param x X coordinate of the ray origin
+     * @param y Y coordinate of the ray origin
+     * @param directionX X component of the ray direction, need not be normalized
+     * @param directionY Y component of the ray direction, need not be normalized
+     * @param maxDistance Length of the ray
+     * @param exclude Entity the ray passes through, such as the one casting it, may be null
+     * @return The closest hit, or null if the ray hits nothing
+     */
+    public RayHit rayCast(float x, float y, float directionX, float directionY, float maxDistance, Entity exclude) {
+        float length = (float) Math.sqrt(directionX * directionX + directionY * directionY);
+        if (length == 0) {
+            return null;
+        }
+        float dirX = directionX / length;
+        float dirY = directionY / length;
+
+        Entity closest = null;
+        float closestDistance = maxDistance;
+
+        int top = push(0, root);
+        while (top > 0) {
+            int node = stack[--top];
+            if (!rayOverlaps(node, x, y, dirX, dirY, closestDistance)) continue;
+
+            if (height[node] == 0) {
+                Entity entity = entities[node];
+                if (entity == exclude || !entity.isActive()) continue;
+
+                float distance = rayCircle(x, y, dirX, dirY, entity);
+                if (distance <= closestDistance) {
+                    closest = entity;
+                    closestDistance = distance;
+                }
+            } else {
+                top = push(top, child1[node]);
+                top = push(top, child2[node]);
+            }
+        }
+
+        return closest != null ? new RayHit(closest, closestDistance) : null;
+    }
+
+    /**
+     * Gets the number of entities in the tree.
+     *
+     * @return Leaf count
+     */
+    public int size() {
+        return leafCount;
+    }
+
+    /**
+     * Gets the height of the tree.
+     *
+     * @return Height of the root, 0 for a single leaf and -1 for an empty tree
+     */
+    public int getHeight() {
+        return root == NULL_NODE ? -1 : height[root];
+    }
+
+    /**
+     * Gets the margin by which leaf boxes are grown.
+     *
+     * @return Margin in units
+     */
+    public float getMargin() {
+        return margin;
+    }
+
+    /**
+     * Sets the box of a leaf to the entity's bounding box plus the margin.
+     */
+    private void fatten(int leaf, Entity entity) {
+        float extent = entity.getRadius() + margin;
+        minX[leaf] = entity.getX() - extent;
+        minY[leaf] = entity.getY() - extent;
+        maxX[leaf] = entity.getX() + extent;
+        maxY[leaf] = entity.getY() + extent;
+    }
+
+    /**
+     * Inserts a leaf next to the sibling that grows the tree the least.
+     */
+    private void insertLeaf(int leaf) {
+        if (root == NULL_NODE) {
+            root = leaf;
+            parent[leaf] = NULL_NODE;
+            return;
+        }
+
+        // Descend while moving the leaf further down is cheaper than pairing it here
+        int index = root;
+        while (height[index] > 0) {
+            int first = child1[index];
+            int second = child2[index];
+
+            float area = perimeter(index);
+            float combinedArea = unionPerimeter(index, leaf);
+
+            // Cost of making a new parent for this node and the leaf
+            float cost = 2 * combinedArea;
+
+            // Minimum cost pushed down to the children by growing this node
+            float inheritanceCost = 2 * (combinedArea - area);
+
+            float cost1 = descendCost(first, leaf) + inheritanceCost;
+            float cost2 = descendCost(second, leaf) + inheritanceCost;
+
+            if (cost < cost1 && cost < cost2) {
+                break;
+            }
+            index = cost1 < cost2 ? first : second;
+        }
+
+        // Pair the leaf with the chosen sibling under a new parent
+        int sibling = index;
+        int oldParent = parent[sibling];
+        int newParent = allocateNode();
+        parent[newParent] = oldParent;
+        setUnion(newParent, sibling, leaf);
+        height[newParent] = height[sibling] + 1;
+
+        if (oldParent != NULL_NODE) {
+            replaceChild(oldParent, sibling, newParent);
+        } else {
+            root = newParent;
+        }
+        child1[newParent] = sibling;
+        child2[newParent] = leaf;
+        parent[sibling] = newParent;
+        parent[leaf] = newParent;
+
+        refitAncestors(parent[leaf]);
+    }
+
+    /**
+     * Gets the cost of descending into a child to insert a leaf below it.
+     */
+    private float descendCost(int child, int leaf) {
+        float combined = unionPerimeter(child, leaf);
+        return height[child] == 0 ? combined : combined - perimeter(child);
+    }
+
+    /**
+     * Takes a leaf out of the tree, replacing its parent with its sibling.
+     */
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NULL_NODE;
+            return;
+        }
+
+        int oldParent = parent[leaf];
+        int grandParent = parent[oldParent];
+        int sibling = child1[oldParent] == leaf ? child2[oldParent] : child1[oldParent];
+
+        if (grandParent != NULL_NODE) {
+            replaceChild(grandParent, oldParent, sibling);
+            parent[sibling] = grandParent;
+            freeNode(oldParent);
+            refitAncestors(grandParent);
+        } else {
+            root = sibling;
+            parent[sibling] = NULL_NODE;
+            freeNode(oldParent);
+        }
+    }
+
+    /**
+     * Rebalances and recomputes boxes and heights from a node up to the root.
+     */
+    private void refitAncestors(int index) {
+        while (index != NULL_NODE) {
+            index = balance(index);
+
+            int first = child1[index];
+            int second = child2[index];
+            height[index] = 1 + Math.max(height[first], height[second]);
+            setUnion(index, first, second);
+
+            index = parent[index];
+        }
+    }
+
+    /**
+     * Rotates the taller grandchild up if the subtrees of a node differ in height by more than one.
+     *
+     * @return The node now at the position of the given node
+     */
+    private int balance(int a) {
+        if (height[a] < 2) {
+            return a;
+        }
+
+        int b = child1[a];
+        int c = child2[a];
+        int difference = height[c] - height[b];
+
+        if (difference > 1) {
+            // Rotate C up
+            int f = child1[c];
+            int g = child2[c];
+            liftOver(c, a);
+            child1[c] = a;
+
+            if (height[f] > height[g]) {
+                child2[c] = f;
+                child2[a] = g;
+                parent[g] = a;
+                setUnion(a, b, g);
+                setUnion(c, a, f);
+                height[a] = 1 + Math.max(height[b], height[g]);
+                height[c] = 1 + Math.max(height[a], height[f]);
+            } else {
+                child2[c] = g;
+                child2[a] = f;
+                parent[f] = a;
+                setUnion(a, b, f);
+                setUnion(c, a, g);
+                height[a] = 1 + Math.max(height[b], height[f]);
+                height[c] = 1 + Math.max(height[a], height[g]);
+            }
+            return c;
+        }
+
+        if (difference < -1) {
+            // Rotate B up
+            int d = child1[b];
+            int e = child2[b];
+            liftOver(b, a);
+            child1[b] = a;
+
+            if (height[d] > height[e]) {
+                child2[b] = d;
+                child1[a] = e;
+                parent[e] = a;
+                setUnion(a, c, e);
+                setUnion(b, a, d);
+                height[a] = 1 + Math.max(height[c], height[e]);
+                height[b] = 1 + Math.max(height[a], height[d]);
+            } else {
+                child2[b] = e;
+                child1[a] = d;
+                parent[d] = a;
+                setUnion(a, c, d);
+                setUnion(b, a, e);
+                height[a] = 1 + Math.max(height[c], height[d]);
+                height[b] = 1 + Math.max(height[a], height[e]);
+            }
+            return b;
+        }
+
+        return a;
+    }
+
+    /**
+     * Puts a child in the place of its parent, making the parent its child.
+     */
+    private void liftOver(int child, int oldParent) {
+        int grandParent = parent[oldParent];
+        parent[child] = grandParent;
+        parent[oldParent] = child;
+
+        if (grandParent != NULL_NODE) {
+            replaceChild(grandParent, oldParent, child);
+        } else {
+            root = child;
+        }
+    }
+
+    private void replaceChild(int node, int oldChild, int newChild) {
+        if (child1[node] == oldChild) {
+            child1[node] = newChild;
+        } else {
+            child2[node] = newChild;
+        }
+    }
+
+    private void setUnion(int target, int first, int second) {
+        minX[target] = Math.min(minX[first], minX[second]);
+        minY[target] = Math.min(minY[first], minY[second]);
+        maxX[target] = Math.max(maxX[first], maxX[second]);
+        maxY[target] = Math.max(maxY[first], maxY[second]);
+    }
+
+    private float perimeter(int node) {
+        return 2 * (maxX[node] - minX[node] + maxY[node] - minY[node]);
+    }
+
+    private float unionPerimeter(int first, int second) {
+        float width = Math.max(maxX[first], maxX[second]) - Math.min(minX[first], minX[second]);
+        float depth = Math.max(maxY[first], maxY[second]) - Math.min(minY[first], minY[second]);
+        return 2 * (width + depth);
+    }
+
+    private boolean overlaps(int node, float left, float top, float right, float bottom) {
+        return minX[node] <= right && maxX[node] >= left && minY[node] <= bottom && maxY[node] >= top;
+    }
+
+    /**
+     * Checks whether a ray enters a node's box within the given distance, using the slab test.
+     */
+    private boolean rayOverlaps(int node, float x, float y, float dirX, float dirY, float maxDistance) {
+        float near = 0;
+        float far = maxDistance;
+
+        if (dirX == 0) {
+            if (x < minX[node] || x > maxX[node]) return false;
+        } else {
+            float t1 = (minX[node] - x) / dirX;
+            float t2 = (maxX[node] - x) / dirX;
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+        }
+
+        if (dirY == 0) {
+            if (y < minY[node] || y > maxY[node]) return false;
+        } else {
+            float t1 = (minY[node] - y) / dirY;
+            float t2 = (maxY[node] - y) / dirY;
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+        }
+
+        return near <= far;
+    }
+
+    /**
+     * Gets the distance along a normalized ray to the edge of an entity's circle.
+     *
+     * @return The distance, 0 if the origin is inside the circle, or infinity on a miss
+     */
+    private static float rayCircle(float x, float y, float dirX, float dirY, Entity entity) {
+        float offsetX = x - entity.getX();
+        float offsetY = y - entity.getY();
+        float radius = entity.getRadius();
+
+        float c = offsetX * offsetX + offsetY * offsetY - radius * radius;
+        if (c <= 0) {
+            return 0;
+        }
+
+        float b = offsetX * dirX + offsetY * dirY;
+        float discriminant = b * b - c;
+        if (b >= 0 || discriminant < 0) {
+            return Float.POSITIVE_INFINITY;
+        }
+        return -b - (float) Math.sqrt(discriminant);
+    }
+
+    /**
+     * Pushes a node onto the traversal stack unless it is null.
+     *
+     * @return The new stack size
+     */
+    private int push(int top, int node) {
+        if (node == NULL_NODE) {
+            return top;
+        }
+        if (top == stack.length) {
+            stack = Arrays.copyOf(stack, top * 2);
+        }
+        stack[top] = node;
+        return top + 1;
+    }
+
+    private int allocateNode() {
+        if (freeList == NULL_NODE) {
+            int capacity = height.length;
+            int newCapacity = capacity * 2;
+            minX = Arrays.copyOf(minX, newCapacity);
+            minY = Arrays.copyOf(minY, newCapacity);
+            maxX = Arrays.copyOf(maxX, newCapacity);
+            maxY = Arrays.copyOf(maxY, newCapacity);
+            parent = Arrays.copyOf(parent, newCapacity);
+            child1 = Arrays.copyOf(child1, newCapacity);
+            child2 = Arrays.copyOf(child2, newCapacity);
+            height = Arrays.copyOf(height, newCapacity);
+            entities = Arrays.copyOf(entities, newCapacity);
+            linkFreeNodes(capacity);
+        }
+
+        int node = freeList;
+        freeList = parent[node];
+        parent[node] = NULL_NODE;
+        child1[node] = NULL_NODE;
+        child2[node] = NULL_NODE;
+        height[node] = 0;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        parent[node] = freeList;
+        height[node] = -1;
+        entities[node] = null;
+        freeList = node;
+    }
+
+    /**
+     * Chains the nodes from the given index to the end of the arrays into the free list.
+     */
+    private void linkFreeNodes(int from) {
+        for (int node = from; node < height.length; node++) {
+            parent[node] = node + 1 < height.length ? node + 1 : NULL_NODE;
+            height[node] = -1;
+        }
+        freeList = from;
+    }
+
+    private void checkProxy(int proxy) {
+        if (proxy < 0 || proxy >= height.length || height[proxy] != 0 || entities[proxy] == null) {
+            throw new IllegalArgumentException("Not a proxy ID: " + proxy);
+        }
+    }
+
+    /**
+     * Closest entity hit by a ray.
+     */
+    public static final class RayHit {
+        private final Entity entity;
+        private final float distance;
+
+        RayHit(Entity entity, float distance) {
+            this.entity = entity;
+            this.distance = distance;
+        }
+
+        /**
+         * Gets the entity that was hit.
+         *
+         * @return The entity
+         */
+        public Entity getEntity() {
+            return entity;
+        }
+
+        /**
+         * Gets the distance from the ray origin to the edge of the entity.
+         *
+         * @return Distance in units, 0 if the origin is inside the entity
+         */
+        public float getDistance() {
+            return distance;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package dk.sdu.cbse.core.collision;
+
+import dk.sdu.cbse.core.Entity;
+import dk.sdu.cbse.core.EntityTypes;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Uniform-grid spatial hash used as a broad phase for collision detection.
+ * Entities are binned by their centre into fixed-size cells that wrap around
+ * the edges of the game world, so only entities in neighbouring cells are
+ * handed to the narrow-phase circle test.
+ */
+public class SpatialHashGrid {
+
+    // Game window dimensions - these should match the Core module
+    public static final int WORLD_WIDTH = 800;
+    public static final int WORLD_HEIGHT = 600;
+
+    // Twice the radius of the largest asteroid (Asteroid.Size.LARGE), so two
+    // colliding bodies of any size are never more than one cell apart
+    public static final float DEFAULT_CELL_SIZE = 64.0f;
+
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+
+    // Start offset of each cell in sortedSlots, plus a trailing end marker
+    private final int[] cellStart;
+
+    // Per-slot data, slots are assigned in insertion order
+    private Entity[] entities = new Entity[64];
+    private int[] slotCells = new int[64];
+    private int[] slotTypes = new int[64];
+    private int[] sortedSlots = new int[64];
+    private int size = 0;
+    private float maxRadius = 0;
+
+    // Reusable buffer for query results
+    private int[] candidates = new int[64];
+
+    /**
+     * Creates a grid covering the default 800x600 game world.
+     */
+    public SpatialHashGrid() {
+        this(WORLD_WIDTH, WORLD_HEIGHT, DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * Creates a grid covering a world of the given size.
+     *
+     * @param worldWidth Width of the world in units
+     * @param worldHeight Height of the world in units
+     * @param cellSize Width and height of a single cell
+     */
+    public SpatialHashGrid(float worldWidth, float worldHeight, float cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(worldWidth / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(worldHeight / cellSize));
+        this.cellStart = new int[columns * rows + 1];
+    }
+
+    /**
+     * Rebuilds the grid from the active entities in the given list.
+     * Entities keep their relative list order within every cell.
+     *
+     * @param source The entities to insert
+     */
+    public void build(List<Entity> source) {
+        clear();
+
+        for (int i = 0; i < source.size(); i++) {
+            Entity entity = source.get(i);
+            if (entity.isActive()) {
+                insert(entity);
+            }
+        }
+
+        // Counting sort of slots by cell
+        Arrays.fill(cellStart, 0);
+        for (int slot = 0; slot < size; slot++) {
+            cellStart[slotCells[slot] + 1]++;
+        }
+        for (int cell = 0; cell < columns * rows; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+        }
+
+        int[] next = Arrays.copyOf(cellStart, cellStart.length - 1);
+        for (int slot = 0; slot < size; slot++) {
+            sortedSlots[next[slotCells[slot]]++] = slot;
+        }
+    }
+
+    /**
+     * Removes all entities from the grid.
+     */
+    public void clear() {
+        Arrays.fill(entities, 0, size, null);
+        size = 0;
+        maxRadius = 0;
+    }
+
+    /**
+     * Adds all entities that may overlap the given entity to the result list,
+     * in insertion order. The entity itself is never added.
+     *
+     * @param entity The entity to query around
+     * @param result List receiving the candidates
+     */
+    public void query(Entity entity, List<Entity> result) {
+        query(entity.getX(), entity.getY(), entity.getRadius(), entity, result);
+    }
+
+    /**
+     * Adds all entities that may overlap the given circle to the result list,
+     * in insertion order.
+     *
+     * @param x X coordinate of the circle centre
+     * @param y Y coordinate of the circle centre
+     * @param radius Radius of the circle
+     * @param exclude Entity never added to the result, may be null
+     * @param result List receiving the candidates
+     */
+    public void query(float x, float y, float radius, Entity exclude, List<Entity> result) {
+        int count = collect(x, y, radius, -1, EntityTypes.NO_TYPE, CollisionFilter.ALL);
+        for (int i = 0; i < count; i++) {
+            Entity candidate = entities[candidates[i]];
+            if (candidate != exclude) {
+                result.add(candidate);
+            }
+        }
+    }
+
+    /**
+     * Visits every pair of entities whose cells are close enough for them to
+     * overlap. Each pair is visited once, ordered the same way as a nested
+     * loop over the source list would order them.
+     *
+     * @param visitor Callback receiving each candidate pair
+     */
+    public void forEachCandidatePair(PairVisitor visitor) {
+        forEachCandidatePair(CollisionFilter.ALL, visitor);
+    }
+
+    /**
+     * Visits every pair of entities whose cells are close enough for them to
+     * overlap and whose types pass the filter. The filter only sees the type IDs
+     * the entities had when the grid was built.
+     *
+     * @param filter Decides which pairs of types are visited at all
+     * @param visitor Callback receiving each candidate pair
+     */
+    public void forEachCandidatePair(CollisionFilter filter, PairVisitor visitor) {
+        for (int slot = 0; slot < size; slot++) {
+            int type = slotTypes[slot];
+            if (!filter.canCollideWithAny(type)) continue;
+
+            Entity entity = entities[slot];
+            int count = collect(entity.getX(), entity.getY(), entity.getRadius(), slot, type, filter);
+            for (int i = 0; i < count; i++) {
+                visitor.visit(entity, entities[candidates[i]]);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of entities currently in the grid.
+     *
+     * @return Entity count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the cell size of this grid.
+     *
+     * @return Cell width and height in units
+     */
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * Adds an entity to the next free slot.
+     */
+    private void insert(Entity entity) {
+        if (size == entities.length) {
+            int capacity = size * 2;
+            entities = Arrays.copyOf(entities, capacity);
+            slotCells = Arrays.copyOf(slotCells, capacity);
+            slotTypes = Arrays.copyOf(slotTypes, capacity);
+            sortedSlots = Arrays.copyOf(sortedSlots, capacity);
+        }
+
+        entities[size] = entity;
+        slotCells[size] = cellIndex(cellCoordinate(entity.getX()), cellCoordinate(entity.getY()));
+        slotTypes[size] = entity.getTypeId();
+        maxRadius = Math.max(maxRadius, entity.getRadius());
+        size++;
+    }
+
+    /**
+     * Collects slots in the cells around a circle into the candidate buffer,
+     * sorted ascending. Only slots greater than minSlot whose type the filter
+     * pairs with the given type are collected.
+     *
+     * @return Number of collected candidates
+     */
+    private int collect(float x, float y, float radius, int minSlot, int type, CollisionFilter filter) {
+        // Two circles can only touch if their centres are within both radii
+        int span = (int) Math.ceil((radius + maxRadius) / cellSize);
+        int column = cellCoordinate(x);
+        int row = cellCoordinate(y);
+
+        int columnFrom = column - span;
+        int columnTo = column + span;
+        if (columnTo - columnFrom + 1 >= columns) {
+            columnFrom = 0;
+            columnTo = columns - 1;
+        }
+
+        int rowFrom = row - span;
+        int rowTo = row + span;
+        if (rowTo - rowFrom + 1 >= rows) {
+            rowFrom = 0;
+            rowTo = rows - 1;
+        }
+
+        int count = 0;
+        for (int r = rowFrom; r <= rowTo; r++) {
+            for (int c = columnFrom; c <= columnTo; c++) {
+                int cell = cellIndex(c, r);
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    int slot = sortedSlots[i];
+                    if (slot > minSlot && filter.canCollide(type, slotTypes[slot])) {
+                        if (count == candidates.length) {
+                            candidates = Arrays.copyOf(candidates, count * 2);
+                        }
+                        candidates[count++] = slot;
+                    }
+                }
+            }
+        }
+
+        Arrays.sort(candidates, 0, count);
+        return count;
+    }
+
+    /**
+     * Converts a world coordinate to an unwrapped cell coordinate.
+     */
+    private int cellCoordinate(float value) {
+        return (int) Math.floor(value / cellSize);
+    }
+
+    /**
+     * Converts unwrapped cell coordinates to a cell index, wrapping around the
+     * world edges so entities slightly outside the screen still land in a cell.
+     */
+    private int cellIndex(int column, int row) {
+        return Math.floorMod(row, rows) * columns + Math.floorMod(column, columns);
+    }
+
+    /**
+     * Callback for candidate pair enumeration.
+     */
+    public interface PairVisitor {
+        /**
+         * Visits a pair of entities that may be colliding.
+         *
+         * @param entity1 First entity, earlier in insertion order
+         * @param entity2 Second entity, later in insertion order
+         */
+        void visit(Entity entity1, Entity entity2);
+    }
+}
@@ -0,0 +1,276 @@
+package dk.sdu.cbse.core.collision;
+
+import dk.sdu.cbse.core.Entity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Collision service using a sweep-and-prune broad phase.
+ * <p>
+ * Entities are kept sorted by the left edge of their bounding box along the X axis.
+ * Each entity only has to be tested against the entities after it whose left edge lies
+ * before its right edge. The sorted order is kept between detection passes and repaired
+ * with an insertion sort, which costs close to linear time when entities move little
+ * between frames, as asteroids do. Entities that appear for the first time are sorted
+ * separately and merged in.
+ * <p>
+ * Handlers, score and lives work exactly like in {@link DefaultCollisionService}; only the
+ * way candidate pairs are found differs.
+ */
+public class SweepAndPruneCollisionService extends DefaultCollisionService {
+
+    private static final Comparator<Entity> BY_MIN_X =
+            Comparator.comparingDouble(entity -> entity.getX() - entity.getRadius());
+
+    // Tracked entities sorted by minX, with the interval and type ID of each
+    private Entity[] order = new Entity[64];
+    private float[] minX = new float[64];
+    private float[] maxX = new float[64];
+    private int[] types = new int[64];
+    private int size = 0;
+
+    // Membership of the current pass, indexed by entity store slot
+    private Entity[] slotOwners = new Entity[64];
+    private int[] seenStamps = new int[64];
+    private int[] trackedStamps = new int[64];
+    private int stamp = 0;
+
+    // Entities seen for the first time in the current pass
+    private Entity[] added = new Entity[16];
+    private int addedCount = 0;
+
+    // Scratch arrays for merging added entities into the sorted order
+    private Entity[] mergeOrder = new Entity[0];
+    private float[] mergeMin = new float[0];
+    private float[] mergeMax = new float[0];
+    private int[] mergeTypes = new int[0];
+
+    // Number of moves the insertion sort needed in the last pass
+    private long lastSortMoves = 0;
+
+    @Override
+    public List<CollisionResult> detectCollisions(List<Entity> entities) {
+        List<CollisionResult> results = new ArrayList<>();
+
+        synchronize(entities);
+        sortTracked();
+        mergeAdded();
+
+        // Without processing every pair is reported, so only filter when handlers decide
+        CollisionFilter filter = isAutoProcess() ? getCollisionFilter() : CollisionFilter.ALL;
+
+        // Sweep along X, only entities whose intervals overlap become candidates
+        for (int i = 0; i < size; i++) {
+            int type = types[i];
+            if (!filter.canCollideWithAny(type)) continue;
+
+            Entity entity1 = order[i];
+            float right = maxX[i];
+            for (int j = i + 1; j < size && minX[j] <= right; j++) {
+                if (!filter.canCollide(type, types[j])) continue;
+                Entity entity2 = order[j];
+
+                // Check for collision between the two entities
+                if (checkCollision(entity1, entity2)) {
+                    report(entity1, entity2, results);
+                }
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Gets the number of tracked entities, which is the number of active entities
+     * passed to the last detection pass.
+     *
+     * @return Tracked entity count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of element moves the insertion sort needed in the last pass.
+     * Close to zero when the order along the X axis barely changed.
+     *
+     * @return Move count
+     */
+    public long getLastSortMoves() {
+        return lastSortMoves;
+    }
+
+    /**
+     * Processes or records a detected collision.
+     */
+    private void report(Entity entity1, Entity entity2, List<CollisionResult> results) {
+        // Process the collision if auto-processing is enabled
+        if (isAutoProcess()) {
+            CollisionResult result = processCollision(entity1, entity2);
+            if (result != null) {
+                results.add(result);
+            }
+        } else {
+            // Just add a result without processing
+            results.add(new CollisionResult(entity1, entity2, false));
+        }
+    }
+
+    /**
+     * Brings the tracked entities in line with the active entities of the list.
+     * Entities that left the list or became inactive are dropped, keeping the order
+     * of the others; new entities are collected for merging.
+     */
+    private void synchronize(List<Entity> entities) {
+        stamp++;
+        addedCount = 0;
+
+        // Mark the slots of all active entities in the list
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            if (!entity.isActive()) continue;
+
+            int slot = entity.getSlot();
+            ensureSlotCapacity(slot);
+            slotOwners[slot] = entity;
+            seenStamps[slot] = stamp;
+        }
+
+        // Compact the sorted order, dropping entities that were not marked
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            Entity entity = order[i];
+            int slot = entity.getSlot();
+            if (entity.isActive() && slot < slotOwners.length
+                    && seenStamps[slot] == stamp && slotOwners[slot] == entity) {
+                trackedStamps[slot] = stamp;
+                order[kept++] = entity;
+            }
+        }
+        Arrays.fill(order, kept, size, null);
+        size = kept;
+
+        // Whatever was marked but is not tracked yet is new
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            if (!entity.isActive()) continue;
+
+            int slot = entity.getSlot();
+            if (trackedStamps[slot] != stamp) {
+                trackedStamps[slot] = stamp;
+                if (addedCount == added.length) {
+                    added = Arrays.copyOf(added, addedCount * 2);
+                }
+                added[addedCount++] = entity;
+            }
+        }
+    }
+
+    /**
+     * Refreshes the intervals of the tracked entities and restores their order
+     * with an insertion sort.
+     */
+    private void sortTracked() {
+        for (int i = 0; i < size; i++) {
+            Entity entity = order[i];
+            float x = entity.getX();
+            float radius = entity.getRadius();
+            minX[i] = x - radius;
+            maxX[i] = x + radius;
+            types[i] = entity.getTypeId();
+        }
+
+        long moves = 0;
+        for (int i = 1; i < size; i++) {
+            float min = minX[i];
+            if (minX[i - 1] <= min) continue;
+
+            Entity entity = order[i];
+            float max = maxX[i];
+            int type = types[i];
+            int j = i - 1;
+            while (j >= 0 && minX[j] > min) {
+                order[j + 1] = order[j];
+                minX[j + 1] = minX[j];
+                maxX[j + 1] = maxX[j];
+                types[j + 1] = types[j];
+                j--;
+                moves++;
+            }
+            order[j + 1] = entity;
+            minX[j + 1] = min;
+            maxX[j + 1] = max;
+            types[j + 1] = type;
+        }
+        lastSortMoves = moves;
+    }
+
+    /**
+     * Sorts the entities that are new in this pass and merges them into the tracked order.
+     */
+    private void mergeAdded() {
+        if (addedCount == 0) {
+            return;
+        }
+
+        Arrays.sort(added, 0, addedCount, BY_MIN_X);
+
+        int trackedCount = size;
+        int total = size + addedCount;
+        if (mergeOrder.length < total) {
+            int capacity = Math.max(total, mergeOrder.length * 2);
+            mergeOrder = new Entity[capacity];
+            mergeMin = new float[capacity];
+            mergeMax = new float[capacity];
+            mergeTypes = new int[capacity];
+        }
+
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < total; k++) {
+            float addedMin = j < addedCount ? added[j].getX() - added[j].getRadius() : Float.POSITIVE_INFINITY;
+            if (i < size && minX[i] <= addedMin) {
+                mergeOrder[k] = order[i];
+                mergeMin[k] = minX[i];
+                mergeMax[k] = maxX[i];
+                mergeTypes[k] = types[i];
+                i++;
+            } else {
+                Entity entity = added[j++];
+                mergeOrder[k] = entity;
+                mergeMin[k] = addedMin;
+                mergeMax[k] = entity.getX() + entity.getRadius();
+                mergeTypes[k] = entity.getTypeId();
+            }
+        }
+
+        // Swap the merged arrays in, keeping the old ones as scratch space
+        Entity[] swapOrder = order;
+        float[] swapMin = minX;
+        float[] swapMax = maxX;
+        int[] swapTypes = types;
+        order = mergeOrder;
+        minX = mergeMin;
+        maxX = mergeMax;
+        types = mergeTypes;
+        mergeOrder = swapOrder;
+        mergeMin = swapMin;
+        mergeMax = swapMax;
+        mergeTypes = swapTypes;
+        Arrays.fill(mergeOrder, 0, trackedCount, null);
+        Arrays.fill(added, 0, addedCount, null);
+        size = total;
+    }
+
+    private void ensureSlotCapacity(int slot) {
+        if (slot >= slotOwners.length) {
+            int capacity = Math.max(slot + 1, slotOwners.length * 2);
+            slotOwners = Arrays.copyOf(slotOwners, capacity);
+            seenStamps = Arrays.copyOf(seenStamps, capacity);
+            trackedStamps = Arrays.copyOf(trackedStamps, capacity);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package dk.sdu.cbse.core.collision;
+
+import dk.sdu.cbse.core.Entity;
+
+import java.util.List;
+
+/**
+ * Continuous collision tests for circles that moved during the last frame.
+ * <p>
+ * Entity positions are integrated before collisions are checked, so a small, fast entity
+ * can end a frame on the far side of a target it passed straight through. These tests
+ * reconstruct where both entities were at the start of the frame from their velocities
+ * and find the first moment within the frame at which the two circles touched.
+ */
+public final class SweptCollision {
+
+    // Returned by timeOfImpact when the circles never touch during the frame
+    public static final float NO_IMPACT = Float.POSITIVE_INFINITY;
+
+    private SweptCollision() {
+    }
+
+    /**
+     * Gets the time of first contact between two circles moving linearly over the last frame.
+     *
+     * @param entity1 First entity, at its end-of-frame position
+     * @param entity2 Second entity, at its end-of-frame position
+     * @param deltaTime Length of the frame in seconds
+     * @return Fraction of the frame between 0 and 1 at which the circles first touched,
+     *         0 if they already overlapped at its start, or {@link #NO_IMPACT}
+     */
+    public static float timeOfImpact(Entity entity1, Entity entity2, float deltaTime) {
+        // Work in the frame of entity2, so only entity1 moves
+        float moveX = (entity1.getDx() - entity2.getDx()) * deltaTime;
+        float moveY = (entity1.getDy() - entity2.getDy()) * deltaTime;
+        float startX = entity1.getX() - entity2.getX() - moveX;
+        float startY = entity1.getY() - entity2.getY() - moveY;
+        float radiiSum = entity1.getRadius() + entity2.getRadius();
+
+        // Solve |start + move * t| = radiiSum for the smallest t
+        float c = startX * startX + startY * startY - radiiSum * radiiSum;
+        if (c < 0) {
+            return 0;
+        }
+
+        float a = moveX * moveX + moveY * moveY;
+        float b = startX * moveX + startY * moveY;
+        if (a == 0 || b >= 0) {
+            // Not moving relative to each other, or moving apart
+            return NO_IMPACT;
+        }
+
+        float discriminant = b * b - a * c;
+        if (discriminant < 0) {
+            return NO_IMPACT;
+        }
+
+        float time = (-b - (float) Math.sqrt(discriminant)) / a;
+        return time <= 1 ? time : NO_IMPACT;
+    }
+
+    /**
+     * Checks whether an entity moves fast enough to need a swept test.
+     *
+     * @param entity The entity to check
+     * @param speedThreshold Speed in units per second above which the entity is swept
+     * @return True if the entity is faster than the threshold
+     */
+    public static boolean isFast(Entity entity, float speedThreshold) {
+        float dx = entity.getDx();
+        float dy = entity.getDy();
+        return dx * dx + dy * dy > speedThreshold * speedThreshold;
+    }
+
+    /**
+     * Queries a grid for the entities the given entity may have touched during the last frame.
+     * The query circle encloses the whole path of the entity, so candidates are only found
+     * reliably for targets that moved much less than a grid cell themselves.
+     *
+     * @param grid The grid holding the potential targets
+     * @param entity The moving entity, at its end-of-frame position
+     * @param deltaTime Length of the frame in seconds
+     * @param result List receiving the candidates
+     */
+    public static void querySwept(SpatialHashGrid grid, Entity entity, float deltaTime, List<Entity> result) {
+        float halfMoveX = entity.getDx() * deltaTime * 0.5f;
+        float halfMoveY = entity.getDy() * deltaTime * 0.5f;
+        float halfLength = (float) Math.sqrt(halfMoveX * halfMoveX + halfMoveY * halfMoveY);
+
+        grid.query(entity.getX() - halfMoveX, entity.getY() - halfMoveY,
+                entity.getRadius() + halfLength, entity, result);
+    }
+}
@@ -0,0 +1,352 @@
+package dk.sdu.cbse.core.score;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Implementation of the IAsyncScoreService interface that communicates with
+ * the Scoring microservice using Java's HttpClient.
+ * <p>
+ * Requests are sent asynchronously and handled on a small, bounded pool of daemon
+ * threads. The number of requests in flight is capped as well: once the cap is reached,
+ * new calls fail right away instead of queueing up behind a slow service.
+ */
+public class AsyncRestScoreService implements IAsyncScoreService {
+
+    private static final Logger logger = Logger.getLogger(AsyncRestScoreService.class.getName());
+    
+    private static final String DEFAULT_SERVICE_URL = "http://localhost:8080/api/scores";
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+    private static final int DEFAULT_THREADS = 2;
+    private static final int DEFAULT_MAX_IN_FLIGHT = 32;
+    
+    private final String serviceUrl;
+    private final Duration timeout;
+    private final ThreadPoolExecutor executor;
+    private final HttpClient httpClient;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private volatile boolean serviceAvailable;
+    
+    /**
+     * Default constructor.
+     */
+    public AsyncRestScoreService() {
+        this(DEFAULT_SERVICE_URL);
+    }
+    
+    /**
+     * Constructor with configurable service URL.
+     *
+     * @param serviceUrl The URL of the scoring service
+     */
+    public AsyncRestScoreService(String serviceUrl) {
+        this(serviceUrl, DEFAULT_TIMEOUT, DEFAULT_THREADS, DEFAULT_MAX_IN_FLIGHT);
+    }
+    
+    /**
+     * Constructor with configurable limits.
+     *
+     * @param serviceUrl The URL of the scoring service
+     * @param timeout Connect and request timeout
+     * @param threads Number of threads handling responses
+     * @param maxInFlight Maximum number of requests waiting for a response
+     */
+    public AsyncRestScoreService(String serviceUrl, Duration timeout, int threads, int maxInFlight) {
+        this.serviceUrl = serviceUrl;
+        this.timeout = timeout;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        
+        // Bounded pool; work that does not fit is rejected rather than run on the calling
+        // thread, which may be the render or simulation thread
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxInFlight * 2),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "score-client-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        
+        this.httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(timeout)
+                .build();
+        this.serviceAvailable = false;
+    }
+    
+    @Override
+    public CompletableFuture<Boolean> initializeAsync() {
+        logger.info("Initializing AsyncRestScoreService with service URL: " + serviceUrl);
+        
+        return send(request(serviceUrl).GET().build(), response -> true, false)
+                .thenApply(available -> {
+                    serviceAvailable = available;
+                    logger.info("Score service is " + (available ? "available" : "unavailable"));
+                    return available;
+                });
+    }
+    
+    @Override
+    public CompletableFuture<Boolean> checkAvailabilityAsync() {
+        return send(request(serviceUrl + "?limit=1").GET().build(), response -> true, false)
+                .thenApply(available -> {
+                    if (available && !serviceAvailable) {
+                        logger.info("Score service is available again");
+                    }
+                    serviceAvailable = available;
+                    return available;
+                });
+    }
+    
+    @Override
+    public boolean isServiceAvailable() {
+        return serviceAvailable;
+    }
+    
+    @Override
+    public CompletableFuture<Boolean> submitScoreAsync(String playerName, int scoreValue) {
+        if (!serviceAvailable) {
+            logger.warning("Cannot submit score: service is unavailable");
+            return CompletableFuture.completedFuture(false);
+        }
+        
+        // Create JSON payload
+        String jsonPayload = "{\"playerName\":\"" + escape(playerName) + "\",\"scoreValue\":" + scoreValue + "}";
+        HttpRequest request = request(serviceUrl)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(jsonPayload))
+                .build();
+        
+        return send(request, response -> {
+            logger.info("Score submitted successfully: " + playerName + " - " + scoreValue);
+            return true;
+        }, false);
+    }
+    
+    @Override
+    public CompletableFuture<Boolean> submitScoresAsync(List<ScoreData> scores) {
+        return submitScoresWithResultAsync(scores).thenApply(result -> result == SubmitResult.STORED);
+    }
+    
+    @Override
+    public CompletableFuture<SubmitResult> submitScoresWithResultAsync(List<ScoreData> scores) {
+        if (!serviceAvailable) {
+            logger.warning("Cannot submit scores: service is unavailable");
+            return CompletableFuture.completedFuture(SubmitResult.FAILED);
+        }
+        if (scores.isEmpty()) {
+            return CompletableFuture.completedFuture(SubmitResult.STORED);
+        }
+        
+        // Create JSON array payload
+        StringBuilder jsonPayload = new StringBuilder("[");
+        for (int i = 0; i < scores.size(); i++) {
+            ScoreData score = scores.get(i);
+            if (i > 0) {
+                jsonPayload.append(',');
+            }
+            jsonPayload.append("{\"playerName\":\"").append(escape(score.getPlayerName()))
+                       .append("\",\"scoreValue\":").append(score.getScoreValue());
+            if (score.getSessionId() != null) {
+                jsonPayload.append(",\"sessionId\":\"").append(escape(score.getSessionId())).append('"');
+            }
+            jsonPayload.append('}');
+        }
+        jsonPayload.append(']');
+        
+        HttpRequest request = request(serviceUrl + "/batch")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(jsonPayload.toString()))
+                .build();
+        
+        return send(request, response -> {
+            logger.info("Score batch submitted successfully: " + scores.size() + " scores");
+            return SubmitResult.STORED;
+        }, SubmitResult.FAILED, SubmitResult.REJECTED);
+    }
+    
+    @Override
+    public CompletableFuture<List<ScoreData>> getTopScoresAsync(int limit) {
+        if (!serviceAvailable) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        
+        String url = limit > 0 ? serviceUrl + "?limit=" + limit : serviceUrl + "/top";
+        return send(request(url).GET().build(), ScoreJsonParser::parseScores, Collections.emptyList());
+    }
+    
+    @Override
+    public CompletableFuture<ScoreData> getPlayerHighScoreAsync(String playerName) {
+        if (!serviceAvailable || playerName == null || playerName.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        String url = serviceUrl + "/player/" + encodePathSegment(playerName) + "/highest";
+        return send(request(url).GET().build(), ScoreJsonParser::parseScore, null);
+    }
+    
+    @Override
+    public CompletableFuture<List<ScoreData>> getPlayerScoresAsync(String playerName) {
+        if (!serviceAvailable || playerName == null || playerName.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        
+        String url = serviceUrl + "/player/" + encodePathSegment(playerName);
+        return send(request(url).GET().build(), ScoreJsonParser::parseScores, Collections.emptyList());
+    }
+    
+    @Override
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Gets the number of requests currently waiting for a response.
+     *
+     * @return The in-flight request count
+     */
+    public int getInFlightCount() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+    
+    /**
+     * Creates a request builder with the configured timeout.
+     *
+     * @param url The URL to send the request to
+     * @return The request builder
+     */
+    private HttpRequest.Builder request(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(timeout);
+    }
+    
+    /**
+     * Sends a request without blocking and maps a successful response body.
+     *
+     * @param request The request to send
+     * @param onSuccess Maps the body of a 2xx response
+     * @param fallback Value to complete with on errors and other status codes
+     * @return The future result
+     */
+    private <T> CompletableFuture<T> send(HttpRequest request, Function<byte[], T> onSuccess, T fallback) {
+        return send(request, onSuccess, fallback, fallback);
+    }
+    
+    /**
+     * Sends a request without blocking and maps a successful response body,
+     * telling requests the service refused apart from other failures.
+     *
+     * @param request The request to send
+     * @param onSuccess Maps the body of a 2xx response
+     * @param fallback Value to complete with on errors and status codes worth retrying
+     * @param rejected Value to complete with on client errors other than timeouts and throttling
+     * @return The future result
+     */
+    private <T> CompletableFuture<T> send(HttpRequest request, Function<byte[], T> onSuccess, T fallback, T rejected) {
+        if (!inFlight.tryAcquire()) {
+            logger.warning("Score request dropped, too many requests in flight: " + request.uri());
+            return CompletableFuture.completedFuture(fallback);
+        }
+        
+        CompletableFuture<HttpResponse<byte[]>> response;
+        try {
+            // Bodies stay UTF-8 bytes, which the score reader decodes directly
+            response = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            logger.warning("Score request dropped, client pool is full: " + request.uri());
+            return CompletableFuture.completedFuture(fallback);
+        }
+        
+        return response.handle((result, error) -> {
+            inFlight.release();
+            if (error != null && isRejection(error)) {
+                // The pool is saturated, the service itself may be fine
+                logger.warning("Score request dropped, client pool is full: " + request.uri());
+                return fallback;
+            }
+            if (error != null) {
+                // Unreachable until the next availability check succeeds
+                boolean wasAvailable = serviceAvailable;
+                serviceAvailable = false;
+                logger.log(wasAvailable ? Level.WARNING : Level.FINE,
+                        "Score request failed: " + request.uri() + ": " + error.getMessage());
+                return fallback;
+            }
+            
+            int statusCode = result.statusCode();
+            if (statusCode < 200 || statusCode >= 300) {
+                logger.warning("Score request failed: " + request.uri() + ": HTTP " + statusCode);
+                boolean retryable = statusCode < 400 || statusCode >= 500 || statusCode == 408 || statusCode == 429;
+                return retryable ? fallback : rejected;
+            }
+            
+            try {
+                return onSuccess.apply(result.body());
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Invalid score response: " + request.uri(), e);
+                return fallback;
+            }
+        });
+    }
+    
+    /**
+     * Checks whether a failure comes from the executor refusing work.
+     */
+    private static boolean isRejection(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RejectedExecutionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Percent-encodes a string for use as a single URL path segment.
+     * Spaces become %20 rather than the '+' of form encoding, which paths don't decode.
+     * Shared with {@link RestScoreService}.
+     */
+    static String encodePathSegment(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+    
+    /**
+     * Escapes a string for use inside a JSON string literal.
+     * Shared with {@link RestScoreService}.
+     */
+    static String escape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
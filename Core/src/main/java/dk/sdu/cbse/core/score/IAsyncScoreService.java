@@ -0,0 +1,108 @@
+package dk.sdu.cbse.core.score;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking variant of {@link IScoreService}.
+ * Every call returns immediately and completes its future once the Scoring
+ * microservice has answered, so it is safe to use from the render and
+ * simulation threads. Failures complete the futures with the same fallback
+ * values as {@link IScoreService} rather than exceptionally.
+ */
+public interface IAsyncScoreService {
+    
+    /**
+     * Submit a new score to the scoring service.
+     *
+     * @param playerName The name of the player
+     * @param scoreValue The score value achieved
+     * @return Future completed with true if the score was successfully submitted, false otherwise
+     */
+    CompletableFuture<Boolean> submitScoreAsync(String playerName, int scoreValue);
+    
+    /**
+     * Submit many scores in a single request.
+     * Scores with a session ID are merged by the service into one entry per session.
+     *
+     * @param scores The scores to submit, with player name, score value and optionally session ID
+     * @return Future completed with true if all scores were successfully submitted, false otherwise
+     */
+    CompletableFuture<Boolean> submitScoresAsync(List<ScoreData> scores);
+    
+    /**
+     * Submit many scores in a single request, telling scores the service refused apart
+     * from requests that failed. Only failed requests are worth sending again.
+     *
+     * @param scores The scores to submit, with player name, score value and optionally session ID
+     * @return Future completed with the outcome of the request
+     */
+    default CompletableFuture<SubmitResult> submitScoresWithResultAsync(List<ScoreData> scores) {
+        return submitScoresAsync(scores).thenApply(stored -> stored ? SubmitResult.STORED : SubmitResult.FAILED);
+    }
+    
+    /**
+     * Get the top scores from the scoring service.
+     *
+     * @param limit The maximum number of scores to retrieve (optional)
+     * @return Future completed with the score entries, ordered by score value (highest first)
+     */
+    CompletableFuture<List<ScoreData>> getTopScoresAsync(int limit);
+    
+    /**
+     * Get the highest score for a specific player.
+     *
+     * @param playerName The name of the player
+     * @return Future completed with the player's highest score, or null if no scores found
+     */
+    CompletableFuture<ScoreData> getPlayerHighScoreAsync(String playerName);
+    
+    /**
+     * Get all scores for a specific player.
+     *
+     * @param playerName The name of the player
+     * @return Future completed with the player's scores, ordered by score value (highest first)
+     */
+    CompletableFuture<List<ScoreData>> getPlayerScoresAsync(String playerName);
+    
+    /**
+     * Initialize the score service by checking whether the Scoring microservice is reachable.
+     *
+     * @return Future completed with the availability of the service
+     */
+    CompletableFuture<Boolean> initializeAsync();
+    
+    /**
+     * Check again whether the Scoring microservice is reachable, e.g. after it went down.
+     * Meant to be called periodically, so implementations should keep it cheap and quiet.
+     *
+     * @return Future completed with the availability of the service
+     */
+    default CompletableFuture<Boolean> checkAvailabilityAsync() {
+        return initializeAsync();
+    }
+    
+    /**
+     * Check if the scoring service was available at the last check.
+     *
+     * @return true if the service is available, false otherwise
+     */
+    boolean isServiceAvailable();
+    
+    /**
+     * Stops the background threads of the service. Pending futures may not complete.
+     */
+    void shutdown();
+    
+    /**
+     * Outcome of a batch submission.
+     */
+    enum SubmitResult {
+        /** The service stored the scores. */
+        STORED,
+        /** The service was unreachable or failed, sending the scores again may succeed. */
+        FAILED,
+        /** The service refused the request as invalid, sending it again never succeeds. */
+        REJECTED
+    }
+}
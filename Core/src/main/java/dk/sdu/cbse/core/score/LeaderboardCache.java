@@ -0,0 +1,141 @@
+package dk.sdu.cbse.core.score;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Client-side cache of the top scores.
+ * <p>
+ * {@link #get()} always returns the in-memory snapshot right away and is cheap enough to
+ * call every frame. Once the snapshot is older than the time to live, or has been
+ * invalidated by a successful submission, the next call starts a single background
+ * refresh and keeps serving the stale entries until it completes.
+ * <p>
+ * The async score service reports failures with an empty list, so an empty result
+ * after a non-empty one is treated as a failed refresh: the old entries are kept and
+ * the refresh is retried after the time to live.
+ */
+public class LeaderboardCache {
+
+    private static final Logger logger = Logger.getLogger(LeaderboardCache.class.getName());
+    
+    public static final long DEFAULT_TTL_MILLIS = 30_000;
+    
+    private final IAsyncScoreService scoreService;
+    private final int limit;
+    private final long ttlNanos;
+    
+    // Cached entries and the time the last refresh completed
+    private volatile List<ScoreData> entries = Collections.emptyList();
+    private volatile long refreshedAt;
+    
+    // Bumped on every invalidation, refreshes started before it do not make the entries fresh
+    private final AtomicLong generation = new AtomicLong();
+    private volatile long refreshedGeneration = -1;
+    
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private final AtomicLong refreshCount = new AtomicLong();
+    
+    /**
+     * Creates a cache with the default time to live.
+     *
+     * @param scoreService The service to fetch the top scores from
+     * @param limit Number of top scores to cache
+     */
+    public LeaderboardCache(IAsyncScoreService scoreService, int limit) {
+        this(scoreService, limit, DEFAULT_TTL_MILLIS);
+    }
+    
+    /**
+     * Creates a cache.
+     *
+     * @param scoreService The service to fetch the top scores from
+     * @param limit Number of top scores to cache
+     * @param ttlMillis Time after which cached entries are refreshed
+     */
+    public LeaderboardCache(IAsyncScoreService scoreService, int limit, long ttlMillis) {
+        this.scoreService = scoreService;
+        this.limit = limit;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+    
+    /**
+     * Gets the cached top scores, starting a background refresh if they are stale.
+     * Never blocks.
+     *
+     * @return The cached top scores, ordered by score value (highest first)
+     */
+    public List<ScoreData> get() {
+        if (isStale()) {
+            refresh();
+        }
+        return entries;
+    }
+    
+    /**
+     * Starts a refresh unless one is already running.
+     *
+     * @return Future completed with the cached entries once the refresh has finished
+     */
+    public CompletableFuture<List<ScoreData>> refresh() {
+        if (!scoreService.isServiceAvailable() || !refreshing.compareAndSet(false, true)) {
+            return CompletableFuture.completedFuture(entries);
+        }
+        
+        long startGeneration = generation.get();
+        refreshCount.incrementAndGet();
+        
+        CompletableFuture<List<ScoreData>> fetch;
+        try {
+            fetch = scoreService.getTopScoresAsync(limit);
+        } catch (RuntimeException e) {
+            refreshing.set(false);
+            throw e;
+        }
+        
+        return fetch.handle((topScores, error) -> {
+            if (error == null && topScores != null && (!topScores.isEmpty() || entries.isEmpty())) {
+                entries = Collections.unmodifiableList(topScores);
+            } else {
+                logger.fine("Leaderboard refresh failed, keeping " + entries.size() + " cached entries");
+            }
+            
+            // Failed refreshes also wait for the time to live before retrying
+            refreshedGeneration = startGeneration;
+            refreshedAt = System.nanoTime();
+            refreshing.set(false);
+            return entries;
+        });
+    }
+    
+    /**
+     * Marks the cached entries as outdated, so the next {@link #get()} refreshes them.
+     * The entries stay available until the refresh completes.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+    
+    /**
+     * Checks whether the cached entries need a refresh.
+     *
+     * @return True if the entries were never loaded, expired or were invalidated
+     */
+    public boolean isStale() {
+        return refreshedGeneration != generation.get() || System.nanoTime() - refreshedAt >= ttlNanos;
+    }
+    
+    /**
+     * Gets the number of refreshes started since the cache was created.
+     *
+     * @return The refresh count
+     */
+    public long getRefreshCount() {
+        return refreshCount.get();
+    }
+}
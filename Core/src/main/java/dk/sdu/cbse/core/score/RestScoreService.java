@@ -1,14 +1,9 @@
 package dk.sdu.cbse.core.score;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
-import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.logging.Level;
@@ -16,19 +11,26 @@ import java.util.logging.Logger;
 
 /**
  * Implementation of the IScoreService interface that communicates with
- * the Scoring microservice using Java's HttpURLConnection.
+ * the Scoring microservice over pooled, persistent HTTP connections.
  * <p>
  * This service handles sending score data to and retrieving score data from
- * the remote Scoring microservice via HTTP.
+ * the remote Scoring microservice via HTTP. Connections are kept open between calls
+ * by a {@link ScoreHttpClient}, so a steady stream of submissions does not pay for a
+ * new TCP handshake per score.
  */
 public class RestScoreService implements IScoreService {
 
     private static final Logger logger = Logger.getLogger(RestScoreService.class.getName());
     
     private static final String DEFAULT_SERVICE_URL = "http://localhost:8080/api/scores";
-    private static final int DEFAULT_TIMEOUT_MS = 5000;
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofMillis(5000);
+    
+    // Connection pool settings
+    private static final int POOL_SIZE = Integer.getInteger("asteroids.scorePoolSize", ScoreHttpClient.DEFAULT_POOL_SIZE);
+    private static final boolean HTTP2 = Boolean.getBoolean("asteroids.scoreHttp2");
     
     private final String serviceUrl;
+    private final ScoreHttpClient client;
     private boolean serviceAvailable;
     
     /**
@@ -44,23 +46,33 @@ public class RestScoreService implements IScoreService {
      * @param serviceUrl The URL of the scoring service
      */
     public RestScoreService(String serviceUrl) {
+        this(serviceUrl, new ScoreHttpClient(DEFAULT_TIMEOUT, POOL_SIZE, HTTP2));
+    }
+    
+    /**
+     * Constructor with configurable service URL and HTTP client.
+     *
+     * @param serviceUrl The URL of the scoring service
+     * @param client The client sending the requests
+     */
+    public RestScoreService(String serviceUrl, ScoreHttpClient client) {
         this.serviceUrl = serviceUrl;
+        this.client = client;
         this.serviceAvailable = false;
     }
     
     @Override
     public void initialize() {
-        logger.info("Initializing RestScoreService with service URL: " + serviceUrl);
+        logger.info("Initializing RestScoreService with service URL: " + serviceUrl
+                + " (" + client.getPoolSize() + " connections)");
         
-        // Test if the service is available
+        // Test if the service is available, asking for as little data as possible
         try {
-            HttpURLConnection connection = createConnection(serviceUrl, "GET");
-            int responseCode = connection.getResponseCode();
-            serviceAvailable = responseCode >= 200 && responseCode < 300;
-            connection.disconnect();
+            ScoreHttpClient.Response<Void> response = client.send(get(serviceUrl + "?limit=1"), in -> null);
+            serviceAvailable = response.isSuccessful();
             
             logger.info("Score service is " + (serviceAvailable ? "available" : "unavailable"));
-        } catch (IOException e) {
+        } catch (IOException | IllegalArgumentException e) {
             serviceAvailable = false;
             logger.log(Level.WARNING, "Score service is unavailable: " + e.getMessage(), e);
         }
@@ -79,33 +91,26 @@ public class RestScoreService implements IScoreService {
         }
         
         try {
-            HttpURLConnection connection = createConnection(serviceUrl, "POST");
-            connection.setRequestProperty("Content-Type", "application/json");
-            
             // Create JSON payload
-            String jsonPayload = String.format(
-                "{\"playerName\":\"%s\",\"scoreValue\":%d}",
-                playerName, scoreValue
-            );
+            String jsonPayload = "{\"playerName\":\"" + AsyncRestScoreService.escape(playerName)
+                    + "\",\"scoreValue\":" + scoreValue + "}";
             
-            // Send POST data
-            try (OutputStream os = connection.getOutputStream()) {
-                byte[] input = jsonPayload.getBytes(StandardCharsets.UTF_8);
-                os.write(input, 0, input.length);
-            }
+            HttpRequest request = client.request(URI.create(serviceUrl))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(jsonPayload))
+                    .build();
             
-            int responseCode = connection.getResponseCode();
-            boolean success = responseCode >= 200 && responseCode < 300;
+            ScoreHttpClient.Response<Void> response = client.send(request, in -> null);
+            boolean success = response.isSuccessful();
             
             if (success) {
                 logger.info("Score submitted successfully: " + playerName + " - " + scoreValue);
             } else {
-                logger.warning("Failed to submit score: HTTP " + responseCode);
+                logger.warning("Failed to submit score: HTTP " + response.getStatusCode());
             }
             
-            connection.disconnect();
             return success;
-        } catch (IOException e) {
+        } catch (IOException | IllegalArgumentException e) {
             logger.log(Level.WARNING, "Error submitting score: " + e.getMessage(), e);
             return false;
         }
@@ -120,20 +125,15 @@ public class RestScoreService implements IScoreService {
         
         try {
             String url = limit > 0 ? serviceUrl + "?limit=" + limit : serviceUrl + "/top";
-            HttpURLConnection connection = createConnection(url, "GET");
+            ScoreHttpClient.Response<List<ScoreData>> response = client.send(get(url), ScoreJsonReader::readScores);
             
-            int responseCode = connection.getResponseCode();
-            if (responseCode >= 200 && responseCode < 300) {
-                String response = readResponse(connection);
-                List<ScoreData> scores = parseScoresJson(response);
-                connection.disconnect();
-                return scores;
+            if (response.isSuccessful()) {
+                return response.getBody();
             } else {
-                logger.warning("Failed to get top scores: HTTP " + responseCode);
-                connection.disconnect();
+                logger.warning("Failed to get top scores: HTTP " + response.getStatusCode());
                 return Collections.emptyList();
             }
-        } catch (IOException e) {
+        } catch (IOException | IllegalArgumentException e) {
             logger.log(Level.WARNING, "Error getting top scores: " + e.getMessage(), e);
             return Collections.emptyList();
         }
@@ -145,23 +145,21 @@ public class RestScoreService implements IScoreService {
             logger.warning("Cannot get player high score: service is unavailable");
             return null;
         }
+        if (playerName == null || playerName.isEmpty()) {
+            return null;
+        }
         
         try {
-            String url = serviceUrl + "/player/" + playerName + "/highest";
-            HttpURLConnection connection = createConnection(url, "GET");
+            String url = serviceUrl + "/player/" + AsyncRestScoreService.encodePathSegment(playerName) + "/highest";
+            ScoreHttpClient.Response<ScoreData> response = client.send(get(url), ScoreJsonReader::readScore);
             
-            int responseCode = connection.getResponseCode();
-            if (responseCode >= 200 && responseCode < 300) {
-                String response = readResponse(connection);
-                ScoreData score = parseScoreJson(response);
-                connection.disconnect();
-                return score;
+            if (response.isSuccessful()) {
+                return response.getBody();
             } else {
-                logger.warning("Failed to get player high score: HTTP " + responseCode);
-                connection.disconnect();
+                logger.warning("Failed to get player high score: HTTP " + response.getStatusCode());
                 return null;
             }
-        } catch (IOException e) {
+        } catch (IOException | IllegalArgumentException e) {
             logger.log(Level.WARNING, "Error getting player high score: " + e.getMessage(), e);
             return null;
         }
@@ -173,187 +171,42 @@ public class RestScoreService implements IScoreService {
             logger.warning("Cannot get player scores: service is unavailable");
             return Collections.emptyList();
         }
+        if (playerName == null || playerName.isEmpty()) {
+            return Collections.emptyList();
+        }
         
         try {
-            String url = serviceUrl + "/player/" + playerName;
-            HttpURLConnection connection = createConnection(url, "GET");
+            String url = serviceUrl + "/player/" + AsyncRestScoreService.encodePathSegment(playerName);
+            ScoreHttpClient.Response<List<ScoreData>> response = client.send(get(url), ScoreJsonReader::readScores);
             
-            int responseCode = connection.getResponseCode();
-            if (responseCode >= 200 && responseCode < 300) {
-                String response = readResponse(connection);
-                List<ScoreData> scores = parseScoresJson(response);
-                connection.disconnect();
-                return scores;
+            if (response.isSuccessful()) {
+                return response.getBody();
             } else {
-                logger.warning("Failed to get player scores: HTTP " + responseCode);
-                connection.disconnect();
+                logger.warning("Failed to get player scores: HTTP " + response.getStatusCode());
                 return Collections.emptyList();
             }
-        } catch (IOException e) {
+        } catch (IOException | IllegalArgumentException e) {
             logger.log(Level.WARNING, "Error getting player scores: " + e.getMessage(), e);
             return Collections.emptyList();
         }
     }
     
     /**
-     * Creates a HTTP URL connection.
+     * Gets the HTTP client, for example to read its request metrics.
      *
-     * @param url The URL to connect to
-     * @param method The HTTP method (GET, POST, etc.)
-     * @return The configured HttpURLConnection
-     * @throws IOException If an I/O error occurs
+     * @return The HTTP client
      */
-    private HttpURLConnection createConnection(String url, String method) throws IOException {
-        URL requestUrl = new URL(url);
-        HttpURLConnection connection = (HttpURLConnection) requestUrl.openConnection();
-        connection.setRequestMethod(method);
-        connection.setConnectTimeout(DEFAULT_TIMEOUT_MS);
-        connection.setReadTimeout(DEFAULT_TIMEOUT_MS);
-        
-        if ("POST".equals(method)) {
-            connection.setDoOutput(true);
-        }
-        
-        return connection;
-    }
-    
-    /**
-     * Reads the response from an HTTP connection.
-     *
-     * @param connection The HTTP connection
-     * @return The response as a string
-     * @throws IOException If an I/O error occurs
-     */
-    private String readResponse(HttpURLConnection connection) throws IOException {
-        StringBuilder response = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                response.append(line);
-            }
-        }
-        return response.toString();
-    }
-    
-    /**
-     * Parses a JSON array of scores into a list of ScoreData objects.
-     * This is a simple implementation and assumes well-formed JSON.
-     *
-     * @param json The JSON array string
-     * @return A list of ScoreData objects
-     */
-    private List<ScoreData> parseScoresJson(String json) {
-        List<ScoreData> scores = new ArrayList<>();
-        
-        // Simple JSON array parsing
-        if (json == null || json.isEmpty() || !json.startsWith("[")) {
-            return scores;
-        }
-        
-        // Remove outer brackets
-        json = json.substring(1, json.length() - 1);
-        
-        // Split by objects (looking for },{)
-        String[] scoreObjects = json.split("\\},\\{");
-        
-        for (int i = 0; i < scoreObjects.length; i++) {
-            String scoreJson = scoreObjects[i];
-            
-            // Fix the JSON object string
-            if (i == 0 && !scoreJson.startsWith("{")) {
-                scoreJson = "{" + scoreJson;
-            }
-            if (i == scoreObjects.length - 1 && !scoreJson.endsWith("}")) {
-                scoreJson = scoreJson + "}";
-            }
-            if (i > 0 && i < scoreObjects.length - 1) {
-                scoreJson = "{" + scoreJson + "}";
-            }
-            
-            ScoreData score = parseScoreJson(scoreJson);
-            if (score != null) {
-                scores.add(score);
-            }
-        }
-        
-        return scores;
+    public ScoreHttpClient getHttpClient() {
+        return client;
     }
     
     /**
-     * Parses a JSON object into a ScoreData object.
-     * This is a simple implementation and assumes well-formed JSON.
+     * Creates a GET request.
      *
-     * @param json The JSON object string
-     * @return A ScoreData object
+     * @param url The URL to request
+     * @return The request
      */
-    private ScoreData parseScoreJson(String json) {
-        if (json == null || json.isEmpty() || !json.startsWith("{")) {
-            return null;
-        }
-        
-        Long id = null;
-        String playerName = null;
-        int scoreValue = 0;
-        LocalDateTime gameDate = LocalDateTime.now();
-        
-        // Extract id
-        int idStart = json.indexOf("\"id\":");
-        if (idStart >= 0) {
-            idStart += 5; // Move past "id":
-            int idEnd = json.indexOf(",", idStart);
-            if (idEnd < 0) {
-                idEnd = json.indexOf("}", idStart);
-            }
-            if (idEnd >= 0) {
-                String idStr = json.substring(idStart, idEnd).trim();
-                try {
-                    id = Long.parseLong(idStr);
-                } catch (NumberFormatException e) {
-                    logger.warning("Failed to parse id: " + idStr);
-                }
-            }
-        }
-        
-        // Extract playerName
-        int nameStart = json.indexOf("\"playerName\":");
-        if (nameStart >= 0) {
-            nameStart = json.indexOf("\"", nameStart + 13) + 1; // Move past "playerName":"
-            int nameEnd = json.indexOf("\"", nameStart);
-            if (nameEnd >= 0) {
-                playerName = json.substring(nameStart, nameEnd);
-            }
-        }
-        
-        // Extract scoreValue
-        int scoreStart = json.indexOf("\"scoreValue\":");
-        if (scoreStart >= 0) {
-            scoreStart += 13; // Move past "scoreValue":
-            int scoreEnd = json.indexOf(",", scoreStart);
-            if (scoreEnd < 0) {
-                scoreEnd = json.indexOf("}", scoreStart);
-            }
-            if (scoreEnd >= 0) {
-                String scoreStr = json.substring(scoreStart, scoreEnd).trim();
-                try {
-                    scoreValue = Integer.parseInt(scoreStr);
-                } catch (NumberFormatException e) {
-                    logger.warning("Failed to parse score: " + scoreStr);
-                }
-            }
-        }
-        
-        // For simplicity, we're not parsing the gameDate field in this example
-        
-        if (playerName != null) {
-            if (id != null) {
-                return new ScoreData(id, playerName, scoreValue, gameDate);
-            } else {
-                return new ScoreData(playerName, scoreValue);
-            }
-        }
-        
-        return null;
+    private HttpRequest get(String url) {
+        return client.request(URI.create(url)).GET().build();
     }
 }
-
@@ -15,6 +15,7 @@ public class ScoreData {
     private String playerName;
     private int scoreValue;
     private LocalDateTime gameDate;
+    private String sessionId;
     
     /**
      * Default constructor.
@@ -121,6 +122,24 @@ public class ScoreData {
         this.gameDate = gameDate;
     }
     
+    /**
+     * Gets the identifier of the game session the score was achieved in.
+     *
+     * @return The session ID, or null if the score is not tied to a session
+     */
+    public String getSessionId() {
+        return sessionId;
+    }
+    
+    /**
+     * Sets the identifier of the game session the score was achieved in.
+     *
+     * @param sessionId The session ID
+     */
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -129,12 +148,13 @@ public class ScoreData {
         return scoreValue == scoreData.scoreValue &&
                 Objects.equals(id, scoreData.id) &&
                 Objects.equals(playerName, scoreData.playerName) &&
-                Objects.equals(gameDate, scoreData.gameDate);
+                Objects.equals(gameDate, scoreData.gameDate) &&
+                Objects.equals(sessionId, scoreData.sessionId);
     }
     
     @Override
     public int hashCode() {
-        return Objects.hash(id, playerName, scoreValue, gameDate);
+        return Objects.hash(id, playerName, scoreValue, gameDate, sessionId);
     }
     
     @Override
@@ -144,6 +164,7 @@ public class ScoreData {
                 ", playerName='" + playerName + '\'' +
                 ", scoreValue=" + scoreValue +
                 ", gameDate=" + gameDate +
+                ", sessionId='" + sessionId + '\'' +
                 '}';
     }
 }
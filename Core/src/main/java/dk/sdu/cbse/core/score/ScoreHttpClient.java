@@ -0,0 +1,243 @@
+package dk.sdu.cbse.core.score;
+
+import dk.sdu.cbse.profiling.TimingRing;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Blocking HTTP client for the Scoring microservice that keeps its connections open.
+ * <p>
+ * Requests go through a single {@link HttpClient}, which keeps HTTP/1.1 connections alive
+ * between requests, or multiplexes them over one HTTP/2 connection when enabled and
+ * supported by the service. At most {@code poolSize} requests are sent at once, so no more
+ * than that many connections are ever opened; further callers wait for a free one.
+ * Every response body is read to the end, which lets its connection be reused.
+ * <p>
+ * The client counts requests and failures and keeps the latencies of recent requests.
+ */
+public class ScoreHttpClient {
+
+    public static final int DEFAULT_POOL_SIZE = 4;
+    public static final int LATENCY_SAMPLES = 1024;
+
+    private final HttpClient httpClient;
+    private final Duration timeout;
+    private final int poolSize;
+    private final Semaphore connections;
+
+    // Request metrics
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final TimingRing latencies = new TimingRing(LATENCY_SAMPLES);
+
+    /**
+     * Creates a client using HTTP/1.1 and the default pool size.
+     *
+     * @param timeout Connect and request timeout, also the longest wait for a free connection
+     */
+    public ScoreHttpClient(Duration timeout) {
+        this(timeout, DEFAULT_POOL_SIZE, false);
+    }
+
+    /**
+     * Creates a client.
+     *
+     * @param timeout Connect and request timeout, also the longest wait for a free connection
+     * @param poolSize Maximum number of requests sent at once
+     * @param http2 Whether to try HTTP/2, falling back to HTTP/1.1 if the service does not support it
+     */
+    public ScoreHttpClient(Duration timeout, int poolSize, boolean http2) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive: " + poolSize);
+        }
+        this.timeout = timeout;
+        this.poolSize = poolSize;
+        this.connections = new Semaphore(poolSize, true);
+        this.httpClient = HttpClient.newBuilder()
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    /**
+     * Reads a successful response body.
+     *
+     * @param <T> The type of the decoded body
+     */
+    @FunctionalInterface
+    public interface BodyReader<T> {
+        /**
+         * Decodes a response body.
+         *
+         * @param body The body stream, closed by the client afterwards
+         * @return The decoded body
+         * @throws IOException If reading or decoding fails
+         */
+        T read(InputStream body) throws IOException;
+    }
+
+    /**
+     * Creates a request builder with the configured timeout.
+     *
+     * @param uri The URI to send the request to
+     * @return The request builder
+     */
+    public HttpRequest.Builder request(URI uri) {
+        return HttpRequest.newBuilder(uri).timeout(timeout);
+    }
+
+    /**
+     * Sends a request and waits for its response.
+     *
+     * @param request The request to send
+     * @param reader Decodes the body of a 2xx response; other bodies are discarded
+     * @param <T> The type of the decoded body
+     * @return The status code and the decoded body
+     * @throws IOException If no connection became free in time, or the request or reading the body failed
+     */
+    public <T> Response<T> send(HttpRequest request, BodyReader<T> reader) throws IOException {
+        try {
+            if (!connections.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                failureCount.increment();
+                throw new IOException("No connection to the score service became free within " + timeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a score service connection");
+        }
+
+        activeCount.incrementAndGet();
+        requestCount.increment();
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            int statusCode = response.statusCode();
+
+            T body = null;
+            try (InputStream in = response.body()) {
+                if (statusCode >= 200 && statusCode < 300) {
+                    body = reader.read(in);
+                }
+                // Finish the body so the connection goes back to the pool
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+
+            success = statusCode < 500;
+            return new Response<>(statusCode, body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for the score service");
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            synchronized (latencies) {
+                latencies.record(elapsed);
+            }
+            if (!success) {
+                failureCount.increment();
+            }
+            activeCount.decrementAndGet();
+            connections.release();
+        }
+    }
+
+    /**
+     * Gets the maximum number of requests sent at once.
+     *
+     * @return The pool size
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Gets the number of requests currently being sent.
+     *
+     * @return The active request count
+     */
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    /**
+     * Gets the number of requests sent so far.
+     *
+     * @return The request count
+     */
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    /**
+     * Gets the number of requests that failed or were answered with a server error.
+     *
+     * @return The failure count
+     */
+    public long getFailureCount() {
+        return failureCount.sum();
+    }
+
+    /**
+     * Gets the latency statistics of the most recent requests.
+     *
+     * @return Statistics in nanoseconds
+     */
+    public TimingRing.Stats getLatencyStats() {
+        return latencies.getStats();
+    }
+
+    /**
+     * Status code and decoded body of a response.
+     *
+     * @param <T> The type of the decoded body
+     */
+    public static final class Response<T> {
+        private final int statusCode;
+        private final T body;
+
+        Response(int statusCode, T body) {
+            this.statusCode = statusCode;
+            this.body = body;
+        }
+
+        /**
+         * Gets the HTTP status code.
+         *
+         * @return The status code
+         */
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        /**
+         * Checks whether the status code is in the 2xx range.
+         *
+         * @return True for a successful response
+         */
+        public boolean isSuccessful() {
+            return statusCode >= 200 && statusCode < 300;
+        }
+
+        /**
+         * Gets the decoded body.
+         *
+         * @return The body, or null if the response was not successful
+         */
+        public T getBody() {
+            return body;
+        }
+    }
+}
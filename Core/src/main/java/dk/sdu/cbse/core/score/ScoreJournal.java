@@ -0,0 +1,420 @@
+package dk.sdu.cbse.core.score;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Local append-only journal of scores that could not be sent to the Scoring microservice.
+ * <p>
+ * The journal is a memory-mapped file of fixed capacity. Scores are appended as checksummed
+ * records and stay in the journal until they are read back and acknowledged after a
+ * successful replay. The file starts with a small header holding the position of the
+ * first unacknowledged record, so scores written before a crash or restart are replayed
+ * the next time the journal is opened; a record torn by a crash fails its checksum and
+ * ends the journal there.
+ * <p>
+ * Acknowledged records are reclaimed by copying the remaining ones to the front of the file.
+ * The copy only goes into space no unacknowledged record occupies, and the header is switched
+ * to it once the copy was flushed, so a crash during compaction leaves one intact copy behind.
+ * <p>
+ * Every journaled score carries a session ID, generated for scores that had none. The
+ * service keeps one row per session with its highest score, so replaying a score that
+ * had already been stored changes nothing.
+ */
+public class ScoreJournal implements Closeable {
+
+    private static final Logger logger = Logger.getLogger(ScoreJournal.class.getName());
+
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    // Header: magic, capacity, position of the first unacknowledged record
+    private static final int MAGIC = 0x53434A31;
+    private static final int HEADER_SIZE = 16;
+    private static final int CAPACITY_OFFSET = 4;
+    private static final int START_OFFSET = 8;
+
+    // Record: payload length, CRC32 of the payload, payload
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final CRC32 crc = new CRC32();
+
+    // Physical positions of the first unacknowledged record and of the end of the journal
+    private int start;
+    private int end;
+
+    // Bytes removed from the front by compaction, turning physical positions into logical ones
+    private long base;
+
+    private int pendingCount;
+
+    private ScoreJournal(Path path, FileChannel channel, MappedByteBuffer buffer, int capacity) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Opens a journal with the default capacity, creating it if it does not exist.
+     *
+     * @param path The journal file
+     * @return The journal, positioned after its last intact record
+     * @throws IOException If the file cannot be opened or is not a score journal
+     */
+    public static ScoreJournal open(Path path) throws IOException {
+        return open(path, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Opens a journal, creating it if it does not exist.
+     * An existing journal keeps the capacity it was created with.
+     *
+     * @param path The journal file
+     * @param capacity Size of a new journal file in bytes
+     * @return The journal, positioned after its last intact record
+     * @throws IOException If the file cannot be opened or is not a score journal
+     */
+    public static ScoreJournal open(Path path, int capacity) throws IOException {
+        if (capacity <= HEADER_SIZE + RECORD_HEADER_SIZE) {
+            throw new IllegalArgumentException("Journal capacity too small: " + capacity);
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            // An existing journal decides its own capacity
+            boolean existing = channel.size() >= HEADER_SIZE;
+            if (existing) {
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+                if (header.getInt(0) != MAGIC) {
+                    throw new IOException("Not a score journal: " + path);
+                }
+                capacity = header.getInt(CAPACITY_OFFSET);
+                if (capacity <= HEADER_SIZE || capacity > channel.size()) {
+                    throw new IOException("Corrupt score journal header: " + path);
+                }
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            ScoreJournal journal = new ScoreJournal(path, channel, buffer, capacity);
+            if (existing) {
+                journal.recover();
+            } else {
+                journal.format();
+            }
+            return journal;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the header of a new journal.
+     */
+    private void format() {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        start = HEADER_SIZE;
+        end = HEADER_SIZE;
+        writeStart();
+        markEnd();
+        buffer.force();
+    }
+
+    /**
+     * Finds the end of an existing journal by walking its intact records.
+     */
+    private void recover() {
+        long storedStart = buffer.getLong(START_OFFSET);
+        start = storedStart >= HEADER_SIZE && storedStart <= capacity ? (int) storedStart : HEADER_SIZE;
+
+        int position = start;
+        int count = 0;
+        while (position + RECORD_HEADER_SIZE <= capacity) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + RECORD_HEADER_SIZE + length > capacity
+                    || checksum(position + RECORD_HEADER_SIZE, length) != buffer.getInt(position + 4)) {
+                break;
+            }
+            position += RECORD_HEADER_SIZE + length;
+            count++;
+        }
+
+        end = position;
+        pendingCount = count;
+        markEnd();
+
+        if (count > 0) {
+            logger.info("Score journal " + path + " holds " + count + " unsent scores");
+        }
+    }
+
+    /**
+     * Appends scores to the journal and flushes them to the file.
+     * Scores without a session ID get a generated one, so replays are idempotent.
+     *
+     * @param scores The scores to append
+     * @return The number of scores appended, less than requested if the journal is full,
+     *         which includes unacknowledged records taking up too much of it to be compacted
+     */
+    public synchronized int appendAll(List<ScoreData> scores) {
+        int appended = 0;
+        for (ScoreData score : scores) {
+            if (!append(score)) {
+                break;
+            }
+            appended++;
+        }
+        if (appended > 0) {
+            buffer.force();
+        }
+        return appended;
+    }
+
+    /**
+     * Appends a single record, compacting the journal if it does not fit at the end.
+     */
+    private boolean append(ScoreData score) {
+        if (score.getSessionId() == null) {
+            score.setSessionId(UUID.randomUUID().toString());
+        }
+
+        byte[] name = score.getPlayerName().getBytes(StandardCharsets.UTF_8);
+        byte[] session = score.getSessionId().getBytes(StandardCharsets.UTF_8);
+        int length = 4 + 4 + name.length + 4 + session.length;
+
+        if (end + RECORD_HEADER_SIZE + length > capacity) {
+            compact();
+            if (end + RECORD_HEADER_SIZE + length > capacity) {
+                return false;
+            }
+        }
+
+        int payload = end + RECORD_HEADER_SIZE;
+        buffer.putInt(payload, score.getScoreValue());
+        buffer.putInt(payload + 4, name.length);
+        view(payload + 8, name.length).put(name);
+        buffer.putInt(payload + 8 + name.length, session.length);
+        view(payload + 12 + name.length, session.length).put(session);
+
+        // The length goes last, so a record is only visible once it is complete
+        buffer.putInt(end + 4, checksum(payload, length));
+        int recordEnd = payload + length;
+        if (recordEnd + 4 <= capacity) {
+            buffer.putInt(recordEnd, 0);
+        }
+        buffer.putInt(end, length);
+
+        end = recordEnd;
+        pendingCount++;
+        return true;
+    }
+
+    /**
+     * Reads the oldest unacknowledged scores without removing them.
+     *
+     * @param maxScores Maximum number of scores to read
+     * @return The scores, to be passed to {@link #acknowledge} once they were stored
+     */
+    public synchronized Batch read(int maxScores) {
+        List<ScoreData> scores = new ArrayList<>(Math.min(maxScores, pendingCount));
+        int position = start;
+        while (position < end && scores.size() < maxScores) {
+            int length = buffer.getInt(position);
+            int payload = position + RECORD_HEADER_SIZE;
+
+            int scoreValue = buffer.getInt(payload);
+            int nameLength = buffer.getInt(payload + 4);
+            String name = readString(payload + 8, nameLength);
+            int sessionLength = buffer.getInt(payload + 8 + nameLength);
+            String session = readString(payload + 12 + nameLength, sessionLength);
+
+            ScoreData score = new ScoreData(name, scoreValue);
+            score.setSessionId(session);
+            scores.add(score);
+
+            position = payload + length;
+        }
+        return new Batch(Collections.unmodifiableList(scores), base + position);
+    }
+
+    /**
+     * Removes scores that were stored by the service.
+     *
+     * @param batch A batch returned by {@link #read}
+     */
+    public synchronized void acknowledge(Batch batch) {
+        int position = (int) (batch.endPosition - base);
+        if (position <= start || position > end) {
+            return;
+        }
+
+        start = position;
+        pendingCount = Math.max(0, pendingCount - batch.scores.size());
+        if (start == end) {
+            // Everything was sent, start over at the front
+            compact();
+        } else {
+            writeStart();
+        }
+        buffer.force();
+    }
+
+    /**
+     * Moves the unacknowledged records to the front of the journal.
+     * <p>
+     * The header keeps pointing at the old records until the copy and the end marker behind
+     * it are flushed, and only then is switched to the front. Nothing before the switch
+     * overwrites a live record, so the journal is only compacted when the records and the
+     * end marker fit into the acknowledged space ahead of them.
+     */
+    private void compact() {
+        int shift = start - HEADER_SIZE;
+        int length = end - start;
+        if (shift == 0 || length + 4 > shift) {
+            return;
+        }
+
+        for (int i = 0; i < length; i++) {
+            buffer.put(HEADER_SIZE + i, buffer.get(start + i));
+        }
+        buffer.putInt(HEADER_SIZE + length, 0);
+        buffer.force();
+
+        start = HEADER_SIZE;
+        end = HEADER_SIZE + length;
+        base += shift;
+
+        // Appends may overwrite the old records from here on, so the switch has to be durable
+        writeStart();
+        buffer.force();
+    }
+
+    /**
+     * Zeroes the length after the last record, so stale records behind it are not recovered.
+     */
+    private void markEnd() {
+        if (end + 4 <= capacity) {
+            buffer.putInt(end, 0);
+        }
+    }
+
+    private void writeStart() {
+        buffer.putLong(START_OFFSET, start);
+    }
+
+    private int checksum(int position, int length) {
+        crc.reset();
+        crc.update(view(position, length));
+        return (int) crc.getValue();
+    }
+
+    private String readString(int position, int length) {
+        byte[] bytes = new byte[length];
+        view(position, length).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets a view of a range of the journal, leaving the shared buffer's position alone.
+     */
+    private ByteBuffer view(int position, int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.limit(position + length).position(position);
+        return view;
+    }
+
+    /**
+     * Gets the number of journaled scores that were not acknowledged yet.
+     *
+     * @return The pending score count
+     */
+    public synchronized int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * Checks whether every journaled score was acknowledged.
+     *
+     * @return True if nothing is waiting for replay
+     */
+    public synchronized boolean isEmpty() {
+        return pendingCount == 0;
+    }
+
+    /**
+     * Gets the size of the journal file.
+     *
+     * @return The capacity in bytes
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the journal file.
+     *
+     * @return The path of the journal
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    /**
+     * Scores read from the journal, with the position up to which they were read.
+     */
+    public static final class Batch {
+        private final List<ScoreData> scores;
+        private final long endPosition;
+
+        Batch(List<ScoreData> scores, long endPosition) {
+            this.scores = scores;
+            this.endPosition = endPosition;
+        }
+
+        /**
+         * Gets the scores of the batch, oldest first.
+         *
+         * @return The scores
+         */
+        public List<ScoreData> getScores() {
+            return scores;
+        }
+
+        /**
+         * Checks whether the batch holds no scores.
+         *
+         * @return True for an empty batch
+         */
+        public boolean isEmpty() {
+            return scores.isEmpty();
+        }
+    }
+}
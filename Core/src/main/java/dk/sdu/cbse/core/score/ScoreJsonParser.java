@@ -0,0 +1,77 @@
+package dk.sdu.cbse.core.score;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Parses the JSON responses of the Scoring microservice into ScoreData objects.
+ * <p>
+ * This is a convenience wrapper around {@link ScoreJsonReader} for responses that are
+ * already in memory. Malformed responses are logged and parsed as empty.
+ */
+public final class ScoreJsonParser {
+
+    private static final Logger logger = Logger.getLogger(ScoreJsonParser.class.getName());
+
+    private ScoreJsonParser() {
+    }
+    
+    /**
+     * Parses a JSON array of scores into a list of ScoreData objects.
+     *
+     * @param json The JSON array string
+     * @return A list of ScoreData objects, empty if the JSON is malformed
+     */
+    public static List<ScoreData> parseScores(String json) {
+        if (json == null || json.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return parseScores(json.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Parses a UTF-8 encoded JSON array of scores into a list of ScoreData objects.
+     *
+     * @param json The JSON array bytes
+     * @return A list of ScoreData objects, empty if the JSON is malformed
+     */
+    public static List<ScoreData> parseScores(byte[] json) {
+        try {
+            return ScoreJsonReader.readScores(json);
+        } catch (IOException e) {
+            logger.warning("Failed to parse scores: " + e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+    
+    /**
+     * Parses a JSON object into a ScoreData object.
+     *
+     * @param json The JSON object string
+     * @return A ScoreData object, or null if the JSON is malformed or has no player name
+     */
+    public static ScoreData parseScore(String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
+        return parseScore(json.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Parses a UTF-8 encoded JSON object into a ScoreData object.
+     *
+     * @param json The JSON object bytes
+     * @return A ScoreData object, or null if the JSON is malformed or has no player name
+     */
+    public static ScoreData parseScore(byte[] json) {
+        try {
+            return ScoreJsonReader.readScore(json);
+        } catch (IOException e) {
+            logger.warning("Failed to parse score: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,656 @@
+package dk.sdu.cbse.core.score;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader for the JSON responses of the Scoring microservice.
+ * <p>
+ * The reader tokenizes UTF-8 bytes straight from an input stream through a fixed buffer
+ * and decodes one ScoreData object at a time, so a response never has to be held as a
+ * whole. Field names are matched without creating strings, and numbers and dates are
+ * decoded in place; only player names and session IDs become new strings. Any valid
+ * JSON layout is accepted, including pretty-printed responses, escaped characters in
+ * names and fields the client does not know.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public final class ScoreJsonReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // Field names of a score object
+    private static final char[] ID = "id".toCharArray();
+    private static final char[] PLAYER_NAME = "playerName".toCharArray();
+    private static final char[] SCORE_VALUE = "scoreValue".toCharArray();
+    private static final char[] GAME_DATE = "gameDate".toCharArray();
+    private static final char[] SESSION_ID = "sessionId".toCharArray();
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    private long offset;
+
+    // Decoded characters of the last string read
+    private char[] chars = new char[64];
+    private int charCount;
+
+    // Array state for nextScore
+    private boolean inArray;
+    private boolean arrayDone;
+    private boolean firstElement;
+
+    /**
+     * Creates a reader over a stream of UTF-8 encoded JSON.
+     *
+     * @param in The stream to read, closed with this reader
+     */
+    public ScoreJsonReader(InputStream in) {
+        this.in = in;
+        this.buffer = new byte[BUFFER_SIZE];
+    }
+
+    /**
+     * Creates a reader over UTF-8 encoded JSON held in memory.
+     *
+     * @param json The JSON bytes
+     */
+    public ScoreJsonReader(byte[] json) {
+        this.in = null;
+        this.buffer = json;
+        this.limit = json.length;
+    }
+
+    /**
+     * Reads a JSON array of scores from a stream.
+     *
+     * @param in The stream to read, which is not closed
+     * @return The scores with a player name, in response order
+     * @throws IOException If the stream fails or does not hold a JSON array
+     */
+    public static List<ScoreData> readScores(InputStream in) throws IOException {
+        return new ScoreJsonReader(in).readAll();
+    }
+
+    /**
+     * Reads a JSON array of scores held in memory.
+     *
+     * @param json The UTF-8 encoded JSON array
+     * @return The scores with a player name, in response order
+     * @throws IOException If the bytes do not hold a JSON array
+     */
+    public static List<ScoreData> readScores(byte[] json) throws IOException {
+        return new ScoreJsonReader(json).readAll();
+    }
+
+    /**
+     * Reads a single JSON score object from a stream.
+     *
+     * @param in The stream to read, which is not closed
+     * @return The score, or null if it has no player name
+     * @throws IOException If the stream fails or does not hold a JSON object
+     */
+    public static ScoreData readScore(InputStream in) throws IOException {
+        return new ScoreJsonReader(in).readScore();
+    }
+
+    /**
+     * Reads a single JSON score object held in memory.
+     *
+     * @param json The UTF-8 encoded JSON object
+     * @return The score, or null if it has no player name
+     * @throws IOException If the bytes do not hold a JSON object
+     */
+    public static ScoreData readScore(byte[] json) throws IOException {
+        return new ScoreJsonReader(json).readScore();
+    }
+
+    /**
+     * Reads all remaining scores of the JSON array.
+     *
+     * @return The scores with a player name, in response order
+     * @throws IOException If the input fails or is not a JSON array of objects
+     */
+    public List<ScoreData> readAll() throws IOException {
+        List<ScoreData> scores = new ArrayList<>();
+        ScoreData score;
+        while ((score = nextScore()) != null) {
+            scores.add(score);
+        }
+        return scores;
+    }
+
+    /**
+     * Reads the next score of a JSON array, starting the array on the first call.
+     * Objects without a player name are skipped.
+     *
+     * @return The next score, or null at the end of the array
+     * @throws IOException If the input fails or is not a JSON array of objects
+     */
+    public ScoreData nextScore() throws IOException {
+        if (!inArray) {
+            expect('[');
+            inArray = true;
+            firstElement = true;
+        }
+
+        while (!arrayDone) {
+            int c = nextToken();
+            if (c == ']') {
+                arrayDone = true;
+                break;
+            }
+            if (!firstElement) {
+                if (c != ',') {
+                    throw syntaxError("',' or ']'", c);
+                }
+                c = nextToken();
+            }
+            firstElement = false;
+            if (c != '{') {
+                throw syntaxError("'{'", c);
+            }
+
+            ScoreData score = readObjectBody();
+            if (score != null) {
+                return score;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads a single JSON score object.
+     *
+     * @return The score, or null if it has no player name
+     * @throws IOException If the input fails or is not a JSON object
+     */
+    public ScoreData readScore() throws IOException {
+        expect('{');
+        return readObjectBody();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+        }
+    }
+
+    /**
+     * Reads the fields of a score object whose opening brace was consumed.
+     */
+    private ScoreData readObjectBody() throws IOException {
+        Long id = null;
+        String playerName = null;
+        int scoreValue = 0;
+        LocalDateTime gameDate = null;
+        String sessionId = null;
+
+        int c = nextToken();
+        if (c != '}') {
+            while (true) {
+                if (c != '"') {
+                    throw syntaxError("field name", c);
+                }
+                readStringBody();
+                expect(':');
+
+                // Match the field name against the decoded characters without creating a string
+                if (nameEquals(ID)) {
+                    id = isNull() ? null : readLong();
+                } else if (nameEquals(PLAYER_NAME)) {
+                    playerName = readNullableString();
+                } else if (nameEquals(SCORE_VALUE)) {
+                    scoreValue = isNull() ? 0 : (int) readLong();
+                } else if (nameEquals(GAME_DATE)) {
+                    gameDate = readDate();
+                } else if (nameEquals(SESSION_ID)) {
+                    sessionId = readNullableString();
+                } else {
+                    skipValue(nextToken());
+                }
+
+                c = nextToken();
+                if (c == '}') {
+                    break;
+                }
+                if (c != ',') {
+                    throw syntaxError("',' or '}'", c);
+                }
+                c = nextToken();
+            }
+        }
+
+        if (playerName == null) {
+            return null;
+        }
+
+        ScoreData score;
+        if (id != null) {
+            score = new ScoreData(id, playerName, scoreValue, gameDate != null ? gameDate : LocalDateTime.now());
+        } else {
+            score = new ScoreData(playerName, scoreValue);
+            if (gameDate != null) {
+                score.setGameDate(gameDate);
+            }
+        }
+        score.setSessionId(sessionId);
+        return score;
+    }
+
+    /**
+     * Reads a string value, or null.
+     */
+    private String readNullableString() throws IOException {
+        int c = nextToken();
+        if (c == 'n') {
+            expectLiteral("ull");
+            return null;
+        }
+        if (c != '"') {
+            throw syntaxError("string", c);
+        }
+        readStringBody();
+        return new String(chars, 0, charCount);
+    }
+
+    /**
+     * Checks whether the next value is null, consuming it if so.
+     */
+    private boolean isNull() throws IOException {
+        if (peekToken() == 'n') {
+            position++;
+            expectLiteral("ull");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reads an integral number, truncating fractions and exponents.
+     */
+    private long readLong() throws IOException {
+        return readNumber(nextToken());
+    }
+
+    /**
+     * Reads a number whose first byte was consumed.
+     */
+    private long readNumber(int c) throws IOException {
+        charCount = 0;
+        boolean negative = c == '-';
+        if (negative) {
+            appendChar('-');
+            c = read();
+        }
+        if (c < '0' || c > '9') {
+            throw syntaxError("number", c);
+        }
+
+        long value = 0;
+        boolean integral = true;
+        while (true) {
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+            } else {
+                integral = false;
+            }
+            appendChar((char) c);
+
+            c = peek();
+            if (c < 0 || !isNumberPart(c)) {
+                break;
+            }
+            position++;
+        }
+
+        if (!integral) {
+            try {
+                return (long) Double.parseDouble(new String(chars, 0, charCount));
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed number at offset " + (offset + position), e);
+            }
+        }
+        return negative ? -value : value;
+    }
+
+    private static boolean isNumberPart(int c) {
+        return (c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-';
+    }
+
+    /**
+     * Reads a date written as an ISO local date-time string or as an array of fields.
+     */
+    private LocalDateTime readDate() throws IOException {
+        int c = nextToken();
+        if (c == 'n') {
+            expectLiteral("ull");
+            return null;
+        }
+
+        if (c == '[') {
+            // Jackson writes [year, month, day, hour, minute, second, nanos] with timestamps enabled
+            int[] fields = new int[7];
+            int count = 0;
+            if (peekToken() == ']') {
+                position++;
+            } else {
+                while (true) {
+                    long value = readLong();
+                    if (count < fields.length) {
+                        fields[count++] = (int) value;
+                    }
+                    c = nextToken();
+                    if (c == ']') {
+                        break;
+                    }
+                    if (c != ',') {
+                        throw syntaxError("',' or ']'", c);
+                    }
+                }
+            }
+            if (count < 3) {
+                return null;
+            }
+            return LocalDateTime.of(fields[0], fields[1], fields[2], fields[3], fields[4], fields[5], fields[6]);
+        }
+
+        if (c != '"') {
+            throw syntaxError("date", c);
+        }
+        readStringBody();
+        return parseDate();
+    }
+
+    /**
+     * Parses the decoded characters as yyyy-MM-ddTHH:mm[:ss[.fraction]].
+     */
+    private LocalDateTime parseDate() throws IOException {
+        int length = charCount;
+        if (length >= 16 && chars[4] == '-' && chars[7] == '-' && chars[10] == 'T' && chars[13] == ':') {
+            int year = digits(0, 4);
+            int month = digits(5, 2);
+            int day = digits(8, 2);
+            int hour = digits(11, 2);
+            int minute = digits(14, 2);
+            int second = 0;
+            int nanos = 0;
+            int end = 16;
+
+            if (length >= 19 && chars[16] == ':') {
+                second = digits(17, 2);
+                end = 19;
+                if (length > 20 && chars[19] == '.') {
+                    int scale = 100_000_000;
+                    end = 20;
+                    while (end < length && end < 29 && chars[end] >= '0' && chars[end] <= '9') {
+                        nanos += (chars[end] - '0') * scale;
+                        scale /= 10;
+                        end++;
+                    }
+                }
+            }
+
+            if (end == length && year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0 && second >= 0) {
+                return LocalDateTime.of(year, month, day, hour, minute, second, nanos);
+            }
+        }
+
+        // Anything else, such as zone offsets, goes through the regular parser
+        try {
+            return LocalDateTime.parse(new String(chars, 0, charCount));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the decimal value of a run of decoded characters, or -1 if one is not a digit.
+     */
+    private int digits(int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = chars[i];
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Skips a value whose first token was read.
+     */
+    private void skipValue(int c) throws IOException {
+        switch (c) {
+            case '"':
+                readStringBody();
+                break;
+            case '{':
+            case '[': {
+                // Strings are skipped whole, so brackets inside them are not counted
+                int depth = 1;
+                while (depth > 0) {
+                    int next = nextToken();
+                    if (next == '{' || next == '[') {
+                        depth++;
+                    } else if (next == '}' || next == ']') {
+                        depth--;
+                    } else if (next == '"') {
+                        readStringBody();
+                    } else if (next < 0) {
+                        throw syntaxError("end of value", next);
+                    }
+                }
+                break;
+            }
+            case 't':
+                expectLiteral("rue");
+                break;
+            case 'f':
+                expectLiteral("alse");
+                break;
+            case 'n':
+                expectLiteral("ull");
+                break;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    readNumber(c);
+                } else {
+                    throw syntaxError("value", c);
+                }
+        }
+    }
+
+    /**
+     * Decodes a string whose opening quote was consumed into the character buffer.
+     */
+    private void readStringBody() throws IOException {
+        charCount = 0;
+        while (true) {
+            int b = read();
+            if (b < 0) {
+                throw syntaxError("end of string", b);
+            }
+
+            if (b == '"') {
+                return;
+            } else if (b == '\\') {
+                readEscape();
+            } else if (b < 0x80) {
+                appendChar((char) b);
+            } else if ((b & 0xE0) == 0xC0) {
+                appendChar((char) (((b & 0x1F) << 6) | continuation()));
+            } else if ((b & 0xF0) == 0xE0) {
+                int high = continuation();
+                appendChar((char) (((b & 0x0F) << 12) | (high << 6) | continuation()));
+            } else if ((b & 0xF8) == 0xF0) {
+                int codePoint = ((b & 0x07) << 18) | (continuation() << 12);
+                codePoint |= continuation() << 6;
+                codePoint |= continuation();
+                appendChar(Character.highSurrogate(codePoint));
+                appendChar(Character.lowSurrogate(codePoint));
+            } else {
+                throw new IOException("Malformed UTF-8 at offset " + (offset + position - 1));
+            }
+        }
+    }
+
+    private int continuation() throws IOException {
+        int b = read();
+        if ((b & 0xC0) != 0x80) {
+            throw new IOException("Malformed UTF-8 at offset " + (offset + position - 1));
+        }
+        return b & 0x3F;
+    }
+
+    private void readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                appendChar((char) c);
+                break;
+            case 'b':
+                appendChar('\b');
+                break;
+            case 'f':
+                appendChar('\f');
+                break;
+            case 'n':
+                appendChar('\n');
+                break;
+            case 'r':
+                appendChar('\r');
+                break;
+            case 't':
+                appendChar('\t');
+                break;
+            case 'u': {
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit < 0) {
+                        throw new IOException("Malformed unicode escape at offset " + (offset + position));
+                    }
+                    value = (value << 4) | digit;
+                }
+                appendChar((char) value);
+                break;
+            }
+            default:
+                throw syntaxError("escape character", c);
+        }
+    }
+
+    private void appendChar(char c) {
+        if (charCount == chars.length) {
+            char[] grown = new char[chars.length * 2];
+            System.arraycopy(chars, 0, grown, 0, charCount);
+            chars = grown;
+        }
+        chars[charCount++] = c;
+    }
+
+    private boolean nameEquals(char[] name) {
+        if (charCount != name.length) {
+            return false;
+        }
+        for (int i = 0; i < charCount; i++) {
+            if (chars[i] != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void expect(char expected) throws IOException {
+        int c = nextToken();
+        if (c != expected) {
+            throw syntaxError("'" + expected + "'", c);
+        }
+    }
+
+    private void expectLiteral(String rest) throws IOException {
+        for (int i = 0; i < rest.length(); i++) {
+            int c = read();
+            if (c != rest.charAt(i)) {
+                throw syntaxError("'" + rest.charAt(i) + "'", c);
+            }
+        }
+    }
+
+    /**
+     * Reads the next byte that is not whitespace, or -1 at the end of the input.
+     */
+    private int nextToken() throws IOException {
+        int c = peekToken();
+        if (c >= 0) {
+            position++;
+        }
+        return c;
+    }
+
+    /**
+     * Gets the next byte that is not whitespace without consuming it.
+     */
+    private int peekToken() throws IOException {
+        while (true) {
+            int c = peek();
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+            position++;
+        }
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        if (c >= 0) {
+            position++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        if (in == null) {
+            return false;
+        }
+        offset += limit;
+        position = 0;
+        limit = 0;
+
+        int count;
+        do {
+            count = in.read(buffer, 0, buffer.length);
+        } while (count == 0);
+
+        if (count < 0) {
+            return false;
+        }
+        limit = count;
+        return true;
+    }
+
+    private IOException syntaxError(String expected, int found) {
+        String actual = found < 0 ? "end of input" : "'" + (char) found + "'";
+        return new IOException("Malformed score JSON at offset " + (offset + position)
+                + ": expected " + expected + " but found " + actual);
+    }
+}
@@ -0,0 +1,465 @@
+package dk.sdu.cbse.core.score;
+
+import dk.sdu.cbse.core.score.IAsyncScoreService.SubmitResult;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Coalescing, batched score submission.
+ * <p>
+ * Scores reported during a game are running totals, so only the highest value per
+ * player and session has to reach the Scoring microservice. {@link #submit} merges
+ * reports into the pending scores without blocking, and the pending scores are sent
+ * in batches on a fixed interval or when {@link #flush()} is called, e.g. at game over.
+ * Batches that fail are merged back and sent again with the next flush. Since the
+ * service keeps the highest score per session, batches may arrive in any order.
+ * <p>
+ * With a {@link ScoreJournal}, scores that cannot be sent are written to the journal
+ * instead, so they survive a restart of the game. Journal writes run on the pipeline's own
+ * thread while it is started, never on the thread calling {@link #flush()}, which may be the
+ * game loop. Every interval the pipeline also checks
+ * on the service while it is unreachable, and once it is back replays the journal in
+ * batches before sending new scores.
+ * <p>
+ * Batches the service refuses as invalid are dropped rather than kept, since sending
+ * them again would only be refused again and hold up every score behind them.
+ */
+public class ScoreSubmissionPipeline {
+
+    private static final Logger logger = Logger.getLogger(ScoreSubmissionPipeline.class.getName());
+    
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 5000;
+    
+    // Upper bound of pending scores kept while the service is unreachable
+    private static final int MAX_PENDING = 1024;
+    
+    // Scores per request, well below the batch limit of the service
+    static final int MAX_BATCH_SIZE = 500;
+    
+    // Journal replay
+    private static final long REPLAY_TIMEOUT_MILLIS = 10000;
+    
+    private final IAsyncScoreService scoreService;
+    private final long flushIntervalMillis;
+    private final ScoreJournal journal;
+    
+    // Highest pending score per player and session, guarded by this
+    private final Map<String, ScoreData> pending = new LinkedHashMap<>();
+    
+    private ScheduledExecutorService scheduler;
+    
+    // Batches handed to the scheduler for the journal, guarded by this
+    private final List<List<ScoreData>> unjournaled = new ArrayList<>();
+    private volatile FlushListener flushListener;
+    
+    // Statistics
+    private final AtomicLong reportedCount = new AtomicLong();
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong journaledCount = new AtomicLong();
+    private final AtomicLong replayedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    
+    /**
+     * Creates a pipeline flushing on the default interval.
+     *
+     * @param scoreService The service to send the batches to
+     */
+    public ScoreSubmissionPipeline(IAsyncScoreService scoreService) {
+        this(scoreService, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+    
+    /**
+     * Creates a pipeline.
+     *
+     * @param scoreService The service to send the batches to
+     * @param flushIntervalMillis Interval between automatic flushes
+     */
+    public ScoreSubmissionPipeline(IAsyncScoreService scoreService, long flushIntervalMillis) {
+        this(scoreService, flushIntervalMillis, null);
+    }
+    
+    /**
+     * Creates a pipeline keeping unsent scores in a journal.
+     *
+     * @param scoreService The service to send the batches to
+     * @param flushIntervalMillis Interval between automatic flushes and availability checks
+     * @param journal The journal for scores the service could not take, or null to keep them in memory
+     */
+    public ScoreSubmissionPipeline(IAsyncScoreService scoreService, long flushIntervalMillis, ScoreJournal journal) {
+        this.scoreService = scoreService;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.journal = journal;
+    }
+    
+    /**
+     * Starts flushing, and checking on the service, on the configured interval.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "score-pipeline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Runs on every interval: checks on an unreachable service, replays the journal once
+     * the service is reachable and sends the pending scores.
+     */
+    private void tick() {
+        try {
+            if (!scoreService.isServiceAvailable()) {
+                scoreService.checkAvailabilityAsync().get(REPLAY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            if (journal != null && scoreService.isServiceAvailable()) {
+                replayJournal();
+            }
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Keep the schedule alive, the next interval tries again
+            logger.log(Level.WARNING, "Score pipeline interval failed", e);
+        }
+    }
+    
+    /**
+     * Sends the journaled scores in batches, acknowledging each once it was stored or refused.
+     * Stops at the first batch that fails.
+     */
+    private void replayJournal() throws Exception {
+        while (!journal.isEmpty()) {
+            ScoreJournal.Batch batch = journal.read(MAX_BATCH_SIZE);
+            
+            // Journaled reports of the same session only need their highest score
+            Map<String, ScoreData> coalesced = new LinkedHashMap<>();
+            for (ScoreData score : batch.getScores()) {
+                coalesced.merge(key(score), score,
+                        (current, next) -> next.getScoreValue() > current.getScoreValue() ? next : current);
+            }
+            
+            SubmitResult result = scoreService.submitScoresWithResultAsync(new ArrayList<>(coalesced.values()))
+                    .get(REPLAY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            if (result == SubmitResult.FAILED) {
+                return;
+            }
+            
+            journal.acknowledge(batch);
+            if (result == SubmitResult.REJECTED) {
+                droppedCount.addAndGet(batch.getScores().size());
+                logger.warning("Dropping " + batch.getScores().size() + " journaled scores refused by the service");
+                continue;
+            }
+            replayedCount.addAndGet(batch.getScores().size());
+            logger.info("Replayed " + batch.getScores().size() + " journaled scores");
+            
+            FlushListener listener = flushListener;
+            if (listener != null) {
+                listener.onFlushed(coalesced.size());
+            }
+        }
+    }
+    
+    /**
+     * Records the current score of a player in a session. Never blocks on the network.
+     *
+     * @param playerName The name of the player
+     * @param sessionId The game session the score belongs to
+     * @param scoreValue The player's current total score in the session
+     */
+    public void submit(String playerName, String sessionId, int scoreValue) {
+        reportedCount.incrementAndGet();
+        
+        ScoreData score = new ScoreData(playerName, scoreValue);
+        score.setSessionId(sessionId);
+        synchronized (this) {
+            merge(score);
+        }
+    }
+    
+    /**
+     * Sends all pending scores, split into batches of at most {@link #MAX_BATCH_SIZE}.
+     *
+     * @return Future completed with true if all batches were stored or nothing was pending
+     */
+    public CompletableFuture<Boolean> flush() {
+        List<ScoreData> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return CompletableFuture.completedFuture(true);
+            }
+            batch = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        
+        // Without a reachable service the batch goes straight to the journal
+        if (journal != null && !scoreService.isServiceAvailable()) {
+            keep(batch);
+            return CompletableFuture.completedFuture(false);
+        }
+        
+        if (batch.size() <= MAX_BATCH_SIZE) {
+            return send(batch);
+        }
+        
+        List<CompletableFuture<Boolean>> chunks = new ArrayList<>();
+        for (int from = 0; from < batch.size(); from += MAX_BATCH_SIZE) {
+            int to = Math.min(batch.size(), from + MAX_BATCH_SIZE);
+            chunks.add(send(new ArrayList<>(batch.subList(from, to))));
+        }
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> chunks.stream().allMatch(CompletableFuture::join));
+    }
+    
+    /**
+     * Sends one batch, keeping its scores if it failed and dropping them if they were refused.
+     */
+    private CompletableFuture<Boolean> send(List<ScoreData> batch) {
+        CompletableFuture<SubmitResult> submitted;
+        try {
+            submitted = scoreService.submitScoresWithResultAsync(batch);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Failed to submit score batch", e);
+            submitted = CompletableFuture.completedFuture(SubmitResult.FAILED);
+        }
+        
+        return submitted.thenApply(result -> {
+            boolean success = result == SubmitResult.STORED;
+            if (success) {
+                batchCount.incrementAndGet();
+                sentCount.addAndGet(batch.size());
+                
+                FlushListener listener = flushListener;
+                if (listener != null) {
+                    listener.onFlushed(batch.size());
+                }
+            } else if (result == SubmitResult.REJECTED) {
+                droppedCount.addAndGet(batch.size());
+                logger.warning("Dropping " + batch.size() + " scores refused by the service");
+            } else {
+                keep(batch);
+            }
+            return success;
+        });
+    }
+    
+    /**
+     * Keeps scores that could not be sent, in the journal if there is one.
+     * Writing the journal forces it to disk, so while the pipeline is started that is
+     * handed to its thread; after shutdown the calling thread writes it.
+     */
+    private void keep(List<ScoreData> batch) {
+        if (journal == null) {
+            store(batch);
+            return;
+        }
+        
+        ScheduledExecutorService current;
+        synchronized (this) {
+            unjournaled.add(batch);
+            current = scheduler;
+        }
+        if (current != null) {
+            try {
+                current.execute(this::storeUnjournaled);
+                return;
+            } catch (RejectedExecutionException e) {
+                // Shutting down, store the scores right here
+            }
+        }
+        storeUnjournaled();
+    }
+    
+    /**
+     * Writes the batches waiting for the journal.
+     */
+    private void storeUnjournaled() {
+        List<List<ScoreData>> batches;
+        synchronized (this) {
+            if (unjournaled.isEmpty()) {
+                return;
+            }
+            batches = new ArrayList<>(unjournaled);
+            unjournaled.clear();
+        }
+        for (List<ScoreData> batch : batches) {
+            store(batch);
+        }
+    }
+    
+    /**
+     * Writes scores that could not be sent to the journal if there is one.
+     * Scores that do not fit in the journal, or all of them without one, are merged back
+     * into the pending scores for the next flush, unless newer ones arrived meanwhile.
+     */
+    private void store(List<ScoreData> batch) {
+        int journaled = 0;
+        if (journal != null) {
+            journaled = journal.appendAll(batch);
+            journaledCount.addAndGet(journaled);
+            if (journaled < batch.size()) {
+                logger.warning("Score journal is full, keeping " + (batch.size() - journaled) + " scores in memory");
+            }
+        }
+        
+        synchronized (this) {
+            for (int i = journaled; i < batch.size(); i++) {
+                merge(batch.get(i));
+            }
+        }
+    }
+    
+    /**
+     * Stops the interval flushes and sends the pending scores, waiting at most the given time.
+     *
+     * @param timeoutMillis Maximum time to wait for the last batch
+     */
+    public void shutdown(long timeoutMillis) {
+        synchronized (this) {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+                scheduler = null;
+            }
+        }
+        
+        // Journal writes the scheduler did not get to
+        storeUnjournaled();
+        
+        try {
+            flush().get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Pending scores could not be sent", e);
+        }
+    }
+    
+    /**
+     * Keeps the higher of the pending and the given score of a player and session.
+     */
+    private void merge(ScoreData score) {
+        String key = key(score);
+        ScoreData current = pending.get(key);
+        if (current == null) {
+            if (pending.size() >= MAX_PENDING) {
+                // Drop the oldest session rather than growing without bound
+                Iterator<ScoreData> oldest = pending.values().iterator();
+                logger.warning("Dropping pending score: " + oldest.next());
+                oldest.remove();
+            }
+            pending.put(key, score);
+        } else if (score.getScoreValue() > current.getScoreValue()) {
+            pending.put(key, score);
+        }
+    }
+    
+    /**
+     * Gets the key scores are coalesced by.
+     */
+    private static String key(ScoreData score) {
+        return score.getPlayerName() + '\u0000' + score.getSessionId();
+    }
+    
+    /**
+     * Sets the listener notified after every successfully sent batch.
+     * It is called on a background thread.
+     *
+     * @param flushListener The listener, or null to remove it
+     */
+    public void setFlushListener(FlushListener flushListener) {
+        this.flushListener = flushListener;
+    }
+    
+    /**
+     * Gets the number of pending scores.
+     *
+     * @return The pending score count
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+    
+    /**
+     * Gets the number of scores reported through {@link #submit}.
+     *
+     * @return The reported score count
+     */
+    public long getReportedCount() {
+        return reportedCount.get();
+    }
+    
+    /**
+     * Gets the number of coalesced scores sent to the service.
+     *
+     * @return The sent score count
+     */
+    public long getSentCount() {
+        return sentCount.get();
+    }
+    
+    /**
+     * Gets the number of batches sent to the service.
+     *
+     * @return The batch count
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+    
+    /**
+     * Gets the number of scores written to the journal because they could not be sent.
+     *
+     * @return The journaled score count
+     */
+    public long getJournaledCount() {
+        return journaledCount.get();
+    }
+    
+    /**
+     * Gets the number of journaled scores replayed to the service.
+     *
+     * @return The replayed score count
+     */
+    public long getReplayedCount() {
+        return replayedCount.get();
+    }
+    
+    /**
+     * Gets the number of scores dropped because the service refused them.
+     *
+     * @return The dropped score count
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+    
+    /**
+     * Listener for sent batches.
+     */
+    public interface FlushListener {
+        /**
+         * Called after a batch was stored by the service.
+         *
+         * @param count Number of scores in the batch
+         */
+        void onFlushed(int count);
+    }
+}
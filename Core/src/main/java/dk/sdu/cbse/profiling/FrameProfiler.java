@@ -0,0 +1,405 @@
+package dk.sdu.cbse.profiling;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Records how long every stage of a simulation frame takes, how much it allocates,
+ * and how long rendering takes, keeping the most recent frames in lock-free rings.
+ * <p>
+ * Frames and stages are recorded by the simulation thread, render times by the render
+ * thread, and statistics can be read from any thread, for example over JMX.
+ */
+public class FrameProfiler implements FrameProfilerMXBean {
+    private static final Logger logger = Logger.getLogger(FrameProfiler.class.getName());
+
+    public static final String OBJECT_NAME = "dk.sdu.cbse:type=FrameProfiler";
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final int capacity;
+
+    // Allocation counters, only available on HotSpot-based JVMs
+    private final com.sun.management.ThreadMXBean allocationBean;
+
+    // Whole frame measurements
+    private final TimingRing frameTimes;
+    private final TimingRing frameAllocations;
+    private final TimingRing renderTimes;
+    private final TimingRing entityCounts;
+
+    // Per-stage measurements, replaced as a whole when the stages change
+    private volatile Stage[] stages = new Stage[0];
+
+    private volatile boolean enabled = true;
+    private volatile boolean allocationTracking;
+    private boolean registered = false;
+
+    // Writer state of the frame in progress
+    private long threadId;
+    private long frameStart;
+    private long frameAllocationStart;
+    private long stageStart;
+    private long stageAllocationStart;
+
+    /**
+     * Creates a profiler keeping the default number of frames.
+     */
+    public FrameProfiler() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a profiler.
+     *
+     * @param capacity Number of recent frames kept for statistics
+     */
+    public FrameProfiler(int capacity) {
+        this.capacity = capacity;
+        this.frameTimes = new TimingRing(capacity);
+        this.frameAllocations = new TimingRing(capacity);
+        this.renderTimes = new TimingRing(capacity);
+        this.entityCounts = new TimingRing(capacity);
+
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threadBean).isThreadAllocatedMemorySupported()) {
+            allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+            allocationBean.setThreadAllocatedMemoryEnabled(true);
+            allocationTracking = true;
+        } else {
+            allocationBean = null;
+            allocationTracking = false;
+        }
+    }
+
+    /**
+     * Sets the stages recorded for every frame, dropping their previous measurements.
+     *
+     * @param names Stage names in processing order
+     */
+    public void setStages(List<String> names) {
+        Stage[] newStages = new Stage[names.size()];
+        for (int i = 0; i < newStages.length; i++) {
+            newStages[i] = new Stage(names.get(i), capacity);
+        }
+        stages = newStages;
+    }
+
+    /**
+     * Registers this profiler with the platform MBean server.
+     * Does nothing if it is already registered.
+     */
+    public synchronized void registerMBean() {
+        if (registered) {
+            return;
+        }
+
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, new ObjectName(OBJECT_NAME));
+            registered = true;
+            logger.info("Frame profiler registered as " + OBJECT_NAME);
+        } catch (InstanceAlreadyExistsException e) {
+            logger.warning("Another frame profiler is already registered as " + OBJECT_NAME);
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Could not register frame profiler MBean", e);
+        }
+    }
+
+    /**
+     * Marks the start of a frame. Must be called from the simulation thread.
+     */
+    public void beginFrame() {
+        if (!enabled) return;
+
+        threadId = Thread.currentThread().getId();
+        frameAllocationStart = allocatedBytes();
+        frameStart = System.nanoTime();
+    }
+
+    /**
+     * Marks the start of a stage within the current frame.
+     */
+    public void beginStage() {
+        if (!enabled) return;
+
+        stageAllocationStart = allocatedBytes();
+        stageStart = System.nanoTime();
+    }
+
+    /**
+     * Marks the end of a stage and records its measurements.
+     *
+     * @param index Index of the stage as passed to {@link #setStages(List)}
+     */
+    public void endStage(int index) {
+        if (!enabled) return;
+
+        long elapsed = System.nanoTime() - stageStart;
+        Stage[] current = stages;
+        if (index < current.length) {
+            current[index].times.record(elapsed);
+            current[index].allocations.record(allocatedBytes() - stageAllocationStart);
+        }
+    }
+
+    /**
+     * Records the measurements of a stage that ran on another thread, such as a
+     * processor scheduled on a worker pool. Each stage must be recorded by one thread per frame.
+     *
+     * @param index Index of the stage as passed to {@link #setStages(List)}
+     * @param nanos Time spent in the stage in nanoseconds
+     * @param allocatedBytes Bytes allocated by the stage, as measured with
+     *                       {@link #getCurrentThreadAllocatedBytes()}
+     */
+    public void recordStage(int index, long nanos, long allocatedBytes) {
+        if (!enabled) return;
+
+        Stage[] current = stages;
+        if (index < current.length) {
+            current[index].times.record(nanos);
+            current[index].allocations.record(allocatedBytes);
+        }
+    }
+
+    /**
+     * Gets the bytes allocated so far by the calling thread.
+     *
+     * @return Allocated bytes, or 0 if allocation tracking is disabled
+     */
+    public long getCurrentThreadAllocatedBytes() {
+        if (!enabled || !allocationTracking) {
+            return 0;
+        }
+        return allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Marks the end of a frame and records its measurements.
+     *
+     * @param entityCount Number of entities after the frame
+     */
+    public void endFrame(int entityCount) {
+        if (!enabled) return;
+
+        frameTimes.record(System.nanoTime() - frameStart);
+        frameAllocations.record(allocatedBytes() - frameAllocationStart);
+        entityCounts.record(entityCount);
+    }
+
+    /**
+     * Records the time it took to render a frame. Must be called from a single render thread.
+     *
+     * @param nanos Render time in nanoseconds
+     */
+    public void recordRenderTime(long nanos) {
+        if (!enabled) return;
+
+        renderTimes.record(nanos);
+    }
+
+    /**
+     * Gets the bytes allocated so far by the thread recording the frame.
+     */
+    private long allocatedBytes() {
+        if (!allocationTracking) {
+            return 0;
+        }
+        return allocationBean.getThreadAllocatedBytes(threadId);
+    }
+
+    /**
+     * Gets the frame time statistics.
+     *
+     * @return Statistics in nanoseconds
+     */
+    public TimingRing.Stats getFrameStats() {
+        return frameTimes.getStats();
+    }
+
+    /**
+     * Gets the render time statistics.
+     *
+     * @return Statistics in nanoseconds
+     */
+    public TimingRing.Stats getRenderStats() {
+        return renderTimes.getStats();
+    }
+
+    /**
+     * Gets the time statistics of a single stage.
+     *
+     * @param index Index of the stage
+     * @return Statistics in nanoseconds
+     */
+    public TimingRing.Stats getStageStats(int index) {
+        return stages[index].times.getStats();
+    }
+
+    /**
+     * Gets the number of profiled stages.
+     *
+     * @return The stage count
+     */
+    public int getStageCount() {
+        return stages.length;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public boolean isAllocationTrackingEnabled() {
+        return allocationTracking;
+    }
+
+    @Override
+    public void setAllocationTrackingEnabled(boolean enabled) {
+        this.allocationTracking = enabled && allocationBean != null;
+    }
+
+    @Override
+    public long getFrameCount() {
+        return frameTimes.getCount();
+    }
+
+    @Override
+    public double getFrameTimeMeanMillis() {
+        return frameTimes.getStats().getMean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getFrameTimeP50Millis() {
+        return frameTimes.getStats().getP50() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getFrameTimeP99Millis() {
+        return frameTimes.getStats().getP99() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getFrameTimeMaxMillis() {
+        return frameTimes.getStats().getMax() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getRenderTimeP50Millis() {
+        return renderTimes.getStats().getP50() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getRenderTimeP99Millis() {
+        return renderTimes.getStats().getP99() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getRenderTimeMaxMillis() {
+        return renderTimes.getStats().getMax() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public int getEntityCount() {
+        return (int) entityCounts.getLast();
+    }
+
+    @Override
+    public long getAllocatedBytesPerFrame() {
+        if (allocationBean == null) {
+            return -1;
+        }
+        return Math.round(frameAllocations.getStats().getMean());
+    }
+
+    @Override
+    public String[] getStageNames() {
+        Stage[] current = stages;
+        String[] names = new String[current.length];
+        for (int i = 0; i < current.length; i++) {
+            names[i] = current[i].name;
+        }
+        return names;
+    }
+
+    @Override
+    public double[] getStageP50Millis() {
+        Stage[] current = stages;
+        double[] values = new double[current.length];
+        for (int i = 0; i < current.length; i++) {
+            values[i] = current[i].times.getStats().getP50() / NANOS_PER_MILLI;
+        }
+        return values;
+    }
+
+    @Override
+    public double[] getStageP99Millis() {
+        Stage[] current = stages;
+        double[] values = new double[current.length];
+        for (int i = 0; i < current.length; i++) {
+            values[i] = current[i].times.getStats().getP99() / NANOS_PER_MILLI;
+        }
+        return values;
+    }
+
+    @Override
+    public double[] getStageMaxMillis() {
+        Stage[] current = stages;
+        double[] values = new double[current.length];
+        for (int i = 0; i < current.length; i++) {
+            values[i] = current[i].times.getStats().getMax() / NANOS_PER_MILLI;
+        }
+        return values;
+    }
+
+    @Override
+    public long[] getStageAllocatedBytes() {
+        Stage[] current = stages;
+        long[] values = new long[current.length];
+        for (int i = 0; i < current.length; i++) {
+            values[i] = Math.round(current[i].allocations.getStats().getMean());
+        }
+        return values;
+    }
+
+    @Override
+    public void reset() {
+        frameTimes.reset();
+        frameAllocations.reset();
+        renderTimes.reset();
+        entityCounts.reset();
+        for (Stage stage : stages) {
+            stage.times.reset();
+            stage.allocations.reset();
+        }
+    }
+
+    /**
+     * Measurements of a single stage.
+     */
+    private static final class Stage {
+        final String name;
+        final TimingRing times;
+        final TimingRing allocations;
+
+        Stage(String name, int capacity) {
+            this.name = name;
+            this.times = new TimingRing(capacity);
+            this.allocations = new TimingRing(capacity);
+        }
+    }
+}
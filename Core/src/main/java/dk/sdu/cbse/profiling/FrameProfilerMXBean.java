@@ -0,0 +1,72 @@
+package dk.sdu.cbse.profiling;
+
+/**
+ * JMX view of the frame profiler.
+ * Times are in milliseconds and cover the most recent frames kept by the profiler.
+ */
+public interface FrameProfilerMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    boolean isAllocationTrackingEnabled();
+
+    void setAllocationTrackingEnabled(boolean enabled);
+
+    /**
+     * Gets the number of frames recorded since the last reset.
+     *
+     * @return The frame count
+     */
+    long getFrameCount();
+
+    double getFrameTimeMeanMillis();
+
+    double getFrameTimeP50Millis();
+
+    double getFrameTimeP99Millis();
+
+    double getFrameTimeMaxMillis();
+
+    double getRenderTimeP50Millis();
+
+    double getRenderTimeP99Millis();
+
+    double getRenderTimeMaxMillis();
+
+    /**
+     * Gets the number of entities after the most recent frame.
+     *
+     * @return The entity count
+     */
+    int getEntityCount();
+
+    /**
+     * Gets the mean number of bytes allocated by the simulation thread per frame.
+     *
+     * @return Allocated bytes, or -1 if allocation tracking is unavailable
+     */
+    long getAllocatedBytesPerFrame();
+
+    /**
+     * Gets the names of the profiled stages, in processing order.
+     * The per-stage arrays are indexed the same way.
+     *
+     * @return The stage names
+     */
+    String[] getStageNames();
+
+    double[] getStageP50Millis();
+
+    double[] getStageP99Millis();
+
+    double[] getStageMaxMillis();
+
+    long[] getStageAllocatedBytes();
+
+    /**
+     * Forgets all recorded frames.
+     */
+    void reset();
+}
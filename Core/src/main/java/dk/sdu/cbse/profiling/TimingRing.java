@@ -0,0 +1,167 @@
+package dk.sdu.cbse.profiling;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size ring of the most recent samples of a single measurement.
+ * There must be only one writer, but any number of threads may read concurrently
+ * without locking. Readers copy the ring and drop samples the writer overwrote meanwhile.
+ */
+public final class TimingRing {
+
+    private final long[] samples;
+    private final int mask;
+
+    // Number of samples ever written, published after each write
+    private final AtomicLong written = new AtomicLong();
+
+    // Samples before this index are ignored by readers
+    private volatile long resetMark = 0;
+
+    /**
+     * Creates a ring.
+     *
+     * @param capacity Number of samples kept, rounded up to a power of two
+     */
+    public TimingRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.samples = new long[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Records a sample. Must only be called from the writer thread.
+     *
+     * @param value The sample value
+     */
+    public void record(long value) {
+        long index = written.get();
+        samples[(int) (index & mask)] = value;
+        written.lazySet(index + 1);
+    }
+
+    /**
+     * Forgets all samples recorded so far. Safe to call from any thread.
+     */
+    public void reset() {
+        resetMark = written.get();
+    }
+
+    /**
+     * Gets the most recent sample.
+     *
+     * @return The last sample, or 0 if there is none
+     */
+    public long getLast() {
+        long end = written.get();
+        return end > resetMark ? samples[(int) ((end - 1) & mask)] : 0;
+    }
+
+    /**
+     * Gets the number of samples recorded since the last reset, including overwritten ones.
+     *
+     * @return The sample count
+     */
+    public long getCount() {
+        return written.get() - resetMark;
+    }
+
+    /**
+     * Copies the most recent samples, oldest first.
+     *
+     * @param target Array receiving the samples
+     * @return Number of samples copied
+     */
+    public int copyRecent(long[] target) {
+        long end = written.get();
+        long start = Math.max(resetMark, end - Math.min(samples.length, target.length));
+
+        int count = (int) (end - start);
+        for (int i = 0; i < count; i++) {
+            target[i] = samples[(int) ((start + i) & mask)];
+        }
+
+        // The writer may have lapped us while copying, drop anything it overwrote
+        long firstValid = written.get() - samples.length + 1;
+        if (start < firstValid) {
+            int skipped = (int) Math.min(count, firstValid - start);
+            count -= skipped;
+            System.arraycopy(target, skipped, target, 0, count);
+        }
+        return count;
+    }
+
+    /**
+     * Computes statistics over the samples currently in the ring.
+     *
+     * @return The statistics
+     */
+    public Stats getStats() {
+        long[] copy = new long[samples.length];
+        int count = copyRecent(copy);
+        Arrays.sort(copy, 0, count);
+        return new Stats(copy, count);
+    }
+
+    /**
+     * Gets the number of samples this ring keeps.
+     *
+     * @return The capacity
+     */
+    public int getCapacity() {
+        return samples.length;
+    }
+
+    /**
+     * Summary statistics of a set of samples.
+     */
+    public static final class Stats {
+        private final int count;
+        private final double mean;
+        private final long p50;
+        private final long p99;
+        private final long max;
+
+        private Stats(long[] sorted, int count) {
+            this.count = count;
+
+            long sum = 0;
+            for (int i = 0; i < count; i++) {
+                sum += sorted[i];
+            }
+            this.mean = count == 0 ? 0 : (double) sum / count;
+            this.p50 = percentile(sorted, count, 0.50);
+            this.p99 = percentile(sorted, count, 0.99);
+            this.max = count == 0 ? 0 : sorted[count - 1];
+        }
+
+        private static long percentile(long[] sorted, int count, double fraction) {
+            if (count == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(fraction * count) - 1;
+            return sorted[Math.max(0, Math.min(count - 1, index))];
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getMax() {
+            return max;
+        }
+    }
+}
@@ -4,6 +4,9 @@ module Core {
     requires javafx.graphics;
     requires javafx.fxml;
     requires java.logging;
+    requires java.net.http;
+    requires java.management;
+    requires jdk.management;
     // Spring Framework modules - optional at runtime
     requires static spring.core;
     requires static spring.beans;
@@ -19,6 +22,7 @@ module Core {
     exports dk.sdu.cbse.core.collision;     // Collision handling interfaces
     exports dk.sdu.cbse.core.component;     // Component lifecycle interfaces
     exports dk.sdu.cbse.core.score;         // Score service interface and data
+    exports dk.sdu.cbse.profiling;          // Frame profiler and its JMX interface
     
 // Services consumed by this module
     uses dk.sdu.cbse.core.IGamePluginService;            // Game entity creation plugins
@@ -31,12 +35,19 @@ module Core {
     uses dk.sdu.cbse.core.collision.ICollisionService;   // Collision detection and response
     uses dk.sdu.cbse.core.component.IComponentService;   // Component lifecycle management
     uses dk.sdu.cbse.core.score.IScoreService;           // Score management and tracking
+    uses dk.sdu.cbse.core.score.IAsyncScoreService;      // Non-blocking score management
     
     // Self-provided services (implementations in Core module)
     provides dk.sdu.cbse.core.collision.ICollisionService 
-        with dk.sdu.cbse.core.collision.DefaultCollisionService;
+        with dk.sdu.cbse.core.collision.DefaultCollisionService,
+             dk.sdu.cbse.core.collision.SweepAndPruneCollisionService,
+             dk.sdu.cbse.core.collision.AabbTreeCollisionService;
     provides dk.sdu.cbse.core.score.IScoreService
         with dk.sdu.cbse.core.score.RestScoreService;
+    provides dk.sdu.cbse.core.score.IAsyncScoreService
+        with dk.sdu.cbse.core.score.AsyncRestScoreService;
+    provides dk.sdu.cbse.core.bullet.IBulletService
+        with dk.sdu.cbse.core.bullet.CommonBulletService;
         
     // Open packages to allow reflection for both service loaders and Spring DI
     
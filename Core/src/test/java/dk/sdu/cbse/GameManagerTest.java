@@ -0,0 +1,58 @@
+package dk.sdu.cbse;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import dk.sdu.cbse.core.Entity;
+import dk.sdu.cbse.core.EntityPool;
+import dk.sdu.cbse.core.EntityStore;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the entity bookkeeping of {@link GameManager}.
+ */
+public class GameManagerTest
+{
+    @Test
+    public void releasesEntitiesRemovedOutsideAnUpdate()
+    {
+        GameManager gameManager = newGameManager();
+        EntityPool<Entity> pool = new EntityPool<>(Entity::new, null);
+        Entity entity = pool.acquire();
+        gameManager.addEntity(entity);
+        int allocated = EntityStore.getDefault().getAllocatedCount();
+
+        gameManager.removeEntity(entity);
+
+        assertFalse(entity.isActive());
+        assertEquals(0, gameManager.getEntities().size());
+        assertEquals(1, pool.getSize());
+        assertEquals(allocated - 1, EntityStore.getDefault().getAllocatedCount());
+    }
+
+    @Test
+    public void releasesEveryEntityOnShutdown()
+    {
+        GameManager gameManager = newGameManager();
+        EntityPool<Entity> pool = new EntityPool<>(Entity::new, null);
+        for (int i = 0; i < 5; i++) {
+            gameManager.addEntity(pool.acquire());
+        }
+        gameManager.addEntity(new Entity());
+        int allocated = EntityStore.getDefault().getAllocatedCount();
+
+        gameManager.shutdown();
+
+        assertEquals(0, gameManager.getEntities().size());
+        assertEquals(5, pool.getSize());
+        assertEquals(allocated - 6, EntityStore.getDefault().getAllocatedCount());
+    }
+
+    private static GameManager newGameManager()
+    {
+        return new GameManager(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+    }
+}
@@ -0,0 +1,78 @@
+package dk.sdu.cbse;
+
+import static org.junit.Assert.assertEquals;
+
+import dk.sdu.cbse.core.Entity;
+import dk.sdu.cbse.core.EntityStore;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link WorldSnapshot}.
+ */
+public class WorldSnapshotTest
+{
+    private final EntityStore store = EntityStore.getDefault();
+
+    @Test
+    public void interpolatesFromStateBeforeStep()
+    {
+        Entity entity = new Entity();
+        entity.setX(100);
+        entity.setY(100);
+        float[][] last = remember();
+        int[] lastGenerations = rememberGenerations();
+
+        entity.setX(110);
+        WorldSnapshot snapshot = new WorldSnapshot();
+        snapshot.capture(Collections.singletonList(entity), last[0], last[1], last[2],
+                lastGenerations, store.getGenerationColumn(), 0, 0, 1);
+
+        assertEquals(105, snapshot.getX(0, 0.5f), 0.001f);
+        entity.release();
+    }
+
+    @Test
+    public void reusedSlotStartsAtItsOwnPosition()
+    {
+        Entity previousOwner = new Entity();
+        previousOwner.setX(100);
+        previousOwner.setY(100);
+        float[][] last = remember();
+        int[] lastGenerations = rememberGenerations();
+
+        // Released and respawned within one step, close enough to be interpolated
+        int slot = previousOwner.getSlot();
+        previousOwner.release();
+        Entity entity = new Entity();
+        assertEquals(slot, entity.getSlot());
+        entity.setX(120);
+        entity.setY(130);
+
+        WorldSnapshot snapshot = new WorldSnapshot();
+        snapshot.capture(Collections.singletonList(entity), last[0], last[1], last[2],
+                lastGenerations, store.getGenerationColumn(), 0, 0, 1);
+
+        assertEquals(120, snapshot.getX(0, 0), 0.001f);
+        assertEquals(130, snapshot.getY(0, 0), 0.001f);
+        entity.release();
+    }
+
+    private float[][] remember()
+    {
+        int count = store.getHighWaterMark();
+        return new float[][] {
+                Arrays.copyOf(store.getXColumn(), count),
+                Arrays.copyOf(store.getYColumn(), count),
+                Arrays.copyOf(store.getRadiansColumn(), count)
+        };
+    }
+
+    private int[] rememberGenerations()
+    {
+        return Arrays.copyOf(store.getGenerationColumn(), store.getHighWaterMark());
+    }
+}
@@ -0,0 +1,118 @@
+package dk.sdu.cbse.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import dk.sdu.cbse.core.collision.ICollisionService.CollisionResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CollisionProcessor}.
+ */
+public class CollisionProcessorTest
+{
+    private static final float FRAME = 0.15f;
+
+    @Test
+    public void testsOnlyRegisteredAndBuiltInPairs()
+    {
+        Set<String> visited = new HashSet<>();
+        CollisionProcessor processor = new CollisionProcessor()
+        {
+            @Override
+            public boolean checkCollision(Entity a, Entity b)
+            {
+                visited.add(typePair(a, b));
+                return super.checkCollision(a, b);
+            }
+        };
+        processor.addCollisionHandler("enemy", "enemy", (enemy1, enemy2) -> new CollisionResult(enemy1, enemy2, true));
+
+        // Overlapping pairs, spread out so no two groups share a grid cell
+        List<Entity> entities = new ArrayList<>();
+        entities.add(entityAt("asteroid", 100, 100));
+        entities.add(entityAt("asteroid", 105, 100));
+        entities.add(entityAt("projectile", 400, 100));
+        entities.add(entityAt("projectile", 405, 100));
+        entities.add(entityAt("enemy", 700, 100));
+        entities.add(entityAt("enemy", 705, 100));
+        entities.add(entityAt("player", 100, 400));
+        entities.add(entityAt("asteroid", 105, 400));
+        entities.add(entityAt("player", 400, 400));
+        entities.add(entityAt("projectile", 405, 400));
+
+        List<CollisionResult> results = processor.detectCollisions(entities);
+
+        assertEquals(new HashSet<>(Arrays.asList("enemy-enemy", "asteroid-player")), visited);
+        assertEquals(2, results.size());
+    }
+
+    @Test
+    public void resolvesAProjectileAgainstOnlyTheEarlierOfTwoTargets()
+    {
+        CollisionProcessor processor = new CollisionProcessor();
+        Entity asteroid = entityAt("asteroid", 0, 0);
+        Entity enemy = entityAt("enemy", 30, 0);
+        Entity projectile = projectilePassing();
+
+        processor.postProcess(Arrays.asList(enemy, asteroid, projectile), FRAME);
+
+        assertFalse(projectile.isActive());
+        assertFalse(asteroid.isActive());
+        assertTrue(enemy.isActive());
+        assertEquals(50, processor.getPlayerScore());
+    }
+
+    @Test
+    public void resolvesAProjectileAgainstAnEarlierEnemyBeforeALaterAsteroid()
+    {
+        CollisionProcessor processor = new CollisionProcessor();
+        Entity enemy = entityAt("enemy", 0, 0);
+        Entity asteroid = entityAt("asteroid", 30, 0);
+        Entity projectile = projectilePassing();
+
+        processor.postProcess(Arrays.asList(asteroid, enemy, projectile), FRAME);
+
+        assertFalse(projectile.isActive());
+        assertFalse(enemy.isActive());
+        assertTrue(asteroid.isActive());
+        assertEquals(150, processor.getPlayerScore());
+    }
+
+    /**
+     * Creates a projectile that moved from x = -15 to x = 45 over the frame, straight through
+     * targets at x = 0 and x = 30 without overlapping either of them at the end.
+     */
+    private static Entity projectilePassing()
+    {
+        Entity projectile = entityAt("projectile", 45, 0);
+        projectile.setRadius(2);
+        projectile.setDx(400);
+        return projectile;
+    }
+
+    private static Entity entityAt(String type, float x, float y)
+    {
+        Entity entity = new Entity();
+        entity.setType(type);
+        entity.setX(x);
+        entity.setY(y);
+        entity.setRadius(10);
+        return entity;
+    }
+
+    private static String typePair(Entity entity1, Entity entity2)
+    {
+        String type1 = entity1.getType();
+        String type2 = entity2.getType();
+        return type1.compareTo(type2) < 0 ? type1 + "-" + type2 : type2 + "-" + type1;
+    }
+}
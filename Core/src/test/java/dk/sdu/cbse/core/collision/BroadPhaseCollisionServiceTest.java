@@ -0,0 +1,214 @@
+package dk.sdu.cbse.core.collision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dk.sdu.cbse.core.Entity;
+import dk.sdu.cbse.core.collision.ICollisionService.CollisionResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Unit tests for the collision services with their own broad phase, checked against
+ * the grid of {@link DefaultCollisionService}.
+ */
+@RunWith(Parameterized.class)
+public class BroadPhaseCollisionServiceTest
+{
+    private static final String[] TYPES = {"asteroid", "projectile", "enemy", "player"};
+    private static final int MAX_ENTITIES = 500;
+
+    // Type pairs with a default handler, all others must never reach the narrow phase
+    private static final Set<String> HANDLED = new HashSet<>(Arrays.asList(
+            "asteroid-player", "enemy-player", "asteroid-projectile", "enemy-projectile", "asteroid-enemy"));
+
+    @Parameter(0)
+    public String name;
+
+    // Creates the service, recording the type pair of every pair it tests into the given set
+    @Parameter(1)
+    public Function<Set<String>, DefaultCollisionService> factory;
+
+    @Parameter(2)
+    public ToIntFunction<DefaultCollisionService> trackedCount;
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> services()
+    {
+        Function<Set<String>, DefaultCollisionService> sweepAndPrune = visited -> new SweepAndPruneCollisionService()
+        {
+            @Override
+            public boolean checkCollision(Entity entity1, Entity entity2)
+            {
+                visited.add(typePair(entity1, entity2));
+                return super.checkCollision(entity1, entity2);
+            }
+        };
+        ToIntFunction<DefaultCollisionService> sweepAndPruneSize =
+                service -> ((SweepAndPruneCollisionService) service).size();
+        Function<Set<String>, DefaultCollisionService> aabbTree = visited -> new AabbTreeCollisionService()
+        {
+            @Override
+            public boolean checkCollision(Entity entity1, Entity entity2)
+            {
+                visited.add(typePair(entity1, entity2));
+                return super.checkCollision(entity1, entity2);
+            }
+        };
+        ToIntFunction<DefaultCollisionService> aabbTreeSize = service -> ((AabbTreeCollisionService) service).size();
+        return Arrays.asList(
+                new Object[] {"sweep and prune", sweepAndPrune, sweepAndPruneSize},
+                new Object[] {"AABB tree", aabbTree, aabbTreeSize});
+    }
+
+    @Test
+    public void findsTheSamePairsAsTheGridWhileEntitiesChurn()
+    {
+        Random random = new Random(1);
+        List<Entity> entities = new ArrayList<>();
+        DefaultCollisionService grid = new DefaultCollisionService();
+        grid.setAutoProcess(false);
+        DefaultCollisionService service = factory.apply(new HashSet<>());
+        service.setAutoProcess(false);
+
+        int pairs = 0;
+        for (int frame = 0; frame < 300; frame++) {
+            for (int i = 0; i < 20 && entities.size() < MAX_ENTITIES; i++) {
+                entities.add(randomEntity(random));
+            }
+
+            // Entities leave, toggle, or are released and reused between frames
+            for (int i = 0; i < 10 && !entities.isEmpty(); i++) {
+                Entity entity = entities.get(random.nextInt(entities.size()));
+                int operation = random.nextInt(3);
+                if (operation == 0) {
+                    entities.remove(entity);
+                } else if (operation == 1) {
+                    entity.setActive(!entity.isActive());
+                } else {
+                    entity.release();
+                    entity.setActive(true);
+                    entity.setRadius(5);
+                }
+            }
+
+            for (Entity entity : entities) {
+                entity.setX(entity.getX() + entity.getDx() / 60);
+                entity.setY(entity.getY() + entity.getDy() / 60);
+            }
+
+            Set<String> expected = pairs(grid.detectCollisions(entities));
+            assertEquals("frame " + frame, expected, pairs(service.detectCollisions(entities)));
+            pairs += expected.size();
+        }
+        assertTrue("Scene produced no collisions", pairs > 0);
+        assertEquals(activeCount(entities), trackedCount.applyAsInt(service));
+    }
+
+    private static Entity randomEntity(Random random)
+    {
+        Entity entity = new Entity();
+        entity.setType(TYPES[random.nextInt(TYPES.length)]);
+        entity.setX(random.nextFloat() * 800);
+        entity.setY(random.nextFloat() * 600);
+        entity.setDx((random.nextFloat() - 0.5f) * 100);
+        entity.setDy((random.nextFloat() - 0.5f) * 100);
+        entity.setRadius(3 + random.nextInt(30));
+        return entity;
+    }
+
+    @Test
+    public void testsOnlyHandledPairsLikeTheGrid()
+    {
+        Random random = new Random(2);
+        List<Entity> entities = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            entities.add(randomEntity(random));
+        }
+
+        Set<String> gridVisited = new HashSet<>();
+        DefaultCollisionService grid = new DefaultCollisionService()
+        {
+            @Override
+            public boolean checkCollision(Entity entity1, Entity entity2)
+            {
+                gridVisited.add(typePair(entity1, entity2));
+                return super.checkCollision(entity1, entity2);
+            }
+        };
+        Set<String> visited = new HashSet<>();
+        DefaultCollisionService service = factory.apply(visited);
+        replaceDefaultHandlers(grid);
+        replaceDefaultHandlers(service);
+
+        int pairs = 0;
+        for (int frame = 0; frame < 30; frame++) {
+            for (Entity entity : entities) {
+                entity.setX(entity.getX() + entity.getDx() / 60);
+                entity.setY(entity.getY() + entity.getDy() / 60);
+            }
+
+            Set<String> expected = pairs(grid.detectCollisions(entities));
+            assertEquals("frame " + frame, expected, pairs(service.detectCollisions(entities)));
+            pairs += expected.size();
+        }
+        assertTrue("Scene produced no collisions", pairs > 0);
+        assertTrue("Grid tested " + gridVisited, HANDLED.containsAll(gridVisited));
+        assertTrue(name + " tested " + visited, HANDLED.containsAll(visited));
+    }
+
+    /**
+     * Swaps the default handlers for ones that leave the entities alone, so every pass sees the same scene.
+     */
+    private static void replaceDefaultHandlers(DefaultCollisionService service)
+    {
+        for (String typePair : HANDLED) {
+            String[] types = typePair.split("-");
+            service.addCollisionHandler(types[0], types[1],
+                    (entity1, entity2) -> new CollisionResult(entity1, entity2, true));
+        }
+    }
+
+    private static String typePair(Entity entity1, Entity entity2)
+    {
+        String type1 = entity1.getType();
+        String type2 = entity2.getType();
+        return type1.compareTo(type2) < 0 ? type1 + "-" + type2 : type2 + "-" + type1;
+    }
+
+    private static int activeCount(List<Entity> entities)
+    {
+        Set<Entity> active = new HashSet<>();
+        for (Entity entity : entities) {
+            if (entity.isActive()) {
+                active.add(entity);
+            }
+        }
+        return active.size();
+    }
+
+    private static Set<String> pairs(List<CollisionResult> results)
+    {
+        Set<String> pairs = new HashSet<>();
+        for (CollisionResult result : results) {
+            long id1 = result.getEntity1().getId();
+            long id2 = result.getEntity2().getId();
+            pairs.add(Math.min(id1, id2) + "-" + Math.max(id1, id2));
+        }
+        return pairs;
+    }
+}
@@ -0,0 +1,106 @@
+package dk.sdu.cbse.core.collision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import dk.sdu.cbse.core.Entity;
+import dk.sdu.cbse.core.EntityTypes;
+import dk.sdu.cbse.core.collision.ICollisionService.CollisionHandler;
+import dk.sdu.cbse.core.collision.ICollisionService.CollisionResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CollisionDispatchTable}.
+ */
+public class CollisionDispatchTableTest
+{
+    @Test
+    public void dispatchesBothDirectionsWithTheEntitiesInRegistrationOrder()
+    {
+        CollisionDispatchTable table = new CollisionDispatchTable();
+        List<Entity[]> calls = new ArrayList<>();
+        table.put("dispatch-ship", "dispatch-rock", (entity1, entity2) -> {
+            calls.add(new Entity[] {entity1, entity2});
+            return new CollisionResult(entity1, entity2, true);
+        });
+
+        Entity ship = new Entity();
+        ship.setType("dispatch-ship");
+        Entity rock = new Entity();
+        rock.setType("dispatch-rock");
+        table.get(rock, ship).handleCollision(rock, ship);
+
+        assertSame(ship, calls.get(0)[0]);
+        assertSame(rock, calls.get(0)[1]);
+    }
+
+    @Test
+    public void keepsMasksInStepWithTheHandlers()
+    {
+        CollisionDispatchTable table = new CollisionDispatchTable();
+        int ship = EntityTypes.idOf("mask-ship");
+        int rock = EntityTypes.idOf("mask-rock");
+        int dust = EntityTypes.idOf("mask-dust");
+
+        table.put("mask-ship", "mask-rock", (entity1, entity2) -> null);
+
+        // Type IDs are global, other tests may have pushed these past the mask range
+        assertEquals(rock < Long.SIZE ? 1L << rock : 0, table.getMask(ship));
+        assertEquals(ship < Long.SIZE ? 1L << ship : 0, table.getMask(rock));
+        assertTrue(table.canCollide(ship, rock));
+        assertFalse(table.canCollide(ship, dust));
+        assertFalse(table.canCollideWithAny(dust));
+
+        table.remove("mask-ship", "mask-rock");
+        assertEquals(0, table.getMask(ship));
+        assertFalse(table.canCollide(rock, ship));
+        assertFalse(table.canCollideWithAny(ship));
+        assertNull(table.get(ship, rock));
+    }
+
+    @Test
+    public void answersLookupsWhileTypesAreRegisteredConcurrently() throws Exception
+    {
+        CollisionDispatchTable table = new CollisionDispatchTable();
+        CollisionHandler handler = (entity1, entity2) -> null;
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    for (int typeId = 0; typeId < EntityTypes.count(); typeId++) {
+                        table.canCollideWithAny(typeId);
+                        table.canCollide(typeId, 1);
+                        table.getMask(typeId);
+                        table.get(typeId, typeId);
+                    }
+                }
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        reader.start();
+
+        // Every new type grows the table, and with it the mask array
+        for (int i = 0; i < 300 && failure.get() == null; i++) {
+            table.put("concurrent-" + i, "concurrent-" + (i / 2), handler);
+            if (i % 3 == 0) {
+                table.remove("concurrent-" + i, "concurrent-" + (i / 2));
+            }
+        }
+        reader.interrupt();
+        reader.join();
+
+        if (failure.get() != null) {
+            throw new AssertionError("Lookup failed during registration", failure.get());
+        }
+    }
+}
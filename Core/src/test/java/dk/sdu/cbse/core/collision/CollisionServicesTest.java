@@ -0,0 +1,21 @@
+package dk.sdu.cbse.core.collision;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CollisionServices}.
+ */
+public class CollisionServicesTest
+{
+    @Test
+    public void selectsTheServiceForTheConfiguredBroadPhase()
+    {
+        assertEquals(SweepAndPruneCollisionService.class,
+                CollisionServices.load(CollisionServices.SWEEP_AND_PRUNE).getClass());
+        assertEquals(AabbTreeCollisionService.class, CollisionServices.load(CollisionServices.AABB_TREE).getClass());
+        assertEquals(DefaultCollisionService.class, CollisionServices.load(CollisionServices.GRID).getClass());
+        assertEquals(DefaultCollisionService.class, CollisionServices.load("octree").getClass());
+    }
+}
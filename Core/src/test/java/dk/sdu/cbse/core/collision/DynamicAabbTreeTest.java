@@ -0,0 +1,219 @@
+package dk.sdu.cbse.core.collision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import dk.sdu.cbse.core.Entity;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link DynamicAabbTree}, checked against brute force over all entities.
+ */
+public class DynamicAabbTreeTest
+{
+    private static final float RAY_X = 400;
+    private static final float RAY_Y = 300;
+    private static final float RAY_LENGTH = 500;
+
+    @Test
+    public void matchesBruteForceWhileEntitiesMove()
+    {
+        Random random = new Random(3);
+        DynamicAabbTree tree = new DynamicAabbTree();
+        List<Entity> entities = new ArrayList<>();
+        List<Integer> proxies = new ArrayList<>();
+
+        for (int frame = 0; frame < 200; frame++) {
+            for (int i = 0; i < 15; i++) {
+                Entity entity = randomEntity(random);
+                entities.add(entity);
+                proxies.add(tree.insert(entity));
+            }
+            for (int i = 0; i < 5; i++) {
+                int index = random.nextInt(entities.size());
+                tree.remove(proxies.remove(index));
+                entities.remove(index);
+            }
+            if (frame % 10 == 0) {
+                entities.get(random.nextInt(entities.size())).setActive(false);
+            }
+
+            for (Entity entity : entities) {
+                entity.setX(entity.getX() + entity.getDx() / 60);
+                entity.setY(entity.getY() + entity.getDy() / 60);
+            }
+            tree.refit();
+
+            assertEquals("frame " + frame, bruteForcePairs(entities), treePairs(tree));
+            assertQueryMatches(tree, entities, random);
+            assertRayCastMatches(tree, entities, random);
+        }
+        assertEquals(entities.size(), tree.size());
+    }
+
+    @Test
+    public void staysShallowForSortedInsertions()
+    {
+        DynamicAabbTree tree = new DynamicAabbTree();
+        for (int i = 0; i < 1024; i++) {
+            Entity entity = new Entity();
+            entity.setX(i * 10);
+            entity.setRadius(2);
+            tree.insert(entity);
+        }
+
+        // A balanced tree of 1024 leaves has height 10
+        assertTrue("height " + tree.getHeight(), tree.getHeight() <= 20);
+    }
+
+    @Test
+    public void rayCastSkipsTheExcludedEntity()
+    {
+        DynamicAabbTree tree = new DynamicAabbTree();
+        Entity shooter = entityAt(0, 0, 5);
+        Entity target = entityAt(50, 0, 5);
+        tree.insert(shooter);
+        tree.insert(target);
+
+        DynamicAabbTree.RayHit hit = tree.rayCast(0, 0, 1, 0, 100, shooter);
+
+        assertSame(target, hit.getEntity());
+        assertEquals(45, hit.getDistance(), 1e-4);
+        assertNull(tree.rayCast(0, 0, -1, 0, 100, shooter));
+    }
+
+    private static void assertQueryMatches(DynamicAabbTree tree, List<Entity> entities, Random random)
+    {
+        float x = random.nextFloat() * 800;
+        float y = random.nextFloat() * 600;
+        float radius = 50;
+
+        List<Entity> result = new ArrayList<>();
+        tree.query(x, y, radius, null, result);
+
+        Set<Entity> expected = new HashSet<>();
+        for (Entity entity : entities) {
+            float dx = entity.getX() - x;
+            float dy = entity.getY() - y;
+            float radiiSum = entity.getRadius() + radius;
+            if (entity.isActive() && dx * dx + dy * dy < radiiSum * radiiSum) {
+                expected.add(entity);
+            }
+        }
+        assertEquals(expected, new HashSet<>(result));
+        assertEquals(expected.size(), result.size());
+    }
+
+    private static void assertRayCastMatches(DynamicAabbTree tree, List<Entity> entities, Random random)
+    {
+        double angle = random.nextDouble() * 2 * Math.PI;
+        float directionX = (float) Math.cos(angle);
+        float directionY = (float) Math.sin(angle);
+
+        // The tree normalizes the direction itself
+        DynamicAabbTree.RayHit hit = tree.rayCast(RAY_X, RAY_Y, directionX * 3, directionY * 3, RAY_LENGTH, null);
+
+        float closest = Float.POSITIVE_INFINITY;
+        for (Entity entity : entities) {
+            if (!entity.isActive()) continue;
+
+            float distance = rayCircle(entity, directionX, directionY);
+            if (distance <= RAY_LENGTH && distance < closest) {
+                closest = distance;
+            }
+        }
+
+        if (closest == Float.POSITIVE_INFINITY) {
+            assertNull(hit);
+        } else {
+            assertEquals(closest, hit.getDistance(), 1e-3);
+        }
+    }
+
+    /**
+     * Distance along a ray from the fixed origin to the first point on the entity's circle,
+     * 0 if the origin lies inside it and infinity if the ray misses it.
+     */
+    private static float rayCircle(Entity entity, float directionX, float directionY)
+    {
+        float offsetX = RAY_X - entity.getX();
+        float offsetY = RAY_Y - entity.getY();
+        float c = offsetX * offsetX + offsetY * offsetY - entity.getRadius() * entity.getRadius();
+        if (c <= 0) {
+            return 0;
+        }
+        float b = offsetX * directionX + offsetY * directionY;
+        float discriminant = b * b - c;
+        if (b >= 0 || discriminant < 0) {
+            return Float.POSITIVE_INFINITY;
+        }
+        return -b - (float) Math.sqrt(discriminant);
+    }
+
+    private static Set<String> bruteForcePairs(List<Entity> entities)
+    {
+        Set<String> pairs = new HashSet<>();
+        for (int i = 0; i < entities.size(); i++) {
+            for (int j = i + 1; j < entities.size(); j++) {
+                Entity entity1 = entities.get(i);
+                Entity entity2 = entities.get(j);
+                if (entity1.isActive() && entity2.isActive() && overlap(entity1, entity2)) {
+                    pairs.add(key(entity1, entity2));
+                }
+            }
+        }
+        return pairs;
+    }
+
+    private static Set<String> treePairs(DynamicAabbTree tree)
+    {
+        Set<String> pairs = new HashSet<>();
+        tree.forEachCandidatePair((entity1, entity2) -> {
+            if (overlap(entity1, entity2)) {
+                assertTrue("Pair visited twice", pairs.add(key(entity1, entity2)));
+            }
+        });
+        return pairs;
+    }
+
+    private static boolean overlap(Entity entity1, Entity entity2)
+    {
+        float dx = entity1.getX() - entity2.getX();
+        float dy = entity1.getY() - entity2.getY();
+        float radiiSum = entity1.getRadius() + entity2.getRadius();
+        return dx * dx + dy * dy < radiiSum * radiiSum;
+    }
+
+    private static String key(Entity entity1, Entity entity2)
+    {
+        long id1 = entity1.getId();
+        long id2 = entity2.getId();
+        return Math.min(id1, id2) + "-" + Math.max(id1, id2);
+    }
+
+    private static Entity randomEntity(Random random)
+    {
+        Entity entity = entityAt(random.nextFloat() * 800, random.nextFloat() * 600, 3 + random.nextInt(30));
+        entity.setDx((random.nextFloat() - 0.5f) * 400);
+        entity.setDy((random.nextFloat() - 0.5f) * 400);
+        return entity;
+    }
+
+    private static Entity entityAt(float x, float y, float radius)
+    {
+        Entity entity = new Entity();
+        entity.setX(x);
+        entity.setY(y);
+        entity.setRadius(radius);
+        return entity;
+    }
+}
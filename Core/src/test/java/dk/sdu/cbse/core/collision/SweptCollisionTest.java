@@ -0,0 +1,82 @@
+package dk.sdu.cbse.core.collision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import dk.sdu.cbse.core.Entity;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link SweptCollision}.
+ */
+public class SweptCollisionTest
+{
+    private static final float FRAME = 0.1f;
+
+    @Test
+    public void findsABulletThatPassedThroughATargetWithinOneStep()
+    {
+        // The bullet moved from x = -15 to x = 25, straight through the asteroid
+        Entity bullet = entityAt(25, 0, 2);
+        bullet.setDx(400);
+        Entity asteroid = entityAt(0, 0, 8);
+
+        assertFalse(new DefaultCollisionService().checkCollision(bullet, asteroid));
+
+        // The circles touch once the bullet reaches x = -10, after 5 of its 40 units
+        assertEquals(0.125f, SweptCollision.timeOfImpact(bullet, asteroid, FRAME), 1e-5);
+        assertEquals(0.125f, SweptCollision.timeOfImpact(asteroid, bullet, FRAME), 1e-5);
+    }
+
+    @Test
+    public void reportsCirclesOverlappingAtTheStartAsAnImmediateHit()
+    {
+        Entity bullet = entityAt(30, 0, 2);
+        bullet.setDx(400);
+        Entity asteroid = entityAt(-5, 0, 8);
+
+        assertEquals(0, SweptCollision.timeOfImpact(bullet, asteroid, FRAME), 0);
+    }
+
+    @Test
+    public void reportsNoImpactForCirclesMovingApart()
+    {
+        Entity bullet = entityAt(25, 0, 2);
+        bullet.setDx(100);
+        Entity asteroid = entityAt(0, 0, 8);
+
+        assertEquals(SweptCollision.NO_IMPACT, SweptCollision.timeOfImpact(bullet, asteroid, FRAME), 0);
+    }
+
+    @Test
+    public void reportsNoImpactWithoutRelativeMotion()
+    {
+        Entity bullet = entityAt(20, 0, 2);
+        bullet.setDx(-400);
+        Entity asteroid = entityAt(0, 0, 8);
+        asteroid.setDx(-400);
+
+        assertEquals(SweptCollision.NO_IMPACT, SweptCollision.timeOfImpact(bullet, asteroid, FRAME), 0);
+    }
+
+    @Test
+    public void reportsNoImpactForAHitAfterTheFrame()
+    {
+        // Still 10 units short of touching the asteroid at the end of the frame
+        Entity bullet = entityAt(-20, 0, 2);
+        bullet.setDx(400);
+        Entity asteroid = entityAt(0, 0, 8);
+
+        assertEquals(SweptCollision.NO_IMPACT, SweptCollision.timeOfImpact(bullet, asteroid, FRAME), 0);
+    }
+
+    private static Entity entityAt(float x, float y, float radius)
+    {
+        Entity entity = new Entity();
+        entity.setX(x);
+        entity.setY(y);
+        entity.setRadius(radius);
+        return entity;
+    }
+}
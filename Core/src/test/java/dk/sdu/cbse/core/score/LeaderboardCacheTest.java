@@ -0,0 +1,178 @@
+package dk.sdu.cbse.core.score;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link LeaderboardCache}.
+ */
+public class LeaderboardCacheTest
+{
+    private static final long LONG_TTL_MILLIS = 60_000;
+
+    @Test
+    public void refreshesOnceTheTimeToLiveExpires() throws Exception
+    {
+        TopScoresService service = new TopScoresService();
+        LeaderboardCache cache = new LeaderboardCache(service, 10, 50);
+        List<ScoreData> topScores = scores("alice");
+
+        cache.get();
+        service.complete(topScores);
+        assertEquals(topScores, cache.get());
+        assertFalse(cache.isStale());
+        assertEquals(1, service.fetches.size());
+
+        Thread.sleep(80);
+
+        assertTrue(cache.isStale());
+        cache.get();
+        assertEquals(2, service.fetches.size());
+        assertEquals(2, cache.getRefreshCount());
+    }
+
+    @Test
+    public void staysStaleWhenInvalidatedDuringARefresh()
+    {
+        TopScoresService service = new TopScoresService();
+        LeaderboardCache cache = new LeaderboardCache(service, 10, LONG_TTL_MILLIS);
+        List<ScoreData> before = scores("alice");
+        List<ScoreData> after = scores("bob", "alice");
+
+        cache.get();
+        cache.invalidate();
+        service.complete(before);
+
+        // The fetched entries predate the invalidation, so they are served but refreshed again
+        assertTrue(cache.isStale());
+        assertEquals(before, cache.get());
+        assertEquals(2, service.fetches.size());
+
+        service.complete(after);
+        assertFalse(cache.isStale());
+        assertEquals(after, cache.get());
+    }
+
+    @Test
+    public void startsOnlyOneRefreshAtATime()
+    {
+        TopScoresService service = new TopScoresService();
+        LeaderboardCache cache = new LeaderboardCache(service, 10, LONG_TTL_MILLIS);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(Collections.emptyList(), cache.get());
+        }
+        cache.invalidate();
+        CompletableFuture<List<ScoreData>> refresh = cache.refresh();
+
+        assertTrue(refresh.isDone());
+        assertEquals(1, service.fetches.size());
+        assertEquals(1, cache.getRefreshCount());
+
+        service.complete(scores("alice"));
+        cache.get();
+        assertEquals(2, service.fetches.size());
+    }
+
+    @Test
+    public void keepsTheOldEntriesAfterAnEmptyRefresh()
+    {
+        TopScoresService service = new TopScoresService();
+        LeaderboardCache cache = new LeaderboardCache(service, 10, LONG_TTL_MILLIS);
+        List<ScoreData> topScores = scores("alice", "bob");
+
+        cache.get();
+        service.complete(topScores);
+        cache.invalidate();
+        cache.get();
+        service.complete(Collections.emptyList());
+
+        assertEquals(topScores, cache.get());
+
+        // The failed refresh still waits for the time to live before retrying
+        assertFalse(cache.isStale());
+        assertEquals(2, service.fetches.size());
+    }
+
+    private static List<ScoreData> scores(String... playerNames)
+    {
+        List<ScoreData> scores = new ArrayList<>();
+        for (int i = 0; i < playerNames.length; i++) {
+            scores.add(new ScoreData(playerNames[i], (playerNames.length - i) * 100));
+        }
+        return scores;
+    }
+
+    /**
+     * Service handing out top score fetches that the test completes by hand.
+     */
+    private static class TopScoresService implements IAsyncScoreService
+    {
+        final List<CompletableFuture<List<ScoreData>>> fetches = new ArrayList<>();
+
+        /**
+         * Completes the latest fetch.
+         */
+        void complete(List<ScoreData> topScores)
+        {
+            fetches.get(fetches.size() - 1).complete(topScores);
+        }
+
+        @Override
+        public CompletableFuture<List<ScoreData>> getTopScoresAsync(int limit)
+        {
+            CompletableFuture<List<ScoreData>> fetch = new CompletableFuture<>();
+            fetches.add(fetch);
+            return fetch;
+        }
+
+        @Override
+        public CompletableFuture<Boolean> submitScoreAsync(String playerName, int scoreValue)
+        {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> submitScoresAsync(List<ScoreData> scores)
+        {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        @Override
+        public CompletableFuture<ScoreData> getPlayerHighScoreAsync(String playerName)
+        {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<List<ScoreData>> getPlayerScoresAsync(String playerName)
+        {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+
+        @Override
+        public CompletableFuture<Boolean> initializeAsync()
+        {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        @Override
+        public boolean isServiceAvailable()
+        {
+            return true;
+        }
+
+        @Override
+        public void shutdown()
+        {
+        }
+    }
+}
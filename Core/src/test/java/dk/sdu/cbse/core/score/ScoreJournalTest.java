@@ -0,0 +1,207 @@
+package dk.sdu.cbse.core.score;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link ScoreJournal}.
+ */
+public class ScoreJournalTest
+{
+    // Journal header, and the size of a record written by score()
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 8 + 4 + 4 + 2 + 4 + 8;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replaysScoresAfterReopening() throws IOException
+    {
+        Path path = folder.getRoot().toPath().resolve("journal.bin");
+        try (ScoreJournal journal = ScoreJournal.open(path, 4096)) {
+            assertEquals(3, journal.appendAll(List.of(score(1), score(2), score(3))));
+        }
+
+        try (ScoreJournal journal = ScoreJournal.open(path)) {
+            assertEquals(4096, journal.getCapacity());
+            assertEquals(3, journal.getPendingCount());
+            assertEquals(List.of(1, 2, 3), values(journal.read(10)));
+        }
+    }
+
+    @Test
+    public void generatesSessionIdsForScoresWithoutOne() throws IOException
+    {
+        Path path = folder.getRoot().toPath().resolve("journal.bin");
+        try (ScoreJournal journal = ScoreJournal.open(path, 4096)) {
+            journal.appendAll(List.of(new ScoreData("anonymous", 5)));
+
+            String sessionId = journal.read(1).getScores().get(0).getSessionId();
+            assertTrue(sessionId != null && !sessionId.isEmpty());
+        }
+    }
+
+    @Test
+    public void endsAtATornRecord() throws IOException
+    {
+        Path path = folder.getRoot().toPath().resolve("journal.bin");
+        try (ScoreJournal journal = ScoreJournal.open(path, 4096)) {
+            journal.appendAll(List.of(score(1), score(2), score(3)));
+        }
+
+        // A crash while writing the third record leaves a payload that fails its checksum
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0x7F}), HEADER_SIZE + 2 * RECORD_SIZE + 20);
+        }
+
+        try (ScoreJournal journal = ScoreJournal.open(path)) {
+            assertEquals(2, journal.getPendingCount());
+            assertEquals(List.of(1, 2), values(journal.read(10)));
+
+            // New scores go where the torn record was
+            journal.appendAll(List.of(score(4)));
+        }
+        try (ScoreJournal journal = ScoreJournal.open(path)) {
+            assertEquals(List.of(1, 2, 4), values(journal.read(10)));
+        }
+    }
+
+    @Test
+    public void keepsOnlyUnacknowledgedScoresAfterReopening() throws IOException
+    {
+        Path path = folder.getRoot().toPath().resolve("journal.bin");
+        try (ScoreJournal journal = ScoreJournal.open(path, 4096)) {
+            journal.appendAll(List.of(score(1), score(2), score(3)));
+            journal.acknowledge(journal.read(2));
+            assertEquals(1, journal.getPendingCount());
+        }
+
+        try (ScoreJournal journal = ScoreJournal.open(path)) {
+            assertEquals(List.of(3), values(journal.read(10)));
+        }
+    }
+
+    @Test
+    public void compactsAndRecoversAfterwards() throws IOException
+    {
+        Path path = folder.getRoot().toPath().resolve("journal.bin");
+        int capacity = HEADER_SIZE + 10 * RECORD_SIZE + 4;
+        List<Integer> expected = new ArrayList<>();
+
+        try (ScoreJournal journal = ScoreJournal.open(path, capacity)) {
+            // Many times the capacity passes through, which only fits if space is reclaimed,
+            // while the last score of every round stays unacknowledged
+            int next = 0;
+            for (int round = 0; round < 20; round++) {
+                assertEquals(2, journal.appendAll(List.of(score(next++), score(next++))));
+                journal.acknowledge(journal.read(journal.getPendingCount() - 1));
+            }
+
+            for (ScoreData score : journal.read(100).getScores()) {
+                expected.add(score.getScoreValue());
+            }
+            assertEquals(journal.getPendingCount(), expected.size());
+        }
+
+        try (ScoreJournal journal = ScoreJournal.open(path)) {
+            assertEquals(expected, values(journal.read(100)));
+        }
+    }
+
+    @Test
+    public void refusesToCompactOverLiveRecords() throws IOException
+    {
+        Path path = folder.getRoot().toPath().resolve("journal.bin");
+        int capacity = HEADER_SIZE + 10 * RECORD_SIZE + 4;
+
+        try (ScoreJournal journal = ScoreJournal.open(path, capacity)) {
+            List<ScoreData> scores = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                scores.add(score(i));
+            }
+            assertEquals(10, journal.appendAll(scores));
+
+            // Five remaining records do not fit in front of themselves, so nothing is moved
+            journal.acknowledge(journal.read(5));
+            assertEquals(0, journal.appendAll(Collections.singletonList(score(10))));
+
+            // Four do, with room for the end marker behind them
+            journal.acknowledge(journal.read(1));
+            assertEquals(1, journal.appendAll(Collections.singletonList(score(10))));
+        }
+
+        try (ScoreJournal journal = ScoreJournal.open(path)) {
+            assertEquals(List.of(6, 7, 8, 9, 10), values(journal.read(100)));
+        }
+    }
+
+    @Test
+    public void survivesACrashDuringCompaction() throws IOException
+    {
+        Path path = folder.getRoot().toPath().resolve("journal.bin");
+        try (ScoreJournal journal = ScoreJournal.open(path, 4096)) {
+            List<ScoreData> scores = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                scores.add(score(i));
+            }
+            journal.appendAll(scores);
+            journal.acknowledge(journal.read(6));
+        }
+
+        // A compaction torn halfway wrote into the acknowledged space, the header still points past it
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[2 * RECORD_SIZE + 5]), HEADER_SIZE);
+        }
+
+        try (ScoreJournal journal = ScoreJournal.open(path)) {
+            assertEquals(List.of(6, 7, 8, 9), values(journal.read(100)));
+        }
+    }
+
+    @Test
+    public void ignoresStaleAcknowledgements() throws IOException
+    {
+        Path path = folder.getRoot().toPath().resolve("journal.bin");
+        try (ScoreJournal journal = ScoreJournal.open(path, 4096)) {
+            journal.appendAll(List.of(score(1), score(2)));
+            ScoreJournal.Batch batch = journal.read(1);
+            journal.acknowledge(batch);
+            journal.acknowledge(batch);
+
+            assertEquals(List.of(2), values(journal.read(10)));
+        }
+    }
+
+    /**
+     * Creates a score whose record is exactly {@link #RECORD_SIZE} bytes.
+     */
+    private static ScoreData score(int value)
+    {
+        ScoreData score = new ScoreData("p" + (value % 10), value);
+        score.setSessionId(String.format("s-%06d", value));
+        return score;
+    }
+
+    private static List<Integer> values(ScoreJournal.Batch batch)
+    {
+        List<Integer> values = new ArrayList<>();
+        for (ScoreData score : batch.getScores()) {
+            values.add(score.getScoreValue());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,173 @@
+package dk.sdu.cbse.core.score;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ScoreJsonReader}.
+ */
+public class ScoreJsonReaderTest
+{
+    @Test
+    public void readsAPrettyPrintedArray() throws IOException
+    {
+        String json = "[ {\n  \"id\" : 7,\n  \"playerName\" : \"alice\",\n  \"scoreValue\" : 1200,\n"
+                + "  \"gameDate\" : \"2024-03-01T12:30:15.25\",\n  \"sessionId\" : \"s-1\"\n}, "
+                + "{ \"id\" : 8, \"playerName\" : \"bob\", \"scoreValue\" : 40, \"sessionId\" : null } ]";
+
+        List<ScoreData> scores = ScoreJsonReader.readScores(bytes(json));
+
+        assertEquals(2, scores.size());
+        ScoreData alice = scores.get(0);
+        assertEquals(Long.valueOf(7), alice.getId());
+        assertEquals("alice", alice.getPlayerName());
+        assertEquals(1200, alice.getScoreValue());
+        assertEquals(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 250_000_000), alice.getGameDate());
+        assertEquals("s-1", alice.getSessionId());
+        assertNull(scores.get(1).getSessionId());
+    }
+
+    @Test
+    public void decodesEscapes() throws IOException
+    {
+        String json = "{\"playerName\":\"a\\\"b\\\\c\\/d\\n\\t\\u00e9\\u0041\"}";
+
+        assertEquals("a\"b\\c/d\n\t\u00e9A", ScoreJsonReader.readScore(bytes(json)).getPlayerName());
+    }
+
+    @Test
+    public void decodesSurrogatePairsFromEscapesAndRawBytes() throws IOException
+    {
+        String expected = "x\ud83d\ude80y";
+
+        ScoreData escaped = ScoreJsonReader.readScore(bytes("{\"playerName\":\"x\\ud83d\\ude80y\"}"));
+        ScoreData raw = ScoreJsonReader.readScore(bytes("{\"playerName\":\"" + expected + "\"}"));
+
+        assertEquals(expected, escaped.getPlayerName());
+        assertEquals(expected, raw.getPlayerName());
+        assertEquals(4, raw.getPlayerName().length());
+    }
+
+    @Test
+    public void readsMultiByteCharactersSplitAcrossReads() throws IOException
+    {
+        String name = "\u00f8\u20ac\ud83d\ude80";
+        InputStream trickle = new ByteArrayInputStream(bytes("[{\"playerName\":\"" + name + "\",\"scoreValue\":5}]")) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 1));
+            }
+        };
+
+        List<ScoreData> scores = ScoreJsonReader.readScores(trickle);
+
+        assertEquals(1, scores.size());
+        assertEquals(name, scores.get(0).getPlayerName());
+        assertEquals(5, scores.get(0).getScoreValue());
+    }
+
+    @Test
+    public void readsDatesInEveryLayout() throws IOException
+    {
+        assertEquals(LocalDateTime.of(2024, 1, 2, 3, 4), date("\"2024-01-02T03:04\""));
+        assertEquals(LocalDateTime.of(2024, 1, 2, 3, 4, 5), date("\"2024-01-02T03:04:05\""));
+        assertEquals(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 123_456_789), date("\"2024-01-02T03:04:05.123456789\""));
+        assertEquals(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 6), date("[2024,1,2,3,4,5,6]"));
+        assertEquals(LocalDateTime.of(2024, 1, 2, 0, 0), date("[2024,1,2]"));
+    }
+
+    @Test
+    public void fallsBackToTheCurrentTimeForMissingDates() throws IOException
+    {
+        LocalDateTime before = LocalDateTime.now();
+
+        // Null and unparseable dates leave the default of ScoreData in place
+        assertTrue(!date("null").isBefore(before));
+        assertTrue(!date("\"yesterday\"").isBefore(before));
+    }
+
+    @Test
+    public void skipsUnknownFieldsAndScoresWithoutAName() throws IOException
+    {
+        String json = "[{\"scoreValue\":1},"
+                + "{\"extra\":{\"nested\":[1,\"]}\",{\"x\":true}]},\"flag\":false,\"n\":null,"
+                + "\"big\":-1.5e3,\"playerName\":\"carol\",\"scoreValue\":2.9}]";
+
+        List<ScoreData> scores = ScoreJsonReader.readScores(bytes(json));
+
+        assertEquals(1, scores.size());
+        assertEquals("carol", scores.get(0).getPlayerName());
+        assertEquals(2, scores.get(0).getScoreValue());
+    }
+
+    @Test
+    public void readsEmptyArrays() throws IOException
+    {
+        assertTrue(ScoreJsonReader.readScores(bytes(" [ ] ")).isEmpty());
+    }
+
+    @Test
+    public void rejectsMalformedInput()
+    {
+        assertMalformed("");
+        assertMalformed("{\"playerName\":\"a\"}");
+        assertMalformed("[{\"playerName\":\"a\"}");
+        assertMalformed("[{\"playerName\":\"a\"} {\"playerName\":\"b\"}]");
+        assertMalformed("[{\"playerName\":\"a\",}]");
+        assertMalformed("[{\"playerName\":\"unterminated}]");
+        assertMalformed("[{\"playerName\":\"\\x\"}]");
+        assertMalformed("[{\"playerName\":\"\\u12g4\"}]");
+        assertMalformed("[{\"playerName\":\"a\",\"scoreValue\":-}]");
+        assertMalformed("[{\"playerName\":\"a\",\"flag\":tru}]");
+        assertMalformed("[{\"playerName\":\"a\",\"extra\":[1,2}]");
+    }
+
+    @Test
+    public void rejectsMalformedUtf8()
+    {
+        byte[] truncated = {'{', '"', 'p', 'l', 'a', 'y', 'e', 'r', 'N', 'a', 'm', 'e', '"', ':', '"',
+                (byte) 0xE2, (byte) 0x82, '"', '}'};
+        byte[] invalidLead = {'{', '"', 'p', 'l', 'a', 'y', 'e', 'r', 'N', 'a', 'm', 'e', '"', ':', '"',
+                (byte) 0xFF, '"', '}'};
+
+        for (byte[] json : new byte[][] {truncated, invalidLead}) {
+            try {
+                ScoreJsonReader.readScore(json);
+                fail("Expected malformed UTF-8 to be rejected");
+            } catch (IOException expected) {
+                // expected
+            }
+        }
+    }
+
+    private static LocalDateTime date(String value) throws IOException
+    {
+        return ScoreJsonReader.readScore(bytes("{\"playerName\":\"a\",\"gameDate\":" + value + "}")).getGameDate();
+    }
+
+    private static void assertMalformed(String json)
+    {
+        try {
+            ScoreJsonReader.readScores(bytes(json));
+            fail("Expected malformed JSON to be rejected: " + json);
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+
+    private static byte[] bytes(String json)
+    {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
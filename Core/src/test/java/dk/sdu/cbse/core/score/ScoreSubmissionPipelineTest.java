@@ -0,0 +1,292 @@
+package dk.sdu.cbse.core.score;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import dk.sdu.cbse.core.score.IAsyncScoreService.SubmitResult;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link ScoreSubmissionPipeline}.
+ */
+public class ScoreSubmissionPipelineTest
+{
+    // Batch limit of the Scoring service
+    private static final int SERVICE_BATCH_LIMIT = 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void coalescesReportsOfTheSameSession() throws Exception
+    {
+        RecordingService service = new RecordingService();
+        ScoreSubmissionPipeline pipeline = new ScoreSubmissionPipeline(service);
+
+        pipeline.submit("alice", "s1", 10);
+        pipeline.submit("alice", "s1", 30);
+        pipeline.submit("alice", "s1", 20);
+        pipeline.submit("bob", "s2", 5);
+
+        assertTrue(pipeline.flush().get());
+        assertEquals(1, service.batches.size());
+        assertEquals(2, service.batches.get(0).size());
+        assertEquals(30, service.batches.get(0).get(0).getScoreValue());
+    }
+
+    @Test
+    public void splitsLargeFlushesIntoBatchesTheServiceAccepts() throws Exception
+    {
+        RecordingService service = new RecordingService();
+        ScoreSubmissionPipeline pipeline = new ScoreSubmissionPipeline(service);
+
+        int sessions = SERVICE_BATCH_LIMIT + 24;
+        for (int i = 0; i < sessions; i++) {
+            pipeline.submit("player", "session-" + i, i);
+        }
+
+        assertTrue(pipeline.flush().get());
+        int sent = 0;
+        for (List<ScoreData> batch : service.batches) {
+            assertTrue(batch.size() <= ScoreSubmissionPipeline.MAX_BATCH_SIZE);
+            sent += batch.size();
+        }
+        assertEquals(sessions, sent);
+        assertEquals(0, pipeline.getPendingCount());
+    }
+
+    @Test
+    public void dropsBatchesTheServiceRefuses() throws Exception
+    {
+        RecordingService service = new RecordingService();
+        service.result = SubmitResult.REJECTED;
+        ScoreSubmissionPipeline pipeline = new ScoreSubmissionPipeline(service);
+
+        pipeline.submit("alice", "s1", 10);
+        pipeline.submit("bob", "s2", 20);
+
+        assertFalse(pipeline.flush().get());
+        assertEquals(0, pipeline.getPendingCount());
+        assertEquals(2, pipeline.getDroppedCount());
+    }
+
+    @Test
+    public void keepsBatchesThatFailed() throws Exception
+    {
+        RecordingService service = new RecordingService();
+        service.result = SubmitResult.FAILED;
+        ScoreSubmissionPipeline pipeline = new ScoreSubmissionPipeline(service);
+
+        pipeline.submit("alice", "s1", 10);
+
+        assertFalse(pipeline.flush().get());
+        assertEquals(1, pipeline.getPendingCount());
+        assertEquals(0, pipeline.getDroppedCount());
+    }
+
+    @Test
+    public void replayDropsRefusedJournalBatchesAndGoesOn() throws Exception
+    {
+        Path path = folder.getRoot().toPath().resolve("journal.bin");
+        try (ScoreJournal journal = ScoreJournal.open(path, 4096)) {
+            journal.appendAll(List.of(score("alice", "s1", 10), score("bob", "s2", 20)));
+
+            RecordingService service = new RecordingService();
+            service.result = SubmitResult.REJECTED;
+            ScoreSubmissionPipeline pipeline = new ScoreSubmissionPipeline(service, 10, journal);
+            pipeline.start();
+            try {
+                await(() -> journal.isEmpty() && pipeline.getDroppedCount() == 2);
+            } finally {
+                pipeline.shutdown(1000);
+            }
+
+            assertEquals(0, pipeline.getReplayedCount());
+        }
+    }
+
+    @Test
+    public void replayKeepsJournalBatchesThatFailed() throws Exception
+    {
+        Path path = folder.getRoot().toPath().resolve("journal.bin");
+        try (ScoreJournal journal = ScoreJournal.open(path, 4096)) {
+            journal.appendAll(List.of(score("alice", "s1", 10)));
+
+            RecordingService service = new RecordingService();
+            service.result = SubmitResult.FAILED;
+            ScoreSubmissionPipeline pipeline = new ScoreSubmissionPipeline(service, 10, journal);
+            pipeline.start();
+            try {
+                await(() -> service.batches.size() >= 3);
+            } finally {
+                pipeline.shutdown(1000);
+            }
+
+            assertEquals(1, journal.getPendingCount());
+            assertEquals(0, pipeline.getDroppedCount());
+        }
+    }
+
+    @Test
+    public void journalsOnThePipelineThreadNotTheCaller() throws Exception
+    {
+        Path path = folder.getRoot().toPath().resolve("journal.bin");
+        try (ScoreJournal journal = ScoreJournal.open(path, 4096)) {
+            RecordingService service = new RecordingService();
+            service.available = false;
+            service.availabilityCheck = new CompletableFuture<>();
+            ScoreSubmissionPipeline pipeline = new ScoreSubmissionPipeline(service, 10, journal);
+            pipeline.start();
+            try {
+                // The pipeline thread is now stuck checking on the service
+                await(() -> service.availabilityChecks.get() > 0);
+
+                pipeline.submit("alice", "s1", 10);
+                assertFalse(pipeline.flush().get());
+                assertTrue(journal.isEmpty());
+
+                service.availabilityCheck.complete(false);
+                await(() -> journal.getPendingCount() == 1);
+            } finally {
+                pipeline.shutdown(1000);
+            }
+            assertEquals(1, pipeline.getJournaledCount());
+        }
+    }
+
+    @Test
+    public void journalsWaitingScoresOnShutdown() throws Exception
+    {
+        Path path = folder.getRoot().toPath().resolve("journal.bin");
+        try (ScoreJournal journal = ScoreJournal.open(path, 4096)) {
+            RecordingService service = new RecordingService();
+            service.available = false;
+            service.availabilityCheck = new CompletableFuture<>();
+            ScoreSubmissionPipeline pipeline = new ScoreSubmissionPipeline(service, 10, journal);
+            pipeline.start();
+            await(() -> service.availabilityChecks.get() > 0);
+
+            pipeline.submit("alice", "s1", 10);
+            pipeline.flush().get();
+            pipeline.shutdown(1000);
+
+            assertEquals(List.of(10), values(journal.read(10)));
+        }
+    }
+
+    /**
+     * Waits for the pipeline's background work to reach a state.
+     */
+    private static void await(BooleanSupplier condition) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue("Pipeline did not get there in time", condition.getAsBoolean());
+    }
+
+    private static List<Integer> values(ScoreJournal.Batch batch)
+    {
+        List<Integer> values = new ArrayList<>();
+        for (ScoreData score : batch.getScores()) {
+            values.add(score.getScoreValue());
+        }
+        return values;
+    }
+
+    private static ScoreData score(String playerName, String sessionId, int scoreValue)
+    {
+        ScoreData score = new ScoreData(playerName, scoreValue);
+        score.setSessionId(sessionId);
+        return score;
+    }
+
+    /**
+     * Service recording every batch, refusing batches above the limit of the real service.
+     */
+    private static class RecordingService implements IAsyncScoreService
+    {
+        final List<List<ScoreData>> batches = Collections.synchronizedList(new ArrayList<>());
+        volatile SubmitResult result = SubmitResult.STORED;
+        volatile boolean available = true;
+        volatile CompletableFuture<Boolean> availabilityCheck = CompletableFuture.completedFuture(true);
+        final AtomicInteger availabilityChecks = new AtomicInteger();
+
+        @Override
+        public CompletableFuture<Boolean> checkAvailabilityAsync()
+        {
+            availabilityChecks.incrementAndGet();
+            return availabilityCheck;
+        }
+
+        @Override
+        public CompletableFuture<SubmitResult> submitScoresWithResultAsync(List<ScoreData> scores)
+        {
+            if (scores.size() > SERVICE_BATCH_LIMIT) {
+                return CompletableFuture.completedFuture(SubmitResult.REJECTED);
+            }
+            batches.add(new ArrayList<>(scores));
+            return CompletableFuture.completedFuture(result);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> submitScoresAsync(List<ScoreData> scores)
+        {
+            return submitScoresWithResultAsync(scores).thenApply(stored -> stored == SubmitResult.STORED);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> submitScoreAsync(String playerName, int scoreValue)
+        {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        @Override
+        public CompletableFuture<List<ScoreData>> getTopScoresAsync(int limit)
+        {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+
+        @Override
+        public CompletableFuture<ScoreData> getPlayerHighScoreAsync(String playerName)
+        {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<List<ScoreData>> getPlayerScoresAsync(String playerName)
+        {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+
+        @Override
+        public CompletableFuture<Boolean> initializeAsync()
+        {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        @Override
+        public boolean isServiceAvailable()
+        {
+            return available;
+        }
+
+        @Override
+        public void shutdown()
+        {
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package dk.sdu.cbse.enemy;
 
 import dk.sdu.cbse.core.Entity;
+import dk.sdu.cbse.core.collision.CollisionServices;
 import dk.sdu.cbse.core.collision.ICollisionService;
 import dk.sdu.cbse.core.component.GameComponent;
 
 import java.util.List;
-import java.util.ServiceLoader;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -88,16 +88,14 @@ public class EnemyComponent extends GameComponent {
     }
     
     /**
-     * Looks up external services using ServiceLoader.
+     * Looks up external services.
      */
     private void lookupServices() {
         try {
-            // Look up collision service
-            ServiceLoader<ICollisionService> collisionServices = ServiceLoader.load(ICollisionService.class);
-            for (ICollisionService service : collisionServices) {
-                collisionService = service;
-                logger.info("Found collision service: " + service.getClass().getName());
-                break;
+            // Look up the collision service for the configured broad phase
+            collisionService = CollisionServices.load();
+            if (collisionService != null) {
+                logger.info("Found collision service: " + collisionService.getClass().getName());
             }
         } catch (Exception e) {
             logger.log(Level.WARNING, "Error looking up services", e);
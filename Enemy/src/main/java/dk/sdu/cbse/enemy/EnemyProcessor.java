@@ -1,9 +1,14 @@
 package dk.sdu.cbse.enemy;
 
 import dk.sdu.cbse.core.Entity;
+import dk.sdu.cbse.core.EntityStore;
 import dk.sdu.cbse.core.IEntityProcessorService;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Processor that handles enemy AI behavior and movement.
@@ -14,12 +19,21 @@ public class EnemyProcessor implements IEntityProcessorService {
     private static final int GAME_WIDTH = 800;
     private static final int GAME_HEIGHT = 600;
     
+    // Enemies steer towards the player but only move themselves
+    private static final Set<String> READ_TYPES =
+            Collections.unmodifiableSet(new HashSet<>(Arrays.asList("enemy", "player")));
+    private static final Set<String> WRITE_TYPES = Collections.singleton("enemy");
+    
+    // Store slots of the enemies processed this frame
+    private int[] slots = new int[16];
+    
     @Override
     public void process(List<Entity> entities, float deltaTime) {
         // Find the player entity (if one exists)
         Entity playerEntity = findPlayerEntity(entities);
         
         // Process all enemy entities
+        int count = 0;
         for (Entity entity : entities) {
             if (entity instanceof Enemy && entity.isActive()) {
                 Enemy enemy = (Enemy) entity;
@@ -36,10 +50,27 @@ public class EnemyProcessor implements IEntityProcessorService {
                 // Process movement based on current state
                 processEnemyMovement(enemy, deltaTime);
                 
-                // Apply screen wrapping
-                wrapPosition(enemy);
+                if (count == slots.length) {
+                    slots = Arrays.copyOf(slots, count * 2);
+                }
+                slots[count++] = enemy.getSlot();
             }
         }
+        
+        // Apply velocity to position and screen wrapping on the store columns
+        EntityStore store = EntityStore.getDefault();
+        store.integratePositions(slots, count, deltaTime);
+        wrapPositions(store, count);
+    }
+    
+    @Override
+    public Set<String> getReadTypes() {
+        return READ_TYPES;
+    }
+    
+    @Override
+    public Set<String> getWriteTypes() {
+        return WRITE_TYPES;
     }
     
     /**
@@ -71,7 +102,7 @@ public class EnemyProcessor implements IEntityProcessorService {
     }
     
     /**
-     * Processes enemy movement based on its current state.
+     * Updates enemy velocity based on its current state.
      */
     private void processEnemyMovement(Enemy enemy, float deltaTime) {
         // Different movement processing based on behavior state
@@ -91,10 +122,6 @@ public class EnemyProcessor implements IEntityProcessorService {
                 processWanderingMovement(enemy, deltaTime); // Default to wandering
                 break;
         }
-        
-        // Apply velocity to position
-        enemy.setX(enemy.getX() + enemy.getDx() * deltaTime);
-        enemy.setY(enemy.getY() + enemy.getDy() * deltaTime);
     }
     
     /**
@@ -154,21 +181,28 @@ public class EnemyProcessor implements IEntityProcessorService {
     }
     
     /**
-     * Wraps enemy position around screen edges.
+     * Wraps the gathered enemy positions around screen edges.
      */
-    private void wrapPosition(Enemy enemy) {
-        // Wrap horizontally
-        if (enemy.getX() < 0) {
-            enemy.setX(GAME_WIDTH);
-        } else if (enemy.getX() > GAME_WIDTH) {
-            enemy.setX(0);
-        }
+    private void wrapPositions(EntityStore store, int count) {
+        float[] x = store.getXColumn();
+        float[] y = store.getYColumn();
         
-        // Wrap vertically
-        if (enemy.getY() < 0) {
-            enemy.setY(GAME_HEIGHT);
-        } else if (enemy.getY() > GAME_HEIGHT) {
-            enemy.setY(0);
+        for (int i = 0; i < count; i++) {
+            int slot = slots[i];
+            
+            // Wrap horizontally
+            if (x[slot] < 0) {
+                x[slot] = GAME_WIDTH;
+            } else if (x[slot] > GAME_WIDTH) {
+                x[slot] = 0;
+            }
+            
+            // Wrap vertically
+            if (y[slot] < 0) {
+                y[slot] = GAME_HEIGHT;
+            } else if (y[slot] > GAME_HEIGHT) {
+                y[slot] = 0;
+            }
         }
     }
 }
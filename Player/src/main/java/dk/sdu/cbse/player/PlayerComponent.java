@@ -2,6 +2,7 @@ package dk.sdu.cbse.player;
 
 import dk.sdu.cbse.core.Entity;
 import dk.sdu.cbse.core.bullet.IBulletService;
+import dk.sdu.cbse.core.collision.CollisionServices;
 import dk.sdu.cbse.core.collision.ICollisionService;
 import dk.sdu.cbse.core.component.GameComponent;
 
@@ -103,12 +104,10 @@ public class PlayerComponent extends GameComponent {
      */
     private void lookupServices() {
         try {
-            // Look up collision service
-            ServiceLoader<ICollisionService> collisionServices = ServiceLoader.load(ICollisionService.class);
-            for (ICollisionService service : collisionServices) {
-                collisionService = service;
-                logger.info("Found collision service: " + service.getClass().getName());
-                break;
+            // Look up the collision service for the configured broad phase
+            collisionService = CollisionServices.load();
+            if (collisionService != null) {
+                logger.info("Found collision service: " + collisionService.getClass().getName());
             }
             
             // Look up bullet service
@@ -1,13 +1,17 @@
 package dk.sdu.cbse.player;
 
 import dk.sdu.cbse.core.Entity;
+import dk.sdu.cbse.core.EntityStore;
 import dk.sdu.cbse.core.IEntityProcessorService;
 import javafx.scene.Scene;
 import javafx.scene.input.KeyCode;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Processor responsible for handling player movement and controls.
@@ -17,11 +21,16 @@ public class PlayerProcessor implements IEntityProcessorService {
     private static final int GAME_WIDTH = 800;
     private static final int GAME_HEIGHT = 600;
     
+    private static final Set<String> TYPES = Collections.singleton("player");
+    
     // Keep track of which keys are currently pressed
     private final Map<KeyCode, Boolean> keyState = new HashMap<>();
     
     private Scene gameScene;
     
+    // Store slots of the players processed this frame
+    private int[] slots = new int[4];
+    
     public PlayerProcessor() {
         // Default initializations
     }
@@ -99,18 +108,39 @@ public class PlayerProcessor implements IEntityProcessorService {
     @Override
     public void process(List<Entity> entities, float deltaTime) {
         // Process only player entities
+        int count = 0;
         for (Entity entity : entities) {
             if (entity instanceof Player && entity.isActive()) {
                 Player player = (Player) entity;
                 
                 // Process player physics
                 processPlayerMovement(player, deltaTime);
+                
+                if (count == slots.length) {
+                    slots = Arrays.copyOf(slots, count * 2);
+                }
+                slots[count++] = player.getSlot();
             }
         }
+        
+        // Update position and wrap around screen edges on the store columns
+        EntityStore store = EntityStore.getDefault();
+        store.integratePositions(slots, count, deltaTime);
+        wrapPositions(store, count);
+    }
+    
+    @Override
+    public Set<String> getReadTypes() {
+        return TYPES;
+    }
+    
+    @Override
+    public Set<String> getWriteTypes() {
+        return TYPES;
     }
     
     /**
-     * Updates player movement based on input and physics.
+     * Updates player rotation and velocity based on input and physics.
      */
     private void processPlayerMovement(Player player, float deltaTime) {
         // Handle rotation
@@ -138,13 +168,6 @@ public class PlayerProcessor implements IEntityProcessorService {
         // Apply deceleration
         player.setDx(player.getDx() * Player.DECELERATION);
         player.setDy(player.getDy() * Player.DECELERATION);
-        
-        // Update position
-        player.setX(player.getX() + player.getDx() * deltaTime);
-        player.setY(player.getY() + player.getDy() * deltaTime);
-        
-        // Wrap around screen edges
-        wrapPosition(player);
     }
     
     /**
@@ -161,21 +184,28 @@ public class PlayerProcessor implements IEntityProcessorService {
     }
     
     /**
-     * Wraps player position around screen edges.
+     * Wraps the gathered player positions around screen edges.
      */
-    private void wrapPosition(Player player) {
-        // Wrap horizontally
-        if (player.getX() < 0) {
-            player.setX(GAME_WIDTH);
-        } else if (player.getX() > GAME_WIDTH) {
-            player.setX(0);
-        }
+    private void wrapPositions(EntityStore store, int count) {
+        float[] x = store.getXColumn();
+        float[] y = store.getYColumn();
         
-        // Wrap vertically
-        if (player.getY() < 0) {
-            player.setY(GAME_HEIGHT);
-        } else if (player.getY() > GAME_HEIGHT) {
-            player.setY(0);
+        for (int i = 0; i < count; i++) {
+            int slot = slots[i];
+            
+            // Wrap horizontally
+            if (x[slot] < 0) {
+                x[slot] = GAME_WIDTH;
+            } else if (x[slot] > GAME_WIDTH) {
+                x[slot] = 0;
+            }
+            
+            // Wrap vertically
+            if (y[slot] < 0) {
+                y[slot] = GAME_HEIGHT;
+            } else if (y[slot] > GAME_HEIGHT) {
+                y[slot] = 0;
+            }
         }
     }
 }
@@ -6,9 +6,8 @@ import dk.sdu.cbse.core.bullet.IBulletService;
 import dk.sdu.cbse.core.weapon.IWeaponService;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -27,7 +26,10 @@ public class PlayerWeaponService implements IWeaponService {
     private static final int DEFAULT_BULLET_DAMAGE = 1;
     
     // Weapon state
-    private final Map<Entity, Float> cooldowns = new HashMap<>();
+    // Remaining cooldowns keyed by shooter ID, kept in parallel arrays to avoid boxing
+    private long[] cooldownIds = new long[4];
+    private float[] cooldownTimes = new float[4];
+    private int cooldownCount = 0;
     private String weaponType = "standard";
     private float cooldown = DEFAULT_COOLDOWN;
     private int level = 1;
@@ -60,6 +62,9 @@ public class PlayerWeaponService implements IWeaponService {
         }
     }
     
+    /**
+     * {@inheritDoc}
+     */
     @Override
     public List<Entity> shoot(Entity shooter) {
         // Check if weapon is on cooldown
@@ -73,7 +78,8 @@ public class PlayerWeaponService implements IWeaponService {
             return null;
         }
         
-        List<Entity> bullets = new ArrayList<>();
+        // Sized for the largest spread, so adding bullets never grows it
+        List<Entity> bullets = new ArrayList<>(3);
         
         // Different shooting patterns based on weapon level
         switch (level) {
@@ -103,7 +109,7 @@ public class PlayerWeaponService implements IWeaponService {
         }
         
         // Start cooldown
-        cooldowns.put(shooter, cooldown);
+        setRemainingCooldown(shooter.getId(), cooldown);
         
         return bullets;
     }
@@ -140,8 +146,8 @@ public class PlayerWeaponService implements IWeaponService {
         }
         
         // Check cooldown
-        Float remainingCooldown = cooldowns.get(shooter);
-        return remainingCooldown == null || remainingCooldown <= 0;
+        int index = indexOfCooldown(shooter.getId());
+        return index < 0 || cooldownTimes[index] <= 0;
     }
     
     @Override
@@ -155,21 +161,71 @@ public class PlayerWeaponService implements IWeaponService {
             return 0;
         }
         
-        Float remaining = cooldowns.get(shooter);
-        return remaining != null ? remaining : 0;
+        int index = indexOfCooldown(shooter.getId());
+        return index >= 0 ? cooldownTimes[index] : 0;
     }
     
     @Override
     public void update(Entity shooter, float deltaTime) {
         // Update cooldowns
-        if (shooter != null && cooldowns.containsKey(shooter)) {
-            float remaining = cooldowns.get(shooter) - deltaTime;
+        if (shooter == null) {
+            return;
+        }
+        
+        int index = indexOfCooldown(shooter.getId());
+        if (index >= 0) {
+            float remaining = cooldownTimes[index] - deltaTime;
             if (remaining <= 0) {
-                cooldowns.remove(shooter);
+                removeCooldown(index);
             } else {
-                cooldowns.put(shooter, remaining);
+                cooldownTimes[index] = remaining;
+            }
+        }
+    }
+    
+    /**
+     * Finds the cooldown entry for a shooter ID.
+     * 
+     * @param shooterId The shooter's entity ID
+     * @return The entry index, or -1 if the shooter has no cooldown
+     */
+    private int indexOfCooldown(long shooterId) {
+        for (int i = 0; i < cooldownCount; i++) {
+            if (cooldownIds[i] == shooterId) {
+                return i;
             }
         }
+        return -1;
+    }
+    
+    /**
+     * Sets the remaining cooldown for a shooter ID, adding an entry if needed.
+     * 
+     * @param shooterId The shooter's entity ID
+     * @param remaining Remaining cooldown in seconds
+     */
+    private void setRemainingCooldown(long shooterId, float remaining) {
+        int index = indexOfCooldown(shooterId);
+        if (index < 0) {
+            if (cooldownCount == cooldownIds.length) {
+                cooldownIds = Arrays.copyOf(cooldownIds, cooldownCount * 2);
+                cooldownTimes = Arrays.copyOf(cooldownTimes, cooldownCount * 2);
+            }
+            index = cooldownCount++;
+            cooldownIds[index] = shooterId;
+        }
+        cooldownTimes[index] = remaining;
+    }
+    
+    /**
+     * Removes a cooldown entry by moving the last entry into its place.
+     * 
+     * @param index The entry index
+     */
+    private void removeCooldown(int index) {
+        cooldownCount--;
+        cooldownIds[index] = cooldownIds[cooldownCount];
+        cooldownTimes[index] = cooldownTimes[cooldownCount];
     }
     
     @Override
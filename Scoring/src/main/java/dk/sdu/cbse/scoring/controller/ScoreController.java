@@ -1,16 +1,22 @@
 package dk.sdu.cbse.scoring.controller;
 
 import dk.sdu.cbse.scoring.model.Score;
+import dk.sdu.cbse.scoring.model.ScoreRequest;
 import dk.sdu.cbse.scoring.repository.ScoreRepository;
+import dk.sdu.cbse.scoring.service.ScoreBatchService;
+import dk.sdu.cbse.scoring.service.ScoreBatchService.BatchResult;
+import dk.sdu.cbse.scoring.service.ScoreRankIndex;
+import dk.sdu.cbse.scoring.service.TopScoreIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * REST Controller for managing game scores.
@@ -20,16 +26,45 @@ import java.util.Optional;
 @RequestMapping("/api/scores")
 public class ScoreController {
 
+    /**
+     * Maximum number of scores accepted in one batch request.
+     */
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    /**
+     * Number of scores returned by list endpoints when no limit is given.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * Maximum number of scores returned by list endpoints.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
     private final ScoreRepository scoreRepository;
+    private final ScoreBatchService scoreBatchService;
+    private final TopScoreIndex topScoreIndex;
+    private final ScoreRankIndex scoreRankIndex;
+
+    // Writes update the indexes after their transaction committed. Stores share the read lock,
+    // deletes take the write lock, so a store can never re-add a score deleted in between
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
 
     /**
      * Constructor with dependency injection.
      *
      * @param scoreRepository the repository for score data access
+     * @param scoreBatchService the service storing batched scores
+     * @param topScoreIndex the in-memory index of the highest scores
+     * @param scoreRankIndex the in-memory score counts for rank lookups
      */
     @Autowired
-    public ScoreController(ScoreRepository scoreRepository) {
+    public ScoreController(ScoreRepository scoreRepository, ScoreBatchService scoreBatchService,
+                           TopScoreIndex topScoreIndex, ScoreRankIndex scoreRankIndex) {
         this.scoreRepository = scoreRepository;
+        this.scoreBatchService = scoreBatchService;
+        this.topScoreIndex = topScoreIndex;
+        this.scoreRankIndex = scoreRankIndex;
     }
 
     /**
@@ -45,52 +80,129 @@ public class ScoreController {
         }
 
         Score score = new Score(scoreRequest.getPlayerName(), scoreRequest.getScoreValue());
-        Score savedScore = scoreRepository.save(score);
+        Score savedScore;
+        indexLock.readLock().lock();
+        try {
+            savedScore = scoreRepository.save(score);
+            topScoreIndex.add(savedScore);
+            scoreRankIndex.add(savedScore.getScoreValue());
+        } finally {
+            indexLock.readLock().unlock();
+        }
         return ResponseEntity.status(HttpStatus.CREATED).body(savedScore);
     }
 
     /**
-     * Get all scores, optionally limited and sorted.
+     * Create or update many scores at once.
+     * Scores of the same session are merged into one row holding the session's highest score.
+     *
+     * @param scoreRequests the scores to store, at most {@link #MAX_BATCH_SIZE}
+     * @return the number of inserted and updated scores with HTTP status 200 (OK)
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResult> createScores(@RequestBody List<ScoreRequest> scoreRequests) {
+        if (scoreRequests == null || scoreRequests.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        for (ScoreRequest scoreRequest : scoreRequests) {
+            if (scoreRequest == null || scoreRequest.getPlayerName() == null
+                    || scoreRequest.getPlayerName().trim().isEmpty()
+                    || (scoreRequest.getSessionId() != null && scoreRequest.getSessionId().length() > 64)) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        BatchResult result;
+        indexLock.readLock().lock();
+        try {
+            try {
+                result = scoreBatchService.saveBatch(scoreRequests);
+            } catch (DuplicateKeyException e) {
+                // A concurrent batch created one of the sessions first, retry as an update
+                result = scoreBatchService.saveBatch(scoreRequests);
+            }
+            topScoreIndex.addAll(result.getScores());
+            for (Score score : result.getScores()) {
+                Integer previousValue = result.getPreviousScoreValue(score);
+                if (previousValue == null) {
+                    scoreRankIndex.add(score.getScoreValue());
+                } else {
+                    scoreRankIndex.change(previousValue, score.getScoreValue());
+                }
+            }
+        } finally {
+            indexLock.readLock().unlock();
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Get a page of scores, sorted by score value and then ID in descending order.
+     * The next page is requested with the score value and ID of the last score of this one.
      *
-     * @param limit optional parameter to limit the number of results
+     * @param limit optional number of results, {@link #DEFAULT_PAGE_SIZE} by default and at most {@link #MAX_PAGE_SIZE}
+     * @param afterScore optional score value of the last score of the previous page
+     * @param afterId optional ID of the last score of the previous page, required with afterScore
      * @return list of scores
      */
     @GetMapping
-    public ResponseEntity<List<Score>> getAllScores(@RequestParam(required = false) Integer limit) {
-        List<Score> scores;
-        
-        if (limit != null && limit > 0) {
-            scores = scoreRepository.findAll(
-                PageRequest.of(0, limit, Sort.by(Sort.Direction.DESC, "scoreValue"))
-            ).getContent();
-        } else {
-            scores = scoreRepository.findAll(Sort.by(Sort.Direction.DESC, "scoreValue"));
+    public ResponseEntity<List<Score>> getAllScores(@RequestParam(required = false) Integer limit,
+                                                    @RequestParam(required = false) Integer afterScore,
+                                                    @RequestParam(required = false) Long afterId) {
+        if ((afterScore == null) != (afterId == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (afterScore != null) {
+            return ResponseEntity.ok(scoreRepository.findPageAfter(afterScore, afterId, pageSize(limit)));
+        }
+
+        // First pages within the index capacity are served from memory
+        List<Score> scores = topScoreIndex.getTop(pageSize(limit));
+        if (scores == null) {
+            scores = scoreRepository.findPage(pageSize(limit));
         }
-        
         return ResponseEntity.ok(scores);
     }
 
     /**
-     * Get the top 10 highest scores.
+     * Get the top 10 highest scores, served from the in-memory index.
      *
      * @return list of the top 10 scores
      */
     @GetMapping("/top")
     public ResponseEntity<List<Score>> getTopScores() {
-        List<Score> topScores = scoreRepository.findTop10Scores();
+        List<Score> topScores = topScoreIndex.getTop(10);
+        if (topScores == null) {
+            topScores = scoreRepository.findTop10Scores();
+        }
         return ResponseEntity.ok(topScores);
     }
 
     /**
-     * Get scores for a specific player.
+     * Get a page of scores for a specific player, paginated like {@link #getAllScores}.
      *
      * @param playerName the name of the player
+     * @param limit optional number of results, {@link #DEFAULT_PAGE_SIZE} by default and at most {@link #MAX_PAGE_SIZE}
+     * @param afterScore optional score value of the last score of the previous page
+     * @param afterId optional ID of the last score of the previous page, required with afterScore
      * @return list of scores for the player
      */
     @GetMapping("/player/{playerName}")
-    public ResponseEntity<List<Score>> getScoresByPlayer(@PathVariable String playerName) {
-        List<Score> scores = scoreRepository.findByPlayerNameOrderByScoreValueDesc(playerName);
-        
+    public ResponseEntity<List<Score>> getScoresByPlayer(@PathVariable String playerName,
+                                                         @RequestParam(required = false) Integer limit,
+                                                         @RequestParam(required = false) Integer afterScore,
+                                                         @RequestParam(required = false) Long afterId) {
+        if ((afterScore == null) != (afterId == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (afterScore != null) {
+            // Later pages may be empty, the player exists when the cursor came from an earlier page
+            return ResponseEntity.ok(scoreRepository.findPlayerPageAfter(playerName, afterScore, afterId, pageSize(limit)));
+        }
+
+        List<Score> scores = scoreRepository.findPlayerPage(playerName, pageSize(limit));
         if (scores.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
@@ -115,6 +227,37 @@ public class ScoreController {
         return ResponseEntity.ok(highestScore);
     }
 
+    /**
+     * Get the worldwide rank of a player's highest score.
+     *
+     * @param playerName the name of the player
+     * @return the rank of the player's highest score, or HTTP status 404 if the player has no scores
+     */
+    @GetMapping("/player/{playerName}/rank")
+    public ResponseEntity<RankResponse> getPlayerRank(@PathVariable String playerName) {
+        Score highestScore = scoreRepository.findTopByPlayerNameOrderByScoreValueDesc(playerName);
+
+        if (highestScore == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(new RankResponse(playerName, highestScore.getScoreValue(),
+                scoreRankIndex.getRank(highestScore.getScoreValue()), scoreRankIndex.getTotal()));
+    }
+
+    /**
+     * Get the rank a score value would hold among all stored scores.
+     * Equal scores share a rank.
+     *
+     * @param score the score value
+     * @return the rank of the score value
+     */
+    @GetMapping("/rank")
+    public ResponseEntity<RankResponse> getRank(@RequestParam int score) {
+        return ResponseEntity.ok(new RankResponse(null, score,
+                scoreRankIndex.getRank(score), scoreRankIndex.getTotal()));
+    }
+
     /**
      * Delete a score by ID.
      *
@@ -123,44 +266,66 @@ public class ScoreController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteScore(@PathVariable Long id) {
-        if (!scoreRepository.existsById(id)) {
-            return ResponseEntity.notFound().build();
+        // No store is in flight, so the value read is the one that gets deleted
+        indexLock.writeLock().lock();
+        try {
+            Optional<Score> score = scoreRepository.findById(id);
+            if (score.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+
+            scoreRepository.delete(score.get());
+            topScoreIndex.remove(id);
+            scoreRankIndex.remove(score.get().getScoreValue());
+        } finally {
+            indexLock.writeLock().unlock();
         }
-        
-        scoreRepository.deleteById(id);
         return ResponseEntity.noContent().build();
     }
 
     /**
-     * DTO for score creation requests.
+     * Gets the page size for a requested limit.
+     *
+     * @param limit the requested number of results, or null
+     * @return the limit capped to {@link #MAX_PAGE_SIZE}, or {@link #DEFAULT_PAGE_SIZE} if none was given
      */
-    public static class ScoreRequest {
-        private String playerName;
-        private int scoreValue;
-
-        public ScoreRequest() {
+    private static int pageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
         }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
 
-        public ScoreRequest(String playerName, int scoreValue) {
+    /**
+     * DTO for rank lookups.
+     */
+    public static class RankResponse {
+        private final String playerName;
+        private final int scoreValue;
+        private final long rank;
+        private final long totalScores;
+
+        public RankResponse(String playerName, int scoreValue, long rank, long totalScores) {
             this.playerName = playerName;
             this.scoreValue = scoreValue;
+            this.rank = rank;
+            this.totalScores = totalScores;
         }
 
         public String getPlayerName() {
             return playerName;
         }
 
-        public void setPlayerName(String playerName) {
-            this.playerName = playerName;
-        }
-
         public int getScoreValue() {
             return scoreValue;
         }
 
-        public void setScoreValue(int scoreValue) {
-            this.scoreValue = scoreValue;
+        public long getRank() {
+            return rank;
+        }
+
+        public long getTotalScores() {
+            return totalScores;
         }
     }
 }
-
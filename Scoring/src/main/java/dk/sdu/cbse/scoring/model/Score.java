@@ -1,17 +1,21 @@
 package dk.sdu.cbse.scoring.model;
 
-import org.hibernate.annotations.CreationTimestamp;
-
 import javax.persistence.*;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Objects;
 
 /**
  * Entity class representing a game score in the Asteroids game.
  * This class is mapped to a database table using JPA annotations.
+ * The indexes match the leaderboard order, highest score first with the newest
+ * row winning ties, so the paginated queries read them without sorting.
  */
 @Entity
-@Table(name = "scores")
+@Table(name = "scores", indexes = {
+        @Index(name = "idx_scores_score_value", columnList = "scoreValue DESC, id DESC"),
+        @Index(name = "idx_scores_player_score_value", columnList = "playerName, scoreValue DESC, id DESC")
+})
 public class Score {
 
     /**
@@ -36,12 +40,19 @@ public class Score {
 
     /**
      * The date and time when this score was recorded.
-     * Automatically set to the current time when the entity is created.
+     * Set to the current time when the entity is first stored without one,
+     * always in the microsecond precision the database keeps.
      */
-    @CreationTimestamp
     @Column(nullable = false)
     private LocalDateTime gameDate;
 
+    /**
+     * Identifier of the game session the score was submitted from, if any.
+     * Batched submissions keep a single row per session holding its highest score.
+     */
+    @Column(length = 64, unique = true)
+    private String sessionId;
+
     /**
      * Default constructor required by JPA.
      */
@@ -74,6 +85,18 @@ public class Score {
         this.gameDate = gameDate;
     }
 
+    /**
+     * Fills in the date before the score is first stored, cut to microseconds so the
+     * entity holds the same value the database returns when the row is read back.
+     */
+    @PrePersist
+    void onCreate() {
+        if (gameDate == null) {
+            gameDate = LocalDateTime.now();
+        }
+        gameDate = gameDate.truncatedTo(ChronoUnit.MICROS);
+    }
+
     /**
      * Gets the unique identifier for this score.
      *
@@ -146,6 +169,24 @@ public class Score {
         this.gameDate = gameDate;
     }
 
+    /**
+     * Gets the identifier of the game session this score was submitted from.
+     *
+     * @return the session ID, or null for scores submitted individually
+     */
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * Sets the identifier of the game session this score was submitted from.
+     *
+     * @param sessionId the session ID
+     */
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -154,12 +195,13 @@ public class Score {
         return scoreValue == score.scoreValue &&
                 Objects.equals(id, score.id) &&
                 Objects.equals(playerName, score.playerName) &&
-                Objects.equals(gameDate, score.gameDate);
+                Objects.equals(gameDate, score.gameDate) &&
+                Objects.equals(sessionId, score.sessionId);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, playerName, scoreValue, gameDate);
+        return Objects.hash(id, playerName, scoreValue, gameDate, sessionId);
     }
 
     @Override
@@ -169,6 +211,7 @@ public class Score {
                 ", playerName='" + playerName + '\'' +
                 ", scoreValue=" + scoreValue +
                 ", gameDate=" + gameDate +
+                ", sessionId='" + sessionId + '\'' +
                 '}';
     }
 }
@@ -0,0 +1,43 @@
+package dk.sdu.cbse.scoring.model;
+
+/**
+ * A score submitted by a game client, before it is stored.
+ * Scores carrying a session ID belong to one game session, of which only the highest score is kept.
+ */
+public class ScoreRequest {
+    private String playerName;
+    private int scoreValue;
+    private String sessionId;
+
+    public ScoreRequest() {
+    }
+
+    public ScoreRequest(String playerName, int scoreValue) {
+        this.playerName = playerName;
+        this.scoreValue = scoreValue;
+    }
+
+    public String getPlayerName() {
+        return playerName;
+    }
+
+    public void setPlayerName(String playerName) {
+        this.playerName = playerName;
+    }
+
+    public int getScoreValue() {
+        return scoreValue;
+    }
+
+    public void setScoreValue(int scoreValue) {
+        this.scoreValue = scoreValue;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+}
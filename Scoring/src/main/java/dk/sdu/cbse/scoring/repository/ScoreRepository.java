@@ -3,6 +3,7 @@ package dk.sdu.cbse.scoring.repository;
 import dk.sdu.cbse.scoring.model.Score;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,6 +15,31 @@ import java.util.List;
 @Repository
 public interface ScoreRepository extends JpaRepository<Score, Long> {
 
+    /**
+     * First page of all scores in leaderboard order.
+     */
+    String SCORES_PAGE_SQL = "SELECT * FROM scores ORDER BY score_value DESC, id DESC LIMIT :limit";
+
+    /**
+     * Page of all scores following the given score and ID in leaderboard order.
+     */
+    String SCORES_PAGE_AFTER_SQL = "SELECT * FROM scores"
+            + " WHERE score_value <= :afterScore AND (score_value < :afterScore OR id < :afterId)"
+            + " ORDER BY score_value DESC, id DESC LIMIT :limit";
+
+    /**
+     * First page of the scores of a player in leaderboard order.
+     */
+    String PLAYER_SCORES_PAGE_SQL = "SELECT * FROM scores WHERE player_name = :playerName"
+            + " ORDER BY score_value DESC, id DESC LIMIT :limit";
+
+    /**
+     * Page of the scores of a player following the given score and ID in leaderboard order.
+     */
+    String PLAYER_SCORES_PAGE_AFTER_SQL = "SELECT * FROM scores WHERE player_name = :playerName"
+            + " AND score_value <= :afterScore AND (score_value < :afterScore OR id < :afterId)"
+            + " ORDER BY score_value DESC, id DESC LIMIT :limit";
+
     /**
      * Find all scores for a specific player, ordered by score value in descending order.
      *
@@ -54,5 +80,58 @@ public interface ScoreRepository extends JpaRepository<Score, Long> {
      * @return the count of scores greater than or equal to the specified value
      */
     long countByScoreValueGreaterThanEqual(int scoreValue);
+
+    /**
+     * Count the scores per distinct score value.
+     *
+     * @return pairs of score value and number of scores with that value
+     */
+    @Query("SELECT s.scoreValue, COUNT(s) FROM Score s GROUP BY s.scoreValue")
+    List<Object[]> countScoresByValue();
+
+    /**
+     * Find the first page of scores, ordered by score value and then ID in descending order.
+     *
+     * @param limit the maximum number of scores to return
+     * @return the highest scores
+     */
+    @Query(value = SCORES_PAGE_SQL, nativeQuery = true)
+    List<Score> findPage(@Param("limit") int limit);
+
+    /**
+     * Find the page of scores that follows a given score, using keyset pagination.
+     * The cost does not grow with the page number, unlike offset pagination.
+     *
+     * @param afterScore the score value of the last score of the previous page
+     * @param afterId the ID of the last score of the previous page
+     * @param limit the maximum number of scores to return
+     * @return the scores following the given one
+     */
+    @Query(value = SCORES_PAGE_AFTER_SQL, nativeQuery = true)
+    List<Score> findPageAfter(@Param("afterScore") int afterScore, @Param("afterId") long afterId,
+                              @Param("limit") int limit);
+
+    /**
+     * Find the first page of scores of a player, ordered by score value and then ID in descending order.
+     *
+     * @param playerName the name of the player
+     * @param limit the maximum number of scores to return
+     * @return the highest scores of the player
+     */
+    @Query(value = PLAYER_SCORES_PAGE_SQL, nativeQuery = true)
+    List<Score> findPlayerPage(@Param("playerName") String playerName, @Param("limit") int limit);
+
+    /**
+     * Find the page of scores of a player that follows a given score, using keyset pagination.
+     *
+     * @param playerName the name of the player
+     * @param afterScore the score value of the last score of the previous page
+     * @param afterId the ID of the last score of the previous page
+     * @param limit the maximum number of scores to return
+     * @return the player's scores following the given one
+     */
+    @Query(value = PLAYER_SCORES_PAGE_AFTER_SQL, nativeQuery = true)
+    List<Score> findPlayerPageAfter(@Param("playerName") String playerName, @Param("afterScore") int afterScore,
+                                    @Param("afterId") long afterId, @Param("limit") int limit);
 }
 
@@ -0,0 +1,250 @@
+package dk.sdu.cbse.scoring.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import dk.sdu.cbse.scoring.model.Score;
+import dk.sdu.cbse.scoring.model.ScoreRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service for storing batches of scores submitted by game clients.
+ * <p>
+ * Rows are written with JDBC batch statements instead of one JPA persist per score,
+ * since identity generated IDs keep Hibernate from batching inserts. Scores that carry
+ * a session ID are merged into a single row per session, which only changes when the
+ * session reports a higher score.
+ */
+@Service
+public class ScoreBatchService {
+
+    /**
+     * Number of rows sent to the database per JDBC batch.
+     */
+    public static final int JDBC_BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO scores (player_name, score_value, game_date, session_id) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_SQL =
+            "UPDATE scores SET score_value = ? WHERE session_id = ? AND score_value < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor with dependency injection.
+     *
+     * @param jdbcTemplate the template for batched data access
+     */
+    @Autowired
+    public ScoreBatchService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Stores a batch of scores in one transaction.
+     *
+     * @param requests the scores to store, with valid player names
+     * @return the number of inserted and updated rows, and the rows as written
+     */
+    @Transactional
+    public BatchResult saveBatch(List<ScoreRequest> requests) {
+        BatchResult result = new BatchResult(requests.size());
+        // The database keeps microseconds, the rows returned should match what it stores
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<Score> inserts = new ArrayList<>();
+
+        // Scores without a session are stored as they are, the rest is merged per session
+        Map<String, ScoreRequest> bySession = new LinkedHashMap<>();
+        for (ScoreRequest request : requests) {
+            if (request.getSessionId() == null) {
+                inserts.add(new Score(null, request.getPlayerName(), request.getScoreValue(), now));
+            } else {
+                bySession.merge(request.getSessionId(), request,
+                        (current, next) -> next.getScoreValue() > current.getScoreValue() ? next : current);
+            }
+        }
+
+        if (!bySession.isEmpty()) {
+            Map<String, Score> existing = findSessionScores(new ArrayList<>(bySession.keySet()));
+            List<Score> updates = new ArrayList<>();
+
+            for (ScoreRequest request : bySession.values()) {
+                Score score = existing.get(request.getSessionId());
+                if (score == null) {
+                    score = new Score(null, request.getPlayerName(), request.getScoreValue(), now);
+                    score.setSessionId(request.getSessionId());
+                    inserts.add(score);
+                } else if (request.getScoreValue() > score.getScoreValue()) {
+                    result.previousScoreValues.put(score.getId(), score.getScoreValue());
+                    score.setScoreValue(request.getScoreValue());
+                    updates.add(score);
+                }
+            }
+
+            result.updated = updateBatch(updates, result.scores);
+        }
+
+        result.inserted = insertBatch(inserts, result.scores);
+        return result;
+    }
+
+    /**
+     * Gets the stored scores of the given sessions, locking them until the transaction ends
+     * so the values read are still current when they are raised.
+     */
+    private Map<String, Score> findSessionScores(List<String> sessionIds) {
+        Map<String, Score> scores = new HashMap<>();
+
+        // Bounded IN lists keep the statements cacheable and within driver limits
+        for (int from = 0; from < sessionIds.size(); from += JDBC_BATCH_SIZE) {
+            List<String> chunk = sessionIds.subList(from, Math.min(sessionIds.size(), from + JDBC_BATCH_SIZE));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query("SELECT id, player_name, score_value, game_date, session_id FROM scores"
+                            + " WHERE session_id IN (" + placeholders + ") FOR UPDATE",
+                    rs -> {
+                        Score score = new Score(rs.getLong(1), rs.getString(2), rs.getInt(3),
+                                rs.getTimestamp(4).toLocalDateTime());
+                        score.setSessionId(rs.getString(5));
+                        scores.put(score.getSessionId(), score);
+                    },
+                    chunk.toArray());
+        }
+        return scores;
+    }
+
+    /**
+     * Raises the scores of existing session rows in JDBC batches.
+     *
+     * @param scores the session rows holding their new score values
+     * @param written receives the rows that were changed
+     * @return the number of updated rows
+     */
+    private int updateBatch(List<Score> scores, List<Score> written) {
+        int updated = 0;
+        for (int from = 0; from < scores.size(); from += JDBC_BATCH_SIZE) {
+            List<Score> chunk = scores.subList(from, Math.min(scores.size(), from + JDBC_BATCH_SIZE));
+            List<Object[]> rows = new ArrayList<>(chunk.size());
+            for (Score score : chunk) {
+                rows.add(new Object[] {score.getScoreValue(), score.getSessionId(), score.getScoreValue()});
+            }
+
+            int[] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+            for (int i = 0; i < counts.length; i++) {
+                // A concurrent batch may have stored a higher score in the meantime
+                if (counts[i] != 0) {
+                    written.add(chunk.get(i));
+                    updated++;
+                }
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Inserts new rows in JDBC batches and assigns their generated IDs.
+     *
+     * @param scores the rows to insert
+     * @param written receives the inserted rows
+     * @return the number of inserted rows
+     */
+    private int insertBatch(List<Score> scores, List<Score> written) {
+        if (scores.isEmpty()) {
+            return 0;
+        }
+
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            int inserted = 0;
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[] {"id"})) {
+                for (int from = 0; from < scores.size(); from += JDBC_BATCH_SIZE) {
+                    List<Score> chunk = scores.subList(from, Math.min(scores.size(), from + JDBC_BATCH_SIZE));
+                    for (Score score : chunk) {
+                        statement.setString(1, score.getPlayerName());
+                        statement.setInt(2, score.getScoreValue());
+                        statement.setTimestamp(3, Timestamp.valueOf(score.getGameDate()));
+                        if (score.getSessionId() == null) {
+                            statement.setNull(4, Types.VARCHAR);
+                        } else {
+                            statement.setString(4, score.getSessionId());
+                        }
+                        statement.addBatch();
+                    }
+
+                    for (int count : statement.executeBatch()) {
+                        // Drivers may report success without a row count
+                        inserted += count >= 0 ? count : 1;
+                    }
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        for (int i = 0; i < chunk.size() && keys.next(); i++) {
+                            chunk.get(i).setId(keys.getLong(1));
+                        }
+                    }
+                    written.addAll(chunk);
+                }
+            }
+            return inserted;
+        });
+    }
+
+    /**
+     * Outcome of storing a batch of scores.
+     */
+    public static class BatchResult {
+        private final int received;
+        private int inserted;
+        private int updated;
+        private final List<Score> scores = new ArrayList<>();
+        private final Map<Long, Integer> previousScoreValues = new HashMap<>();
+
+        public BatchResult(int received) {
+            this.received = received;
+        }
+
+        public int getReceived() {
+            return received;
+        }
+
+        public int getInserted() {
+            return inserted;
+        }
+
+        public int getUpdated() {
+            return updated;
+        }
+
+        /**
+         * Gets the inserted and updated rows as they were written.
+         *
+         * @return the written scores
+         */
+        @JsonIgnore
+        public List<Score> getScores() {
+            return scores;
+        }
+
+        /**
+         * Gets the score value a written row held before this batch.
+         *
+         * @param score one of the written scores
+         * @return the previous score value, or null if the row was inserted
+         */
+        @JsonIgnore
+        public Integer getPreviousScoreValue(Score score) {
+            return previousScoreValues.get(score.getId());
+        }
+    }
+}
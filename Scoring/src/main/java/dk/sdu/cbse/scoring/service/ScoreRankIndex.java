@@ -0,0 +1,222 @@
+package dk.sdu.cbse.scoring.service;
+
+import dk.sdu.cbse.scoring.repository.ScoreRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Logger;
+
+/**
+ * In-memory count of the stored scores per score value, for rank lookups.
+ * <p>
+ * The counts are kept in a treap ordered by score value, where every node also knows the
+ * total count of its subtree. Finding how many scores beat a given value, and so its rank,
+ * walks a single path of the tree instead of counting rows in the database, and updates are
+ * just as cheap. The index is loaded from the repository at startup and must be told about
+ * every stored, raised or deleted score. Counts may briefly drop below zero when concurrent
+ * requests report their changes out of order; they add up again once all changes arrive.
+ */
+@Service
+public class ScoreRankIndex {
+
+    private static final Logger logger = Logger.getLogger(ScoreRankIndex.class.getName());
+
+    private final ScoreRepository scoreRepository;
+
+    // Root of the treap, guarded by this
+    private Node root;
+
+    /**
+     * Constructor with dependency injection.
+     *
+     * @param scoreRepository the repository the index is loaded from
+     */
+    @Autowired
+    public ScoreRankIndex(ScoreRepository scoreRepository) {
+        this.scoreRepository = scoreRepository;
+    }
+
+    /**
+     * Reloads the counts of all stored scores.
+     */
+    @PostConstruct
+    public synchronized void rebuild() {
+        List<Object[]> counts = scoreRepository.countScoresByValue();
+
+        root = null;
+        for (Object[] row : counts) {
+            root = update(root, ((Number) row[0]).intValue(), ((Number) row[1]).longValue());
+        }
+
+        logger.fine("Score rank index loaded with " + counts.size() + " distinct score values");
+    }
+
+    /**
+     * Counts a stored score.
+     *
+     * @param scoreValue the value of the score
+     */
+    public synchronized void add(int scoreValue) {
+        root = update(root, scoreValue, 1);
+    }
+
+    /**
+     * Stops counting a deleted score.
+     *
+     * @param scoreValue the value of the deleted score
+     */
+    public synchronized void remove(int scoreValue) {
+        root = update(root, scoreValue, -1);
+    }
+
+    /**
+     * Moves a score whose value changed.
+     *
+     * @param oldValue the previous value of the score
+     * @param newValue the new value of the score
+     */
+    public synchronized void change(int oldValue, int newValue) {
+        if (oldValue != newValue) {
+            root = update(root, oldValue, -1);
+            root = update(root, newValue, 1);
+        }
+    }
+
+    /**
+     * Gets the rank a score value holds among the stored scores.
+     * Equal scores share a rank, so the rank is one more than the number of higher scores.
+     *
+     * @param scoreValue the score value
+     * @return the rank, starting at 1
+     */
+    public synchronized long getRank(int scoreValue) {
+        return countAbove(scoreValue) + 1;
+    }
+
+    /**
+     * Gets the number of stored scores higher than a score value.
+     *
+     * @param scoreValue the score value
+     * @return the number of higher scores
+     */
+    public synchronized long countAbove(int scoreValue) {
+        long above = 0;
+        Node node = root;
+        while (node != null) {
+            if (scoreValue < node.value) {
+                above += node.count + total(node.right);
+                node = node.left;
+            } else if (scoreValue > node.value) {
+                node = node.right;
+            } else {
+                above += total(node.right);
+                break;
+            }
+        }
+        return Math.max(0, above);
+    }
+
+    /**
+     * Gets the number of stored scores.
+     *
+     * @return the score count
+     */
+    public synchronized long getTotal() {
+        return Math.max(0, total(root));
+    }
+
+    /**
+     * Adds to the count of a score value, dropping its node once the count reaches zero.
+     */
+    private static Node update(Node node, int value, long delta) {
+        if (node == null) {
+            return delta == 0 ? null : new Node(value, delta);
+        }
+
+        if (value < node.value) {
+            node.left = update(node.left, value, delta);
+            if (node.left != null && node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else if (value > node.value) {
+            node.right = update(node.right, value, delta);
+            if (node.right != null && node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        } else {
+            node.count += delta;
+            if (node.count == 0) {
+                return merge(node.left, node.right);
+            }
+        }
+
+        node.refresh();
+        return node;
+    }
+
+    /**
+     * Joins two treaps where every value of the first is lower than every value of the second.
+     */
+    private static Node merge(Node low, Node high) {
+        if (low == null) {
+            return high;
+        }
+        if (high == null) {
+            return low;
+        }
+
+        if (low.priority > high.priority) {
+            low.right = merge(low.right, high);
+            low.refresh();
+            return low;
+        }
+        high.left = merge(low, high.left);
+        high.refresh();
+        return high;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        node.refresh();
+        left.right = node;
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        node.refresh();
+        right.left = node;
+        return right;
+    }
+
+    private static long total(Node node) {
+        return node == null ? 0 : node.total;
+    }
+
+    /**
+     * Count of one score value, with the total count of its subtree.
+     */
+    private static final class Node {
+        final int value;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        long count;
+        long total;
+        Node left;
+        Node right;
+
+        Node(int value, long count) {
+            this.value = value;
+            this.count = count;
+            this.total = count;
+        }
+
+        void refresh() {
+            total = count + ScoreRankIndex.total(left) + ScoreRankIndex.total(right);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package dk.sdu.cbse.scoring.service;
+
+import dk.sdu.cbse.scoring.model.Score;
+import dk.sdu.cbse.scoring.repository.ScoreRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.logging.Logger;
+
+/**
+ * In-memory index of the highest scores, kept in leaderboard order.
+ * <p>
+ * The index holds at most {@code capacity} scores, so top lists up to that size are
+ * served without a database query. It is loaded from the repository at startup and
+ * must be told about every stored or deleted score. Reads never block; writers are
+ * serialized, and the index reloads itself when a delete leaves it unable to tell
+ * which score comes next.
+ */
+@Service
+public class TopScoreIndex {
+
+    private static final Logger logger = Logger.getLogger(TopScoreIndex.class.getName());
+
+    /**
+     * Number of scores kept by default, enough to serve a full page of scores.
+     */
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    /**
+     * Leaderboard order: highest score first, newer scores first among equal ones.
+     */
+    static final Comparator<Score> LEADERBOARD_ORDER = Comparator
+            .comparingInt(Score::getScoreValue).reversed()
+            .thenComparing(Score::getId, Comparator.reverseOrder());
+
+    private final ScoreRepository scoreRepository;
+    private final int capacity;
+
+    // Indexed scores in leaderboard order, and the same scores by ID
+    private final NavigableSet<Score> scores = new ConcurrentSkipListSet<>(LEADERBOARD_ORDER);
+    private final Map<Long, Score> scoresById = new ConcurrentHashMap<>();
+
+    // Whether the index holds every stored score, false once any was left out
+    private volatile boolean complete = true;
+    private volatile long rebuildCount = 0;
+
+    /**
+     * Constructor with dependency injection.
+     *
+     * @param scoreRepository the repository the index is loaded from
+     * @param capacity the maximum number of indexed scores
+     */
+    @Autowired
+    public TopScoreIndex(ScoreRepository scoreRepository,
+                         @Value("${scoring.top-index.capacity:" + DEFAULT_CAPACITY + "}") int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.scoreRepository = scoreRepository;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Reloads the index with the highest stored scores.
+     */
+    @PostConstruct
+    public synchronized void rebuild() {
+        List<Score> top = scoreRepository.findPage(capacity);
+
+        scores.clear();
+        scoresById.clear();
+        for (Score score : top) {
+            put(copyOf(score));
+        }
+        complete = top.size() < capacity;
+        rebuildCount++;
+
+        logger.fine("Top score index loaded with " + top.size() + " scores");
+    }
+
+    /**
+     * Adds a stored score, or moves it if its score value was raised.
+     *
+     * @param score the score as stored, with its ID
+     */
+    public synchronized void add(Score score) {
+        if (score == null || score.getId() == null) {
+            return;
+        }
+
+        // Stored score values only ever rise, so older copies are ignored
+        Score current = scoresById.get(score.getId());
+        if (current != null) {
+            if (current.getScoreValue() >= score.getScoreValue()) {
+                return;
+            }
+            scores.remove(current);
+            scoresById.remove(current.getId());
+        }
+
+        Score copy = copyOf(score);
+        if (scores.size() >= capacity && LEADERBOARD_ORDER.compare(copy, scores.last()) > 0) {
+            // Ranks below every indexed score of a full index
+            complete = false;
+            return;
+        }
+
+        put(copy);
+        while (scores.size() > capacity) {
+            Score dropped = scores.pollLast();
+            scoresById.remove(dropped.getId());
+            complete = false;
+        }
+    }
+
+    /**
+     * Adds many stored scores.
+     *
+     * @param stored the scores as stored, with their IDs
+     */
+    public synchronized void addAll(Collection<Score> stored) {
+        for (Score score : stored) {
+            add(score);
+        }
+    }
+
+    /**
+     * Removes a deleted score.
+     *
+     * @param id the ID of the deleted score
+     */
+    public synchronized void remove(Long id) {
+        Score current = scoresById.remove(id);
+        if (current == null) {
+            return;
+        }
+        scores.remove(current);
+
+        // The score that moves up into the index is only known to the database
+        if (!complete) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Gets the highest scores, if the index holds enough of them.
+     *
+     * @param count the number of scores wanted
+     * @return up to {@code count} scores in leaderboard order, or null if {@code count}
+     *         exceeds the capacity and the database has to be asked
+     */
+    public List<Score> getTop(int count) {
+        if (count > capacity) {
+            return null;
+        }
+
+        List<Score> top = new ArrayList<>(Math.min(count, scores.size()));
+        Iterator<Score> iterator = scores.iterator();
+        while (top.size() < count && iterator.hasNext()) {
+            top.add(copyOf(iterator.next()));
+        }
+        return top;
+    }
+
+    /**
+     * Gets the maximum number of indexed scores.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of indexed scores.
+     *
+     * @return the index size
+     */
+    public int size() {
+        return scores.size();
+    }
+
+    /**
+     * Gets how often the index was loaded from the database.
+     *
+     * @return the rebuild count
+     */
+    public long getRebuildCount() {
+        return rebuildCount;
+    }
+
+    private void put(Score score) {
+        scores.add(score);
+        scoresById.put(score.getId(), score);
+    }
+
+    /**
+     * Gets a detached copy of a score, so later changes to managed entities or
+     * returned lists cannot reorder the index. The date is cut to the microseconds
+     * the database keeps, so a score reads the same from the index and the database.
+     */
+    private static Score copyOf(Score score) {
+        LocalDateTime gameDate = score.getGameDate() != null ? score.getGameDate().truncatedTo(ChronoUnit.MICROS) : null;
+        Score copy = new Score(score.getId(), score.getPlayerName(), score.getScoreValue(), gameDate);
+        copy.setSessionId(score.getSessionId());
+        return copy;
+    }
+}
@@ -0,0 +1,106 @@
+package dk.sdu.cbse.scoring.service;
+
+import dk.sdu.cbse.scoring.repository.ScoreRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ScoreRankIndex}, checked against counting a plain list of scores.
+ */
+class ScoreRankIndexTest {
+
+    @Test
+    void equalScoresShareARank() {
+        ScoreRankIndex index = new ScoreRankIndex(mock(ScoreRepository.class));
+        index.add(100);
+        index.add(100);
+        index.add(50);
+
+        assertEquals(1, index.getRank(100));
+        assertEquals(3, index.getRank(50));
+        assertEquals(1, index.getRank(500));
+        assertEquals(4, index.getRank(0));
+        assertEquals(3, index.getTotal());
+    }
+
+    @Test
+    void matchesBruteForceUnderRandomUpdates() {
+        ScoreRankIndex index = new ScoreRankIndex(mock(ScoreRepository.class));
+        List<Integer> scores = new ArrayList<>();
+        Random random = new Random(42);
+
+        for (int step = 0; step < 20_000; step++) {
+            int operation = random.nextInt(4);
+            if (operation < 2 || scores.isEmpty()) {
+                int value = random.nextInt(200);
+                scores.add(value);
+                index.add(value);
+            } else if (operation == 2) {
+                int value = scores.remove(random.nextInt(scores.size()));
+                index.remove(value);
+            } else {
+                int position = random.nextInt(scores.size());
+                int oldValue = scores.get(position);
+                int newValue = oldValue + random.nextInt(50);
+                scores.set(position, newValue);
+                index.change(oldValue, newValue);
+            }
+
+            if (step % 500 == 0) {
+                assertMatches(scores, index);
+            }
+        }
+        assertMatches(scores, index);
+    }
+
+    @Test
+    void rebuildsFromTheStoredCounts() {
+        ScoreRepository repository = mock(ScoreRepository.class);
+        when(repository.countScoresByValue()).thenReturn(List.of(
+                new Object[] {300, 2L}, new Object[] {200, 1L}, new Object[] {100, 4L}));
+
+        ScoreRankIndex index = new ScoreRankIndex(repository);
+        index.add(999);
+        index.rebuild();
+
+        assertEquals(7, index.getTotal());
+        assertEquals(1, index.getRank(300));
+        assertEquals(3, index.getRank(200));
+        assertEquals(4, index.getRank(100));
+        assertEquals(8, index.getRank(99));
+    }
+
+    @Test
+    void addsUpAgainAfterChangesArriveOutOfOrder() {
+        ScoreRankIndex index = new ScoreRankIndex(mock(ScoreRepository.class));
+        index.add(10);
+
+        // A raise from 20 to 30 reported before the raise from 10 to 20
+        index.change(20, 30);
+        index.change(10, 20);
+
+        assertEquals(1, index.getTotal());
+        assertEquals(1, index.getRank(30));
+        assertEquals(2, index.getRank(20));
+    }
+
+    private static void assertMatches(List<Integer> scores, ScoreRankIndex index) {
+        assertEquals(scores.size(), index.getTotal());
+        for (int value = -1; value <= 260; value++) {
+            long above = 0;
+            for (int score : scores) {
+                if (score > value) {
+                    above++;
+                }
+            }
+            assertEquals(above + 1, index.getRank(value), "rank of " + value);
+        }
+    }
+}
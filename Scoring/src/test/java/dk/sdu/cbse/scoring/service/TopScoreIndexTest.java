@@ -0,0 +1,137 @@
+package dk.sdu.cbse.scoring.service;
+
+import dk.sdu.cbse.scoring.model.Score;
+import dk.sdu.cbse.scoring.repository.ScoreRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link TopScoreIndex}.
+ */
+class TopScoreIndexTest {
+
+    private static final int CAPACITY = 3;
+
+    private final List<Score> stored = new ArrayList<>();
+    private ScoreRepository repository;
+    private TopScoreIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ScoreRepository.class);
+        when(repository.findPage(anyInt())).thenAnswer(invocation -> {
+            List<Score> page = new ArrayList<>(stored);
+            page.sort(TopScoreIndex.LEADERBOARD_ORDER);
+            return page.subList(0, Math.min(page.size(), invocation.getArgument(0)));
+        });
+        index = new TopScoreIndex(repository, CAPACITY);
+        index.rebuild();
+    }
+
+    @Test
+    void keepsTheHighestScoresInLeaderboardOrder() {
+        store(1, 50);
+        store(2, 80);
+        store(3, 10);
+        store(4, 80);
+        store(5, 30);
+
+        // Equal scores rank the newer one first, the lowest ones were evicted
+        assertEquals(List.of(4L, 2L, 1L), ids(index.getTop(CAPACITY)));
+        assertEquals(CAPACITY, index.size());
+    }
+
+    @Test
+    void ignoresScoresBelowAFullIndex() {
+        store(1, 50);
+        store(2, 60);
+        store(3, 70);
+        store(4, 5);
+
+        assertEquals(List.of(3L, 2L, 1L), ids(index.getTop(CAPACITY)));
+    }
+
+    @Test
+    void movesRaisedScoresAndIgnoresStaleCopies() {
+        store(1, 50);
+        store(2, 60);
+
+        index.add(score(1, 90));
+        index.add(score(1, 40));
+
+        List<Score> top = index.getTop(CAPACITY);
+        assertEquals(List.of(1L, 2L), ids(top));
+        assertEquals(90, top.get(0).getScoreValue());
+    }
+
+    @Test
+    void rebuildsWhenADeleteLeavesAnIncompleteIndex() {
+        for (int id = 1; id <= 5; id++) {
+            store(id, id * 10);
+        }
+        long rebuilds = index.getRebuildCount();
+
+        // Score 2 moves up, but only the database knows about it
+        stored.removeIf(score -> score.getId() == 5L);
+        index.remove(5L);
+
+        assertEquals(rebuilds + 1, index.getRebuildCount());
+        assertEquals(List.of(4L, 3L, 2L), ids(index.getTop(CAPACITY)));
+    }
+
+    @Test
+    void removesWithoutRebuildWhileTheIndexHoldsEveryScore() {
+        store(1, 10);
+        store(2, 20);
+        long rebuilds = index.getRebuildCount();
+
+        stored.removeIf(score -> score.getId() == 2L);
+        index.remove(2L);
+
+        assertEquals(rebuilds, index.getRebuildCount());
+        assertEquals(List.of(1L), ids(index.getTop(CAPACITY)));
+    }
+
+    @Test
+    void leavesListsLargerThanTheCapacityToTheDatabase() {
+        store(1, 10);
+
+        assertNull(index.getTop(CAPACITY + 1));
+        assertEquals(Collections.emptyList(), index.getTop(0));
+    }
+
+    @Test
+    void keepsDatesAtTheDatabasePrecision() {
+        Score score = new Score(1L, "player1", 10, LocalDateTime.of(2026, 1, 2, 3, 4, 5, 871_914_027));
+        stored.add(score);
+        index.add(score);
+
+        assertEquals(LocalDateTime.of(2026, 1, 2, 3, 4, 5, 871_914_000), index.getTop(1).get(0).getGameDate());
+    }
+
+    private void store(long id, int scoreValue) {
+        Score score = score(id, scoreValue);
+        stored.add(score);
+        index.add(score);
+    }
+
+    private static Score score(long id, int scoreValue) {
+        return new Score(id, "player" + id, scoreValue, LocalDateTime.now());
+    }
+
+    private static List<Long> ids(List<Score> scores) {
+        return scores.stream().map(Score::getId).collect(Collectors.toList());
+    }
+}